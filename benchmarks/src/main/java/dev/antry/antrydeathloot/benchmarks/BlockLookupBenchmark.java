@@ -0,0 +1,86 @@
+package dev.antry.antrydeathloot.benchmarks;
+
+import dev.antry.antrydeathloot.data.BlockIndex;
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lookup every block break, damage and interact event goes through:
+ * {@code DeathChestManager.isDeathChest(Block)}, i.e. the chunk occupancy check followed
+ * by the block index probe.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockLookupBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int chests;
+
+    private final BlockIndex<Boolean> deathChests = new BlockIndex<>();
+    private final ChunkOccupancy occupiedChunks = new ChunkOccupancy();
+
+    private Block chestBlock;
+    private Block neighbourBlock;
+    private Block emptyChunkBlock;
+    private Location chestLocation;
+
+    @Setup
+    public void setup() {
+        World world = BukkitStubs.world("world");
+        // Spread chests over a grid of chunks, one per chunk, like deaths across a map
+        int side = (int) Math.ceil(Math.sqrt(chests));
+        for (int i = 0; i < chests; i++) {
+            Location location = new Location(world, (i % side) * 16 + 8, 64, (i / side) * 16 + 8);
+            deathChests.put(location, Boolean.TRUE);
+            occupiedChunks.add(location);
+        }
+
+        chestBlock = BukkitStubs.block(world, 8, 64, 8);
+        neighbourBlock = BukkitStubs.block(world, 9, 64, 8);
+        emptyChunkBlock = BukkitStubs.block(world, -1000, 64, -1000);
+        chestLocation = new Location(world, 8, 64, 8);
+    }
+
+    @Benchmark
+    public boolean chestHit() {
+        return isDeathChest(chestBlock);
+    }
+
+    @Benchmark
+    public boolean occupiedChunkMiss() {
+        return isDeathChest(neighbourBlock);
+    }
+
+    @Benchmark
+    public boolean emptyChunkMiss() {
+        return isDeathChest(emptyChunkBlock);
+    }
+
+    @Benchmark
+    public boolean locationHit() {
+        return deathChests.containsKey(chestLocation);
+    }
+
+    private boolean isDeathChest(Block block) {
+        return occupiedChunks.isOccupied(block) && deathChests.containsKey(block);
+    }
+}
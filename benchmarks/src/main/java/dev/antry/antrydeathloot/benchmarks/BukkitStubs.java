@@ -0,0 +1,67 @@
+package dev.antry.antrydeathloot.benchmarks;
+
+import dev.antry.antrydeathloot.simulation.Proxies;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Minimal server-free {@link World} and {@link Block} implementations.
+ * <p>
+ * Built on dynamic proxies, so every call costs a reflective dispatch. That overhead is
+ * the same for every variant of a benchmark; compare results between runs, not against
+ * a real server.
+ */
+final class BukkitStubs {
+
+    private BukkitStubs() {
+    }
+
+    /**
+     * @return a world with every chunk loaded and no players
+     */
+    static World world(String name) {
+        UUID id = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+        return Proxies.create(World.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getUID":
+                    return id;
+                case "getName":
+                    return name;
+                case "isChunkLoaded":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * @return a chest block at the given coordinates
+     */
+    static Block block(World world, int x, int y, int z) {
+        Location location = new Location(world, x, y, z);
+        return Proxies.create(Block.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getWorld":
+                    return world;
+                case "getX":
+                    return x;
+                case "getY":
+                    return y;
+                case "getZ":
+                    return z;
+                case "getLocation":
+                    return location.clone();
+                case "getType":
+                    return Material.CHEST;
+                default:
+                    return null;
+            }
+        });
+    }
+}
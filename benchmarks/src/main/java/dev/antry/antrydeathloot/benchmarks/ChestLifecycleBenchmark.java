@@ -0,0 +1,107 @@
+package dev.antry.antrydeathloot.benchmarks;
+
+import dev.antry.antrydeathloot.data.BlockIndex;
+import dev.antry.antrydeathloot.data.BlockKey;
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import dev.antry.antrydeathloot.data.DeathChestData;
+import dev.antry.antrydeathloot.scheduler.TimingWheel;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plugin-side bookkeeping of a chest's life: tracking a new chest, scheduling and
+ * cancelling its break timer, and the per-tick cost of the timer wheel with many chests
+ * counting down. Block placement and inventory work happen in the server and are not
+ * measured here.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ChestLifecycleBenchmark {
+    private static final int TIMER_WHEEL_SIZE = 512;
+    private static final long TICKS_PER_SECOND = 20L;
+    private static final int BREAK_TIME_SECONDS = 60;
+
+    @Param({"100", "5000"})
+    public int activeChests;
+
+    private final BlockIndex<DeathChestData> deathChests = new BlockIndex<>();
+    private final ChunkOccupancy occupiedChunks = new ChunkOccupancy();
+    private final TimingWheel timerWheel = new TimingWheel(TIMER_WHEEL_SIZE);
+    private final TimingWheel.Task countdown = timeout -> timeout.reschedule(TICKS_PER_SECOND);
+
+    private World world;
+    private UUID owner;
+    private Location location;
+
+    @Setup
+    public void setup() {
+        world = BukkitStubs.world("world");
+        owner = UUID.randomUUID();
+        location = new Location(world, 100_000, 64, 100_000);
+
+        // Background chests, each with a once-per-second countdown like ChestCountdown
+        for (int i = 0; i < activeChests; i++) {
+            Location chest = new Location(world, i * 3, 64, 0);
+            deathChests.put(chest, chestData(chest));
+            occupiedChunks.add(chest);
+            timerWheel.schedule(1 + i % TICKS_PER_SECOND, countdown);
+        }
+    }
+
+    @Benchmark
+    public DeathChestData trackAndUntrack() {
+        DeathChestData data = chestData(location);
+        if (deathChests.put(location, data) == null) {
+            occupiedChunks.add(location);
+        }
+        DeathChestData removed = deathChests.remove(location);
+        if (removed != null) {
+            occupiedChunks.remove(location);
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancelBreak() {
+        TimingWheel.Timeout timeout = timerWheel.schedule(TICKS_PER_SECOND, countdown);
+        return timeout.cancel();
+    }
+
+    @Benchmark
+    public int tickWheel() {
+        timerWheel.tick();
+        return timerWheel.getPendingCount();
+    }
+
+    private DeathChestData chestData(Location location) {
+        return DeathChestData.builder()
+                .ownerUuid(owner)
+                .ownerName("Player")
+                .worldId(world.getUID())
+                .blockKey(BlockKey.of(location))
+                .items(Collections.emptyList())
+                .createdAt(System.currentTimeMillis())
+                .breakTimeSeconds(BREAK_TIME_SECONDS)
+                .remainingSeconds(BREAK_TIME_SECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package dev.antry.antrydeathloot.benchmarks;
+
+import dev.antry.antrydeathloot.config.PluginConfig;
+import dev.antry.antrydeathloot.hologram.CountdownTextCache;
+import dev.antry.antrydeathloot.hologram.Hologram;
+import dev.antry.antrydeathloot.hologram.PacketHologramBackend;
+import dev.antry.antrydeathloot.hologram.RecordingPacketSink;
+import dev.antry.antrydeathloot.text.MessageTemplate;
+import dev.antry.antrydeathloot.text.Placeholder;
+import dev.antry.antrydeathloot.text.TemplateValues;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The once-per-second hologram countdown update, as done by {@code HologramManager.updateTimer}:
+ * rendering the countdown line and pushing it to a packet hologram with no viewers.
+ * {@link #renderUncached()} is the per-update string work the cache avoids, and
+ * {@link #renderTemplate()} the compiled template the cache renders with on a miss.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HologramTextBenchmark {
+
+    private PluginConfig config;
+    private CountdownTextCache countdownText;
+    private MessageTemplate template;
+    private TemplateValues values;
+    private Hologram hologram;
+    private int seconds;
+
+    @Setup
+    public void setup() {
+        // Defaults from an empty config, as on a fresh install
+        config = PluginConfig.fromFileConfiguration(YamlConfiguration.loadConfiguration(new StringReader("")),
+                Logger.getLogger("benchmark"));
+        countdownText = new CountdownTextCache();
+        template = MessageTemplate.compile(config.getHologramSecondLine());
+        values = new TemplateValues();
+
+        PacketHologramBackend backend = new PacketHologramBackend(new RecordingPacketSink(), 32);
+        Location location = new Location(BukkitStubs.world("world"), 0.5, 65, 0.5);
+        hologram = backend.create(location, Arrays.asList("owner", "countdown"), 0.3);
+    }
+
+    @Benchmark
+    public String renderCached() {
+        return countdownText.get(config, nextSeconds());
+    }
+
+    @Benchmark
+    public String renderUncached() {
+        return ChatColor.translateAlternateColorCodes('&',
+                config.getHologramSecondLine().replace("%seconds%", String.valueOf(nextSeconds())));
+    }
+
+    @Benchmark
+    public String renderTemplate() {
+        return template.render(values.set(Placeholder.SECONDS, nextSeconds()));
+    }
+
+    @Benchmark
+    public String updateTimer() {
+        String line = countdownText.get(config, config.getDisplayedSeconds(nextSeconds()));
+        if (!line.equals(hologram.getLine(1)) && hologram.isValid()) {
+            hologram.setLine(1, line);
+        }
+        return line;
+    }
+
+    private int nextSeconds() {
+        seconds = seconds == 0 ? config.getChestBreakTime() : seconds - 1;
+        return seconds;
+    }
+}
@@ -0,0 +1,127 @@
+package dev.antry.antrydeathloot.benchmarks;
+
+import dev.antry.antrydeathloot.persistence.ItemStackCodec;
+import dev.antry.antrydeathloot.simulation.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading the contents of a snapshot's worth of death chests: the binary
+ * {@link ItemStackCodec}, with and without compression, against storing the same item
+ * lists in a {@link YamlConfiguration} through {@code ConfigurationSerializable}, as
+ * the YAML data file did. One op is the whole set of chests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemCodecBenchmark {
+    private static final int CHESTS = 50;
+
+    private List<List<ItemStack>> lists;
+    private ItemStackCodec codec;
+    private ItemStackCodec compressingCodec;
+    private ByteBuffer encoded;
+    private ByteBuffer encodedCompressed;
+    private String yaml;
+
+    @Setup
+    public void setup() throws IOException {
+        new FakeServer();
+        lists = new ArrayList<>(CHESTS);
+        for (int i = 0; i < CHESTS; i++) {
+            lists.add(inventory(i));
+        }
+        codec = new ItemStackCodec(false);
+        compressingCodec = new ItemStackCodec(true);
+        encoded = codec.encodeAll(lists);
+        encodedCompressed = compressingCodec.encodeAll(lists);
+        yaml = encodeYaml();
+    }
+
+    @Benchmark
+    public ByteBuffer encodeCodec() throws IOException {
+        return codec.encodeAll(lists);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeCodecCompressed() throws IOException {
+        return compressingCodec.encodeAll(lists);
+    }
+
+    @Benchmark
+    public String encodeYaml() {
+        YamlConfiguration config = new YamlConfiguration();
+        for (int i = 0; i < lists.size(); i++) {
+            config.set("chests." + i + ".items", lists.get(i));
+        }
+        return config.saveToString();
+    }
+
+    @Benchmark
+    public List<List<ItemStack>> decodeCodec() throws IOException {
+        return codec.decodeAll(encoded.duplicate());
+    }
+
+    @Benchmark
+    public List<List<ItemStack>> decodeCodecCompressed() throws IOException {
+        return compressingCodec.decodeAll(encodedCompressed.duplicate());
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<List<ItemStack>> decodeYaml() throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(yaml);
+        List<List<ItemStack>> result = new ArrayList<>(CHESTS);
+        for (String key : config.getConfigurationSection("chests").getKeys(false)) {
+            result.add((List<ItemStack>) config.getList("chests." + key + ".items"));
+        }
+        return result;
+    }
+
+    /**
+     * A full player inventory, every ninth stack named, lored and enchanted
+     */
+    private static List<ItemStack> inventory(int seed) {
+        Material[] materials = {Material.STONE, Material.DIRT, Material.COBBLESTONE, Material.LOG,
+                Material.IRON_INGOT, Material.BREAD, Material.TORCH, Material.ARROW, Material.DIAMOND_SWORD};
+        List<ItemStack> items = new ArrayList<>(36);
+        for (int slot = 0; slot < 36; slot++) {
+            Material material = materials[(slot + seed) % materials.length];
+            ItemStack item = new ItemStack(material, Math.min(material.getMaxStackSize(), 1 + (slot * 7 + seed) % 64));
+            if (slot % 9 == 0) {
+                ItemMeta meta = item.getItemMeta();
+                meta.setDisplayName("Item " + slot);
+                meta.setLore(Collections.singletonList("Dropped by player " + seed));
+                meta.addEnchant(Enchantment.DURABILITY, 1 + slot % 3, false);
+                item.setItemMeta(meta);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+}
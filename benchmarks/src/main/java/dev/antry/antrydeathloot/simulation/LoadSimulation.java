@@ -0,0 +1,341 @@
+package dev.antry.antrydeathloot.simulation;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import dev.antry.antrydeathloot.managers.DeathChestManager;
+import dev.antry.antrydeathloot.metrics.Histogram;
+import dev.antry.antrydeathloot.metrics.MetricsRegistry;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Replays a death storm against the plugin on a {@link FakeServer} and reports per-tick
+ * plugin cost, peak load and leaks.
+ * <p>
+ * The load phase fires deaths, instant breaks and chunk unloads at the configured rates.
+ * The drain phase then reloads every chunk and runs until all chests have expired. Leak
+ * checks run after the drain and again after the plugin is disabled. Exits with status 1
+ * if any check fails.
+ * <p>
+ * Per-tick cost includes the fake server's own overhead, which is small but not zero;
+ * use it to compare configurations and builds, not as an absolute server figure.
+ */
+public final class LoadSimulation {
+    private static final String USAGE = "Usage: LoadSimulation [duration=60] [deaths-per-second=5] [players=50] "
+            + "[stacks-per-death=20] [spread=256] [breaks-per-second=1] [chunk-unloads-per-second=0.5] "
+            + "[chunk-unload-seconds=10] [max-drain-seconds=300] [seed=42] [config.<path>=<value> ...]";
+    private static final int TICKS_PER_SECOND = 20;
+    private static final int GROUND_Y = 64;
+    private static final double NANOS_TO_MILLIS = 1e-6;
+    private static final Material[] DROP_TYPES = {
+            Material.DIAMOND_SWORD, Material.IRON_PICKAXE, Material.IRON_INGOT, Material.GOLD_INGOT,
+            Material.COBBLESTONE, Material.DIRT, Material.LOG, Material.BREAD, Material.ARROW, Material.TORCH
+    };
+
+    private final Scenario scenario;
+    private final Random random;
+    private final FakeServer server = new FakeServer();
+    private final FakeWorld world = server.createWorld("world", GROUND_Y);
+    private final List<Player> players = new ArrayList<>();
+    private final Map<Long, Long> reloadAt = new HashMap<>();
+    private final Histogram tickCost = new MetricsRegistry().timer("simulation_tick_seconds", "Plugin time per tick");
+    private AntryDeathLoot plugin;
+
+    private double pendingDeaths;
+    private double pendingBreaks;
+    private double pendingUnloads;
+    private long deaths;
+    private long breaks;
+    private long cancelledBreaks;
+    private long unloads;
+    private long serverDrops;
+
+    private int peakChests;
+    private int peakQueued;
+    private int peakFalling;
+    private int peakArmorStands;
+    private int peakItems;
+
+    private LoadSimulation(Scenario scenario) {
+        this.scenario = scenario;
+        this.random = new Random(scenario.seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Scenario scenario;
+        try {
+            scenario = Scenario.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        System.exit(new LoadSimulation(scenario).run() ? 0 : 1);
+    }
+
+    /**
+     * @return true if every leak check passed
+     */
+    private boolean run() throws Exception {
+        File dataFolder = Files.createTempDirectory("deathloot-simulation").toFile();
+        try {
+            writeConfig(dataFolder);
+            plugin = server.enablePlugin(dataFolder);
+            if (!plugin.isEnabled() || plugin.getDeathChestManager() == null) {
+                System.out.println("Plugin failed to enable");
+                return false;
+            }
+            for (int i = 0; i < scenario.players; i++) {
+                players.add(server.addPlayer("Player" + i, new Location(world.getWorld(), 0, GROUND_Y, 0)));
+            }
+
+            System.out.println("Scenario: " + scenario);
+            int loadTicks = scenario.durationSeconds * TICKS_PER_SECOND;
+            for (int i = 0; i < loadTicks; i++) {
+                tick(true);
+            }
+            List<String> stats = server.dispatchConsole("deathloot", "stats");
+
+            for (Long chunk : new ArrayList<>(reloadAt.keySet())) {
+                world.loadChunk(ChunkOccupancy.getChunkX(chunk), ChunkOccupancy.getChunkZ(chunk));
+            }
+            reloadAt.clear();
+            int drainTicks = 0;
+            int maxDrainTicks = scenario.maxDrainSeconds * TICKS_PER_SECOND;
+            while (!isDrained() && drainTicks < maxDrainTicks) {
+                tick(false);
+                drainTicks++;
+            }
+
+            report(loadTicks, drainTicks, maxDrainTicks, stats);
+            return checkLeaks();
+        } finally {
+            deleteRecursively(dataFolder);
+        }
+    }
+
+    private void tick(boolean load) {
+        // Build the scenario's events up front so only the plugin's handling is timed
+        List<PlayerDeathEvent> deathEvents = new ArrayList<>();
+        List<BlockBreakEvent> breakEvents = new ArrayList<>();
+        List<long[]> chunksToUnload = new ArrayList<>();
+        if (load) {
+            pendingDeaths += scenario.deathsPerSecond / TICKS_PER_SECOND;
+            for (; pendingDeaths >= 1; pendingDeaths--) {
+                deathEvents.add(death());
+            }
+            pendingBreaks += scenario.breaksPerSecond / TICKS_PER_SECOND;
+            for (; pendingBreaks >= 1; pendingBreaks--) {
+                BlockBreakEvent event = instantBreak();
+                if (event != null) {
+                    breakEvents.add(event);
+                }
+            }
+            pendingUnloads += scenario.chunkUnloadsPerSecond / TICKS_PER_SECOND;
+            for (; pendingUnloads >= 1; pendingUnloads--) {
+                long[] chunk = chunkToUnload();
+                if (chunk != null) {
+                    chunksToUnload.add(chunk);
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        server.getScheduler().tick();
+        world.tick(server.getCurrentTick());
+        reloadDueChunks();
+
+        for (PlayerDeathEvent event : deathEvents) {
+            server.callEvent(event);
+            deaths++;
+            // Whatever the plugin leaves in the drops list, the server would drop on the ground
+            serverDrops += event.getDrops().size();
+        }
+        for (BlockBreakEvent event : breakEvents) {
+            server.callEvent(event);
+            breaks++;
+            if (event.isCancelled()) {
+                cancelledBreaks++;
+            } else {
+                Block block = event.getBlock();
+                world.breakNaturally(block.getX(), block.getY(), block.getZ());
+            }
+        }
+        for (long[] chunk : chunksToUnload) {
+            if (world.unloadChunk((int) chunk[0], (int) chunk[1])) {
+                unloads++;
+                reloadAt.put(ChunkOccupancy.chunkKey((int) chunk[0], (int) chunk[1]),
+                        server.getCurrentTick() + scenario.chunkUnloadSeconds * TICKS_PER_SECOND);
+            }
+        }
+        tickCost.recordSince(start);
+
+        DeathChestManager manager = plugin.getDeathChestManager();
+        peakChests = Math.max(peakChests, manager.getActiveChestCount());
+        peakQueued = Math.max(peakQueued, manager.getQueuedChestCount());
+        peakFalling = Math.max(peakFalling, manager.getFallingChestCount());
+        peakArmorStands = Math.max(peakArmorStands, world.countEntities(FakeEntity.Kind.ARMOR_STAND));
+        peakItems = Math.max(peakItems, world.countEntities(FakeEntity.Kind.ITEM));
+    }
+
+    private PlayerDeathEvent death() {
+        Player player = players.get(random.nextInt(players.size()));
+        int x = random.nextInt(scenario.spread * 2 + 1) - scenario.spread;
+        int z = random.nextInt(scenario.spread * 2 + 1) - scenario.spread;
+        player.teleport(new Location(world.getWorld(), x + 0.5, GROUND_Y, z + 0.5));
+
+        List<ItemStack> drops = new ArrayList<>(scenario.stacksPerDeath);
+        for (int i = 0; i < scenario.stacksPerDeath; i++) {
+            Material type = DROP_TYPES[random.nextInt(DROP_TYPES.length)];
+            drops.add(new ItemStack(type, 1 + random.nextInt(type.getMaxStackSize())));
+        }
+        return new PlayerDeathEvent(player, drops, 0, player.getName() + " died");
+    }
+
+    private BlockBreakEvent instantBreak() {
+        List<Location> chests = new ArrayList<>();
+        for (Location chest : world.getChestLocations()) {
+            if (world.isChunkLoaded(chest.getBlockX() >> 4, chest.getBlockZ() >> 4)) {
+                chests.add(chest);
+            }
+        }
+        if (chests.isEmpty()) {
+            return null;
+        }
+        Location chest = chests.get(random.nextInt(chests.size()));
+        Player player = players.get(random.nextInt(players.size()));
+        return new BlockBreakEvent(chest.getBlock(), player);
+    }
+
+    private long[] chunkToUnload() {
+        // Unload chunks holding chests; those are the ones that exercise the plugin
+        List<Location> chests = world.getChestLocations();
+        for (int attempt = 0; attempt < 8 && !chests.isEmpty(); attempt++) {
+            Location chest = chests.get(random.nextInt(chests.size()));
+            int chunkX = chest.getBlockX() >> 4;
+            int chunkZ = chest.getBlockZ() >> 4;
+            if (world.isChunkLoaded(chunkX, chunkZ)) {
+                return new long[]{chunkX, chunkZ};
+            }
+        }
+        return null;
+    }
+
+    private void reloadDueChunks() {
+        Iterator<Map.Entry<Long, Long>> iterator = reloadAt.entrySet().iterator();
+        List<Long> due = new ArrayList<>();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Long> entry = iterator.next();
+            if (entry.getValue() <= server.getCurrentTick()) {
+                due.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+        for (Long chunk : due) {
+            world.loadChunk(ChunkOccupancy.getChunkX(chunk), ChunkOccupancy.getChunkZ(chunk));
+        }
+    }
+
+    private boolean isDrained() {
+        DeathChestManager manager = plugin.getDeathChestManager();
+        return manager.getActiveChestCount() == 0 && manager.getQueuedChestCount() == 0
+                && manager.getFallingChestCount() == 0 && world.countEntities(FakeEntity.Kind.FALLING_BLOCK) == 0;
+    }
+
+    private void report(int loadTicks, int drainTicks, int maxDrainTicks, List<String> stats) {
+        System.out.println();
+        System.out.println("Load phase: " + loadTicks + " ticks, " + deaths + " deaths, " + breaks + " instant breaks ("
+                + cancelledBreaks + " handled by the plugin), " + unloads + " chunk unloads");
+        System.out.println(String.format("Per-tick plugin cost: p50 %.3f ms, p99 %.3f ms, max %.3f ms over %d ticks",
+                tickCost.getQuantile(0.5) * 1000, tickCost.getQuantile(0.99) * 1000, tickCost.getMax() * 1000,
+                tickCost.getCount()));
+        System.out.println("Peaks: " + peakChests + " tracked chests, " + peakQueued + " queued deaths, "
+                + peakFalling + " falling chests, " + peakArmorStands + " ArmorStands, " + peakItems + " dropped items");
+        System.out.println("Messages: " + server.getBroadcastCount() + " broadcasts, "
+                + server.getPlayerMessageCount() + " player messages");
+        System.out.println(drainTicks < maxDrainTicks || isDrained()
+                ? "Drain: every chest expired within " + drainTicks + " ticks"
+                : "Drain: chests still tracked after " + drainTicks + " ticks");
+
+        System.out.println();
+        System.out.println("Plugin statistics at the end of the load phase:");
+        for (String line : stats) {
+            System.out.println("  " + ChatColor.stripColor(line));
+        }
+    }
+
+    private boolean checkLeaks() throws Exception {
+        DeathChestManager manager = plugin.getDeathChestManager();
+        int oneShotTasks = server.getScheduler().getPendingTasks(plugin).size() - server.getScheduler().getRepeatingTaskCount(plugin);
+
+        System.out.println();
+        System.out.println("Leak checks after drain:");
+        boolean clean = check("no tracked chests", manager.getActiveChestCount());
+        clean &= check("no chest blocks left in the world", world.getChestLocations().size());
+        clean &= check("no ArmorStands left", world.countEntities(FakeEntity.Kind.ARMOR_STAND)
+                + world.countStoredEntities(FakeEntity.Kind.ARMOR_STAND));
+        clean &= check("no falling blocks left", world.countEntities(FakeEntity.Kind.FALLING_BLOCK));
+        clean &= check("no one-shot tasks pending", oneShotTasks);
+        clean &= check("no chunk loads forced by the plugin", world.getForcedChunkLoads());
+        clean &= check("no drops left to the server", serverDrops);
+        System.out.println("  repeating tasks: " + server.getScheduler().getRepeatingTaskCount(plugin));
+
+        server.disablePlugin();
+        System.out.println("Leak checks after disable:");
+        clean &= check("no tasks left scheduled", server.getScheduler().getPendingTasks(plugin).size());
+        clean &= check("no ArmorStands left", world.countEntities(FakeEntity.Kind.ARMOR_STAND));
+        server.releasePlugin();
+
+        System.out.println();
+        System.out.println(clean ? "No leaks found" : "Leaks found");
+        return clean;
+    }
+
+    private static boolean check(String description, long value) {
+        boolean passed = value == 0;
+        System.out.println("  [" + (passed ? "ok" : "FAIL") + "] " + description + (passed ? "" : " (" + value + ")"));
+        return passed;
+    }
+
+    private void writeConfig(File dataFolder) throws IOException {
+        YamlConfiguration config;
+        try (Reader defaults = new InputStreamReader(
+                AntryDeathLoot.class.getClassLoader().getResourceAsStream("config.yml"), StandardCharsets.UTF_8)) {
+            config = YamlConfiguration.loadConfiguration(defaults);
+        }
+        for (Map.Entry<String, Object> override : scenario.configOverrides.entrySet()) {
+            config.set(override.getKey(), override.getValue());
+        }
+        config.save(new File(dataFolder, "config.yml"));
+    }
+
+    private static void deleteRecursively(File folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
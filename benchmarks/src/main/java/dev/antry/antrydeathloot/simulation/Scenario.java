@@ -0,0 +1,108 @@
+package dev.antry.antrydeathloot.simulation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load scenario read from {@code key=value} arguments. Keys starting with {@code config.}
+ * override the plugin's config.yml, e.g. {@code config.falling-chest.enabled=false}.
+ */
+public final class Scenario {
+    private static final String CONFIG_PREFIX = "config.";
+
+    int durationSeconds = 60;
+    double deathsPerSecond = 5;
+    int players = 50;
+    int stacksPerDeath = 20;
+    int spread = 256;
+    double breaksPerSecond = 1;
+    double chunkUnloadsPerSecond = 0.5;
+    int chunkUnloadSeconds = 10;
+    int maxDrainSeconds = 300;
+    long seed = 42L;
+    final Map<String, Object> configOverrides = new LinkedHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException for unknown keys or malformed values
+     */
+    static Scenario parse(String[] args) {
+        Scenario scenario = new Scenario();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            String key = arg.substring(0, split);
+            String value = arg.substring(split + 1);
+
+            if (key.startsWith(CONFIG_PREFIX)) {
+                scenario.configOverrides.put(key.substring(CONFIG_PREFIX.length()), parseValue(value));
+                continue;
+            }
+            switch (key) {
+                case "duration":
+                    scenario.durationSeconds = Integer.parseInt(value);
+                    break;
+                case "deaths-per-second":
+                    scenario.deathsPerSecond = Double.parseDouble(value);
+                    break;
+                case "players":
+                    scenario.players = Integer.parseInt(value);
+                    break;
+                case "stacks-per-death":
+                    scenario.stacksPerDeath = Integer.parseInt(value);
+                    break;
+                case "spread":
+                    scenario.spread = Integer.parseInt(value);
+                    break;
+                case "breaks-per-second":
+                    scenario.breaksPerSecond = Double.parseDouble(value);
+                    break;
+                case "chunk-unloads-per-second":
+                    scenario.chunkUnloadsPerSecond = Double.parseDouble(value);
+                    break;
+                case "chunk-unload-seconds":
+                    scenario.chunkUnloadSeconds = Integer.parseInt(value);
+                    break;
+                case "max-drain-seconds":
+                    scenario.maxDrainSeconds = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    scenario.seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+
+        if (scenario.durationSeconds <= 0 || scenario.players <= 0 || scenario.spread <= 0
+                || scenario.deathsPerSecond < 0 || scenario.breaksPerSecond < 0 || scenario.chunkUnloadsPerSecond < 0) {
+            throw new IllegalArgumentException("duration, players and spread must be positive, rates must not be negative");
+        }
+        return scenario;
+    }
+
+    private static Object parseValue(String value) {
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.parseBoolean(value);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ignored) {
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return durationSeconds + "s, " + deathsPerSecond + " deaths/s over " + players + " players, "
+                + stacksPerDeath + " stacks per death, spread " + spread + ", "
+                + breaksPerSecond + " instant breaks/s, " + chunkUnloadsPerSecond + " chunk unloads/s for "
+                + chunkUnloadSeconds + "s, seed " + seed
+                + (configOverrides.isEmpty() ? "" : ", config " + configOverrides);
+    }
+}
@@ -1,26 +1,34 @@
 package dev.antry.antrydeathloot;
 
+import dev.antry.antrydeathloot.commands.DeathLootCommand;
 import dev.antry.antrydeathloot.config.PluginConfig;
 import dev.antry.antrydeathloot.managers.DeathChestManager;
+import dev.antry.antrydeathloot.managers.LogManager;
 import dev.antry.antrydeathloot.managers.MessageManager;
 import dev.antry.antrydeathloot.managers.HologramManager;
+import dev.antry.antrydeathloot.metrics.MetricsRegistry;
+import dev.antry.antrydeathloot.metrics.PrometheusEndpoint;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
 import dev.antry.antrydeathloot.utils.VersionUtils;
 import lombok.Getter;
 import lombok.extern.java.Log;
-import org.bukkit.Material;
+import org.bukkit.ChatColor;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginLoader;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.Location;
-import org.bukkit.Bukkit;
-import org.bukkit.event.block.BlockDamageEvent;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Log
 public final class AntryDeathLoot extends JavaPlugin implements Listener {
@@ -28,10 +36,45 @@ public final class AntryDeathLoot extends JavaPlugin implements Listener {
     @Getter
     private DeathChestManager deathChestManager;
     
+    // Main thread, or region threads on Folia
     @Getter
-    private PluginConfig pluginConfig;
+    private TaskExecutor taskExecutor;
     
-    private boolean isShuttingDown = false;
+    // Replaced as a whole on reload; read from any thread
+    @Getter
+    private volatile PluginConfig pluginConfig;
+    
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    
+    @Getter
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    
+    private PrometheusEndpoint metricsEndpoint;
+    
+    private volatile boolean isShuttingDown = false;
+
+    public AntryDeathLoot() {
+        super();
+    }
+
+    /**
+     * Create the plugin outside a plugin class loader, for the headless load simulation
+     */
+    @Deprecated
+    AntryDeathLoot(PluginLoader loader, Server server, PluginDescriptionFile description, File dataFolder, File file) {
+        this(loader, server, description, dataFolder, file, null);
+    }
+
+    /**
+     * Create the plugin outside a plugin class loader, running its work on the given executor
+     * @param taskExecutor executor to use instead of the one picked for the server, or null
+     */
+    @Deprecated
+    AntryDeathLoot(PluginLoader loader, Server server, PluginDescriptionFile description, File dataFolder, File file,
+            TaskExecutor taskExecutor) {
+        super(loader, server, description, dataFolder, file);
+        this.taskExecutor = taskExecutor;
+    }
 
     @Override
     public void onEnable() {
@@ -52,17 +95,36 @@ public final class AntryDeathLoot extends JavaPlugin implements Listener {
             }
             
             // Initialize managers
+            if (taskExecutor == null) {
+                this.taskExecutor = TaskExecutor.create(this);
+            }
+            LogManager.initialize(this);
             this.deathChestManager = new DeathChestManager(this);
             MessageManager.initialize(this);
             HologramManager.initialize(this);
             
-            // Register events
+            // Register events and commands
             getServer().getPluginManager().registerEvents(this, this);
+            DeathLootCommand command = new DeathLootCommand(this);
+            getCommand("deathloot").setExecutor(command);
+            getCommand("deathloot").setTabCompleter(command);
+            
+            if (pluginConfig.isMetricsHttpEnabled()) {
+                try {
+                    metricsEndpoint = new PrometheusEndpoint(metrics, pluginConfig.getMetricsHttpPort());
+                } catch (IOException e) {
+                    log.warning("Failed to start metrics endpoint on port " + pluginConfig.getMetricsHttpPort() + ": " + e.getMessage());
+                }
+            }
+            
+            // Restore saved chests once every world has been loaded
+            taskExecutor.runGlobalLater(deathChestManager::restoreChests, 1L);
             
             log.info("AntryDeathLoot v" + getDescription().getVersion() + " has been enabled!");
             log.info("Configuration loaded - Break time: " + pluginConfig.getChestBreakTime() + "s, " +
                     "Holograms: " + (pluginConfig.isHologramEnabled() ? "enabled" : "disabled") + ", " +
-                    "Falling chests: " + (pluginConfig.isFallingChestEnabled() ? "enabled" : "disabled"));
+                    "Falling chests: " + (pluginConfig.isFallingChestEnabled() ? "enabled" : "disabled") + ", " +
+                    "Scheduling: " + taskExecutor.getName());
                     
         } catch (Exception e) {
             log.severe("Failed to enable AntryDeathLoot: " + e.getMessage());
@@ -71,6 +133,86 @@ public final class AntryDeathLoot extends JavaPlugin implements Listener {
         }
     }
 
+    /**
+     * Reload config.yml without a restart. The file is parsed and validated off the main
+     * thread, then the new configuration is swapped in and applied to live chests on the
+     * main thread (the global region on Folia); no chest is broken or dropped.
+     * @param sender receives the result
+     */
+    public void reloadPluginConfig(CommandSender sender) {
+        String prefix = ChatColor.translateAlternateColorCodes('&', pluginConfig.getPrefix());
+        if (!reloading.compareAndSet(false, true)) {
+            sender.sendMessage(prefix + ChatColor.RED + "A reload is already in progress.");
+            return;
+        }
+        
+        File file = new File(getDataFolder(), "config.yml");
+        try {
+            taskExecutor.runAsync(() -> {
+                PluginConfig loaded = null;
+                String error = null;
+                try {
+                    YamlConfiguration yaml = new YamlConfiguration();
+                    yaml.load(file);
+                    loaded = PluginConfig.fromFileConfiguration(yaml, getLogger());
+                    if (!loaded.isValid()) {
+                        error = "Invalid configuration, please check your config.yml";
+                    }
+                } catch (Exception e) {
+                    error = "Could not read config.yml: " + e.getMessage();
+                }
+                
+                PluginConfig result = loaded;
+                String failure = error;
+                try {
+                    taskExecutor.runGlobal(() -> finishReload(sender, result, failure));
+                } catch (Exception e) {
+                    // Disabled while reading; nothing to apply
+                    reloading.set(false);
+                }
+            });
+        } catch (Exception e) {
+            reloading.set(false);
+            throw e;
+        }
+    }
+    
+    private void finishReload(CommandSender sender, PluginConfig loaded, String error) {
+        try {
+            String prefix = ChatColor.translateAlternateColorCodes('&', pluginConfig.getPrefix());
+            if (error != null || isShuttingDown || deathChestManager == null) {
+                sender.sendMessage(prefix + ChatColor.RED + (error != null ? error : "The plugin is shutting down.")
+                        + " Keeping the current configuration.");
+                return;
+            }
+            
+            PluginConfig previous = pluginConfig;
+            PluginConfig applied = loaded.withStartupSettingsOf(previous);
+            
+            LogManager.reconfigure(applied);
+            MessageManager.reload(applied);
+            deathChestManager.applyConfig(previous, applied);
+            // Last, so nothing reads the new settings before the managers have switched to them
+            pluginConfig = applied;
+            
+            log.info("Configuration reloaded - Break time: " + applied.getChestBreakTime() + "s, " +
+                    "Holograms: " + (applied.isHologramEnabled() ? "enabled" : "disabled"));
+            prefix = ChatColor.translateAlternateColorCodes('&', applied.getPrefix());
+            sender.sendMessage(prefix + ChatColor.GREEN + "Configuration reloaded for "
+                    + deathChestManager.getActiveChestCount() + " active death chests.");
+            if (!applied.equals(loaded)) {
+                sender.sendMessage(prefix + ChatColor.YELLOW + "Metrics endpoint, item drop, creation queue and "
+                        + "persistence changes take effect after a restart.");
+            }
+        } catch (Exception e) {
+            log.severe("Failed to apply reloaded configuration: " + e.getMessage());
+            e.printStackTrace();
+            sender.sendMessage(ChatColor.RED + "Failed to apply the configuration, see the console.");
+        } finally {
+            reloading.set(false);
+        }
+    }
+
     @EventHandler
     public void onPlayerDeath(PlayerDeathEvent event) {
         if (isShuttingDown || deathChestManager == null) {
@@ -84,17 +226,15 @@ public final class AntryDeathLoot extends JavaPlugin implements Listener {
             // Clear default drops
             event.getDrops().clear();
             
-            // Create death chest with the copied drops
+            // Queue the death chest with the copied drops; the announcement goes out once it is placed
             deathChestManager.createDeathChest(
                 event.getEntity(),
                 event.getEntity().getLocation(),
                 drops
             );
-            
-            // Send message
-            MessageManager.sendDeathChestMessage(event.getEntity());
         } catch (Exception e) {
-            log.warning("Error handling player death for " + event.getEntity().getName() + ": " + e.getMessage());
+            LogManager.warning("Error handling player death",
+                    "Error handling player death for " + event.getEntity().getName() + ": " + e.getMessage());
             // Restore drops if chest creation failed
             if (event.getDrops().isEmpty() && !event.getDrops().isEmpty()) {
                 event.getDrops().addAll(event.getDrops());
@@ -102,66 +242,31 @@ public final class AntryDeathLoot extends JavaPlugin implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onBlockBreak(BlockBreakEvent event) {
-        if (isShuttingDown || deathChestManager == null || event.getBlock().getType() != Material.CHEST) {
-            return;
-        }
-        
-        try {
-            Location location = event.getBlock().getLocation();
-            if (deathChestManager.isDeathChest(location)) {
-                event.setCancelled(true);
-                
-                if (!pluginConfig.isAllowInstantBreak()) {
-                    return;
-                }
-                
-                deathChestManager.cancelBreakTask(location);
-                Bukkit.getScheduler().runTask(this, () -> {
-                    if (!isShuttingDown) {
-                        deathChestManager.breakChest(location);
-                    }
-                });
-            }
-        } catch (Exception e) {
-            log.warning("Error handling block break: " + e.getMessage());
-        }
-    }
-
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onBlockDamage(BlockDamageEvent event) {
-        if (isShuttingDown || deathChestManager == null || event.getBlock().getType() != Material.CHEST) {
-            return;
-        }
-        
-        try {
-            Location location = event.getBlock().getLocation();
-            if (deathChestManager.isDeathChest(location)) {
-                if (!pluginConfig.isAllowInstantBreak()) {
-                    return;
-                }
-                event.setInstaBreak(true);
-            }
-        } catch (Exception e) {
-            log.warning("Error handling block damage: " + e.getMessage());
-        }
-    }
-
     @Override
     public void onDisable() {
         isShuttingDown = true;
         
         try {
             if (deathChestManager != null) {
-                log.info("Cleaning up death chests...");
-                deathChestManager.cleanup();
+                if (pluginConfig.isPersistenceEnabled()) {
+                    // Chests stay in the world and are picked up again on the next start
+                    deathChestManager.saveAndRelease();
+                } else {
+                    log.info("Cleaning up death chests...");
+                    deathChestManager.cleanup();
+                }
                 deathChestManager = null;
             }
             
+            if (metricsEndpoint != null) {
+                metricsEndpoint.stop();
+                metricsEndpoint = null;
+            }
+            
             // Clean up managers
             HologramManager.cleanup();
             MessageManager.cleanup();
+            LogManager.cleanup();
             
             log.info("AntryDeathLoot has been disabled successfully!");
         } catch (Exception e) {
@@ -0,0 +1,115 @@
+package dev.antry.antrydeathloot.commands;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.metrics.Counter;
+import dev.antry.antrydeathloot.metrics.Gauge;
+import dev.antry.antrydeathloot.metrics.Histogram;
+import dev.antry.antrydeathloot.metrics.Metric;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Handles {@code /deathloot} and its subcommands
+ */
+public class DeathLootCommand implements CommandExecutor, TabCompleter {
+    private static final String PERMISSION = "antrydeathloot.admin";
+    private static final List<String> SUBCOMMANDS = Arrays.asList("reload", "stats");
+    private static final String METRIC_PREFIX = "deathloot_";
+
+    private final AntryDeathLoot plugin;
+
+    public DeathLootCommand(AntryDeathLoot plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission(PERMISSION)) {
+            sender.sendMessage(ChatColor.RED + "You do not have permission to use this command.");
+            return true;
+        }
+
+        if (args.length == 1 && "stats".equalsIgnoreCase(args[0])) {
+            sendStats(sender);
+            return true;
+        }
+        if (args.length == 1 && "reload".equalsIgnoreCase(args[0])) {
+            plugin.reloadPluginConfig(sender);
+            return true;
+        }
+
+        sender.sendMessage(ChatColor.RED + "Usage: /" + label + " <stats|reload>");
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length != 1 || !sender.hasPermission(PERMISSION)) {
+            return Collections.emptyList();
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (String subcommand : SUBCOMMANDS) {
+            if (subcommand.startsWith(args[0].toLowerCase(Locale.ROOT))) {
+                matches.add(subcommand);
+            }
+        }
+        return matches;
+    }
+
+    private void sendStats(CommandSender sender) {
+        String prefix = ChatColor.translateAlternateColorCodes('&', plugin.getPluginConfig().getPrefix());
+        sender.sendMessage(prefix + ChatColor.GRAY + "Death chest statistics:");
+
+        for (Metric metric : plugin.getMetrics().getMetrics()) {
+            String name = displayName(metric.getName());
+            if (metric instanceof Counter) {
+                sender.sendMessage(line(name, String.valueOf(((Counter) metric).get())));
+            } else if (metric instanceof Gauge) {
+                sender.sendMessage(line(name, format(((Gauge) metric).get())));
+            } else if (metric instanceof Histogram) {
+                sender.sendMessage(line(name, describe(metric.getName(), (Histogram) metric)));
+            }
+        }
+    }
+
+    private static String describe(String name, Histogram histogram) {
+        if (histogram.getCount() == 0) {
+            return "no samples";
+        }
+
+        // Timers are exported in seconds; milliseconds read better in chat
+        boolean timer = name.endsWith("_seconds");
+        double scale = timer ? 1000 : 1;
+        String unit = timer ? "ms" : "";
+        return "p50 " + format(histogram.getQuantile(0.5) * scale) + unit
+                + ", p99 " + format(histogram.getQuantile(0.99) * scale) + unit
+                + ", max " + format(histogram.getMax() * scale) + unit
+                + " (" + histogram.getCount() + " samples)";
+    }
+
+    private static String displayName(String name) {
+        String shortName = name.startsWith(METRIC_PREFIX) ? name.substring(METRIC_PREFIX.length()) : name;
+        return shortName.replace("_seconds", "").replace("_total", "").replace('_', ' ');
+    }
+
+    private static String line(String name, String value) {
+        return ChatColor.GRAY + " " + name + ": " + ChatColor.WHITE + value;
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
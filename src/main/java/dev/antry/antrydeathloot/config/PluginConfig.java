@@ -1,5 +1,7 @@
 package dev.antry.antrydeathloot.config;
 
+import dev.antry.antrydeathloot.managers.MessageManager;
+import dev.antry.antrydeathloot.placement.PlacementResolver;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
@@ -11,7 +13,7 @@ import java.util.logging.Logger;
  * Immutable configuration class using Lombok
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class PluginConfig {
     @NonNull
     private final String prefix;
@@ -25,6 +27,17 @@ public class PluginConfig {
     
     private final String chestBreakMessage;
     
+    // Who hears announcements: "global", "world", "radius" or "owner"
+    @NonNull
+    private final String announcementScope;
+    private final double announcementRadius;
+    // Seconds to collect announcements into one summary line per player, 0 to send each at once
+    private final int announcementAggregateInterval;
+    @NonNull
+    private final String announcementCreatedSummary;
+    @NonNull
+    private final String announcementBrokenSummary;
+    
     // Falling chest settings
     private final boolean fallingChestEnabled;
     private final int fallingChestHeight;
@@ -40,6 +53,53 @@ public class PluginConfig {
     @NonNull
     private final String hologramSecondLine;
     
+    // "auto", "packet" or "armorstand"
+    @NonNull
+    private final String hologramBackend;
+    private final double hologramViewDistance;
+    
+    // Adaptive countdown: coarse steps while plenty of time remains
+    private final boolean adaptiveCountdownEnabled;
+    private final int adaptiveCountdownStep;
+    private final int adaptiveCountdownThreshold;
+    
+    // Logging: summary and warning rate-limit intervals in seconds, per-chest debug lines
+    private final int logSummaryInterval;
+    private final int logWarningInterval;
+    private final boolean debugLogging;
+    
+    // Metrics: optional Prometheus endpoint on the loopback interface
+    private final boolean metricsHttpEnabled;
+    private final int metricsHttpPort;
+    
+    // Deaths within this many blocks of a death chest share it; 0 merges only deaths on the same block
+    private final int mergeRadius;
+    
+    // Safe placement: search around unsafe death locations, and what to do if nothing is found
+    private final boolean placementEnabled;
+    private final int placementRadius;
+    private final int placementHeight;
+    private final int placementMaxChecks;
+    private final String placementFallback;
+    
+    // Keep chest contents plugin-side until the chest is first opened
+    private final boolean lazyChestInventory;
+    
+    // Item drops from broken chests
+    private final boolean dropMergeStacks;
+    private final int dropMaxPerTick;
+    
+    // Creation queue: how many deaths become chests per tick
+    private final int creationQueueCapacity;
+    private final int creationMaxPerTick;
+    private final long creationMaxMicrosPerTick;
+    
+    // Persistence: journal flush interval in milliseconds, snapshot interval in seconds
+    private final boolean persistenceEnabled;
+    private final long persistenceFlushInterval;
+    private final int persistenceSnapshotInterval;
+    private final boolean persistenceCompression;
+    
     /**
      * Load configuration from Bukkit FileConfiguration
      * @param config the file configuration
@@ -54,13 +114,44 @@ public class PluginConfig {
             .announceDeathChest(config.getBoolean("announce-death-chest", true))
             .deathChestMessage(config.getString("death-chest-message", "&c%player%'s death chest has been created! It will break in %time% seconds!"))
             .chestBreakMessage(config.getString("chest-break-message", "&cDeath chest is breaking!"))
+            .announcementScope(config.getString("announcements.scope", "global"))
+            .announcementRadius(config.getDouble("announcements.radius", 64.0))
+            .announcementAggregateInterval(config.getInt("announcements.aggregate-interval", 0))
+            .announcementCreatedSummary(config.getString("announcements.summary.created", "&c%count% death chests have been created!"))
+            .announcementBrokenSummary(config.getString("announcements.summary.broken", "&c%count% death chests are breaking!"))
             .fallingChestEnabled(config.getBoolean("falling-chest.enabled", true))
             .fallingChestHeight(config.getInt("falling-chest.height", 20))
             .hologramEnabled(config.getBoolean("hologram.enabled", true))
             .hologramHeight(config.getDouble("hologram.height", 1.0))
             .hologramLineSpacing(config.getDouble("hologram.line-spacing", 0.3))
             .hologramFirstLine(config.getString("hologram.first-line", "&7%player%'s &fLoot"))
-            .hologramSecondLine(config.getString("hologram.second-line", "&fTime remaining: &c%seconds%s"));
+            .hologramSecondLine(config.getString("hologram.second-line", "&fTime remaining: &c%seconds%s"))
+            .hologramBackend(config.getString("hologram.backend", "auto"))
+            .hologramViewDistance(config.getDouble("hologram.view-distance", 48.0))
+            .adaptiveCountdownEnabled(config.getBoolean("hologram.adaptive-countdown.enabled", false))
+            .adaptiveCountdownStep(config.getInt("hologram.adaptive-countdown.step", 5))
+            .adaptiveCountdownThreshold(config.getInt("hologram.adaptive-countdown.threshold", 30))
+            .logSummaryInterval(config.getInt("logging.summary-interval", 60))
+            .logWarningInterval(config.getInt("logging.warning-interval", 60))
+            .debugLogging(config.getBoolean("logging.debug", false))
+            .metricsHttpEnabled(config.getBoolean("metrics.http.enabled", false))
+            .metricsHttpPort(config.getInt("metrics.http.port", 9464))
+            .mergeRadius(config.getInt("merge-radius", 0))
+            .placementEnabled(config.getBoolean("placement.enabled", true))
+            .placementRadius(config.getInt("placement.radius", 3))
+            .placementHeight(config.getInt("placement.height", 4))
+            .placementMaxChecks(config.getInt("placement.max-checks", 256))
+            .placementFallback(config.getString("placement.fallback", "highest"))
+            .lazyChestInventory(config.getBoolean("lazy-chest-inventory", false))
+            .dropMergeStacks(config.getBoolean("item-drops.merge-stacks", true))
+            .dropMaxPerTick(config.getInt("item-drops.max-per-tick", 32))
+            .creationQueueCapacity(config.getInt("creation-queue.capacity", 256))
+            .creationMaxPerTick(config.getInt("creation-queue.max-per-tick", 4))
+            .creationMaxMicrosPerTick(config.getLong("creation-queue.max-micros-per-tick", 2000L))
+            .persistenceEnabled(config.getBoolean("persistence.enabled", true))
+            .persistenceFlushInterval(config.getLong("persistence.flush-interval", 1000L))
+            .persistenceSnapshotInterval(config.getInt("persistence.snapshot-interval", 300))
+            .persistenceCompression(config.getBoolean("persistence.compression", true));
         
         // Sound handling is now done through VersionUtils, no configuration needed
         
@@ -73,8 +164,99 @@ public class PluginConfig {
      */
     public boolean isValid() {
         return chestBreakTime > 0 && 
+               announcementRadius > 0 && 
+               mergeRadius >= 0 && 
+               placementRadius >= 0 && placementRadius <= 16 && 
+               placementHeight >= 0 && placementHeight <= 64 && 
+               placementMaxChecks > 0 && 
+               announcementAggregateInterval >= 0 && 
                hologramHeight >= 0 && 
                hologramLineSpacing >= 0 && 
-               fallingChestHeight > 0;
+               hologramViewDistance > 0 && 
+               adaptiveCountdownStep > 0 && 
+               adaptiveCountdownThreshold >= 0 && 
+               logSummaryInterval > 0 && 
+               logWarningInterval >= 0 && 
+               metricsHttpPort > 0 && metricsHttpPort <= 65535 && 
+               dropMaxPerTick >= 0 && 
+               creationQueueCapacity > 0 && 
+               creationMaxPerTick > 0 && 
+               creationMaxMicrosPerTick > 0 && 
+               persistenceFlushInterval > 0 && 
+               persistenceSnapshotInterval > 0 && 
+               fallingChestHeight > 0 && 
+               isOneOf(PlacementResolver.Fallback.class, placementFallback) && 
+               isOneOf(MessageManager.Scope.class, announcementScope);
+    }
+    
+    private static <E extends Enum<E>> boolean isOneOf(Class<E> type, String value) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Copy the settings that only take effect on startup from the configuration in use.
+     * Used on reload: these keep their current values until the next restart.
+     * @param running the configuration in use
+     * @return this configuration with the running startup-only settings
+     */
+    public PluginConfig withStartupSettingsOf(@NonNull PluginConfig running) {
+        return toBuilder()
+            .metricsHttpEnabled(running.metricsHttpEnabled)
+            .metricsHttpPort(running.metricsHttpPort)
+            .dropMergeStacks(running.dropMergeStacks)
+            .dropMaxPerTick(running.dropMaxPerTick)
+            .creationQueueCapacity(running.creationQueueCapacity)
+            .creationMaxPerTick(running.creationMaxPerTick)
+            .creationMaxMicrosPerTick(running.creationMaxMicrosPerTick)
+            .persistenceEnabled(running.persistenceEnabled)
+            .persistenceFlushInterval(running.persistenceFlushInterval)
+            .persistenceSnapshotInterval(running.persistenceSnapshotInterval)
+            .persistenceCompression(running.persistenceCompression)
+            .build();
+    }
+    
+    /**
+     * Check whether two configurations place holograms the same way
+     * @param other the configuration to compare with
+     * @return false if existing holograms must be rebuilt to match {@code other}
+     */
+    public boolean hasSameHologramLayout(@NonNull PluginConfig other) {
+        return hologramEnabled == other.hologramEnabled &&
+               Double.compare(hologramHeight, other.hologramHeight) == 0 &&
+               Double.compare(hologramLineSpacing, other.hologramLineSpacing) == 0 &&
+               Double.compare(hologramViewDistance, other.hologramViewDistance) == 0 &&
+               hologramFirstLine.equals(other.hologramFirstLine) &&
+               hologramSecondLine.equals(other.hologramSecondLine) &&
+               hologramBackend.equals(other.hologramBackend);
+    }
+    
+    /**
+     * Get the countdown value shown on the hologram for the given remaining time
+     * @param secondsLeft actual seconds remaining
+     * @return seconds to display, rounded up to the coarse step while above the threshold
+     */
+    public int getDisplayedSeconds(int secondsLeft) {
+        if (!adaptiveCountdownEnabled || secondsLeft <= adaptiveCountdownThreshold) {
+            return secondsLeft;
+        }
+        return ((secondsLeft + adaptiveCountdownStep - 1) / adaptiveCountdownStep) * adaptiveCountdownStep;
+    }
+    
+    /**
+     * Get how long the countdown can sleep before the displayed value changes
+     * @param secondsLeft actual seconds remaining
+     * @return seconds until the next visible countdown update, at least 1
+     */
+    public int getSecondsUntilNextUpdate(int secondsLeft) {
+        if (!adaptiveCountdownEnabled || secondsLeft <= adaptiveCountdownThreshold) {
+            return 1;
+        }
+        int nextStep = Math.max(getDisplayedSeconds(secondsLeft) - adaptiveCountdownStep, adaptiveCountdownThreshold);
+        return Math.max(1, secondsLeft - nextStep);
     }
 } 
\ No newline at end of file
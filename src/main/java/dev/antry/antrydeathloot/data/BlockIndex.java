@@ -0,0 +1,220 @@
+package dev.antry.antrydeathloot.data;
+
+import dev.antry.antrydeathloot.utils.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-world index of values keyed by {@link BlockKey}.
+ * <p>
+ * Lookups by {@link Block} or {@link Location} resolve the world bucket and probe a
+ * primitive long map, so the hot path performs no allocation. Not thread-safe: callers
+ * hold the lock of the owning manager, the {@code DeathChestManager} lock for chest state,
+ * since the index is touched from region threads on Folia. Only {@link #size()} may be
+ * read without it.
+ *
+ * @param <V> value type
+ */
+public final class BlockIndex<V> {
+
+    /**
+     * Callback used by {@link #forEach(EntryConsumer)}
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(World world, long key, V value);
+    }
+
+    private final Map<UUID, WorldEntries<V>> worlds = new HashMap<>();
+    // Written under the owner's lock; volatile so gauges can read it from any thread
+    private volatile int size;
+
+    public V get(Block block) {
+        WorldEntries<V> entries = entries(block.getWorld());
+        return entries != null ? entries.values.get(BlockKey.of(block)) : null;
+    }
+
+    public V get(Location location) {
+        WorldEntries<V> entries = entries(location.getWorld());
+        return entries != null ? entries.values.get(BlockKey.of(location)) : null;
+    }
+
+    public boolean containsKey(Block block) {
+        return get(block) != null;
+    }
+
+    public boolean containsKey(Location location) {
+        return get(location) != null;
+    }
+
+    /**
+     * @return the previous value, or null if there was none
+     */
+    public V put(Location location, V value) {
+        World world = location.getWorld();
+        WorldEntries<V> entries = worlds.get(world.getUID());
+        if (entries == null) {
+            entries = new WorldEntries<>(world);
+            worlds.put(world.getUID(), entries);
+        }
+
+        V previous = entries.values.put(BlockKey.of(location), value);
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    public V remove(Location location) {
+        WorldEntries<V> entries = entries(location.getWorld());
+        if (entries == null) {
+            return null;
+        }
+
+        V removed = entries.values.remove(BlockKey.of(location));
+        if (removed != null) {
+            size--;
+            dropIfEmpty(entries);
+        }
+        return removed;
+    }
+
+    /**
+     * Remove the entry only if it is still mapped to the given value
+     * @return true if the entry was removed
+     */
+    public boolean remove(Location location, V value) {
+        WorldEntries<V> entries = entries(location.getWorld());
+        if (entries == null || !entries.values.remove(BlockKey.of(location), value)) {
+            return false;
+        }
+
+        size--;
+        dropIfEmpty(entries);
+        return true;
+    }
+
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (WorldEntries<V> entries : worlds.values()) {
+            World world = entries.world;
+            entries.values.forEach((key, value) -> consumer.accept(world, key, value));
+        }
+    }
+
+    /**
+     * @return a snapshot of every indexed location, safe to iterate while modifying the index
+     */
+    public List<Location> locations() {
+        List<Location> locations = new ArrayList<>(size);
+        forEach((world, key, value) -> locations.add(BlockKey.toLocation(world, key)));
+        return locations;
+    }
+
+    /**
+     * @return a snapshot of every indexed value
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach((world, key, value) -> values.add(value));
+        return values;
+    }
+
+    /**
+     * Find the indexed block closest to a position, within a radius.
+     * Probes every block in range or scans the world's entries, whichever is fewer.
+     * @param center the position to search around
+     * @param radius maximum distance in blocks
+     * @return the closest indexed block, or null if there is none in range
+     */
+    public Location nearest(Location center, int radius) {
+        WorldEntries<V> entries = entries(center.getWorld());
+        if (entries == null || radius < 0) {
+            return null;
+        }
+
+        Nearest nearest = new Nearest(center.getBlockX(), center.getBlockY(), center.getBlockZ(), radius);
+        long side = 2L * radius + 1;
+        if (side * side * side <= entries.values.size()) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dy = -radius; dy <= radius; dy++) {
+                    for (int dz = -radius; dz <= radius; dz++) {
+                        long key = BlockKey.pack(nearest.x + dx, nearest.y + dy, nearest.z + dz);
+                        if (entries.values.containsKey(key)) {
+                            nearest.offer(key);
+                        }
+                    }
+                }
+            }
+        } else {
+            entries.values.forEach((key, value) -> nearest.offer(key));
+        }
+        return nearest.found ? BlockKey.toLocation(entries.world, nearest.best) : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        worlds.clear();
+        size = 0;
+    }
+
+    private WorldEntries<V> entries(World world) {
+        return world != null ? worlds.get(world.getUID()) : null;
+    }
+
+    private void dropIfEmpty(WorldEntries<V> entries) {
+        if (entries.values.isEmpty()) {
+            worlds.remove(entries.world.getUID());
+        }
+    }
+
+    private static final class Nearest {
+        private final int x;
+        private final int y;
+        private final int z;
+        private long bestDistance;
+        private long best;
+        private boolean found;
+
+        private Nearest(int x, int y, int z, int radius) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.bestDistance = (long) radius * radius;
+        }
+
+        private void offer(long key) {
+            long dx = BlockKey.getX(key) - x;
+            long dy = BlockKey.getY(key) - y;
+            long dz = BlockKey.getZ(key) - z;
+            long distance = dx * dx + dy * dy + dz * dz;
+            if (distance < bestDistance || (!found && distance == bestDistance)) {
+                bestDistance = distance;
+                best = key;
+                found = true;
+            }
+        }
+    }
+
+    private static final class WorldEntries<V> {
+        private final World world;
+        private final LongObjectMap<V> values = new LongObjectMap<>();
+
+        private WorldEntries(World world) {
+            this.world = world;
+        }
+    }
+}
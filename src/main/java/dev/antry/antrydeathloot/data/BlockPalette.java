@@ -0,0 +1,58 @@
+package dev.antry.antrydeathloot.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numbered set of distinct block states, in the order they were first seen.
+ * <p>
+ * Death chests share the palette's single copy of each state instead of holding their
+ * own, so restoring thousands of replaced blocks costs one reference per chest. Snapshots
+ * write each state once and refer to it by index. Not thread-safe.
+ */
+public final class BlockPalette {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> states = new ArrayList<>();
+
+    /**
+     * @return the palette's copy of the state, added if new
+     */
+    public String intern(String state) {
+        return states.get(idOf(state));
+    }
+
+    /**
+     * @return the index of the state, added if new
+     */
+    public int idOf(String state) {
+        Integer id = ids.get(state);
+        if (id == null) {
+            id = states.size();
+            ids.put(state, id);
+            states.add(state);
+        }
+        return id;
+    }
+
+    /**
+     * @return the state at an index
+     * @throws IndexOutOfBoundsException if the index is not in the palette
+     */
+    public String get(int id) {
+        return states.get(id);
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * @return every state in index order; unmodifiable
+     */
+    public List<String> getStates() {
+        return Collections.unmodifiableList(states);
+    }
+}
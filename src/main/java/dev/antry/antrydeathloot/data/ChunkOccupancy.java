@@ -0,0 +1,146 @@
+package dev.antry.antrydeathloot.data;
+
+import dev.antry.antrydeathloot.utils.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-world count of live death chests in each chunk, plus whether that chunk is loaded.
+ * <p>
+ * Block listeners check this before touching any chest index, so events in chunks
+ * without a death chest are rejected with a single primitive probe. Load state is kept
+ * up to date from chunk events, so chest work can be deferred without ever asking the
+ * world for a block in an unloaded chunk.
+ * <p>
+ * Updates and load state need the {@code DeathChestManager} lock, since chunk events
+ * and chest work arrive on region threads on Folia. {@link #isOccupied} does not: the
+ * occupied chunk keys are republished copy-on-write whenever a chunk gains its first
+ * chest or loses its last, which is rare next to the block events that query them.
+ */
+public final class ChunkOccupancy {
+    private final Map<UUID, LongObjectMap<Counter>> worlds = new HashMap<>();
+    // Read without a lock; never modified once published
+    private volatile Map<UUID, LongObjectMap<Boolean>> occupied = Collections.emptyMap();
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int getChunkX(long chunkKey) {
+        return (int) (chunkKey >> 32);
+    }
+
+    public static int getChunkZ(long chunkKey) {
+        return (int) chunkKey;
+    }
+
+    /**
+     * Safe from any thread
+     * @return true if the block's chunk holds at least one death chest
+     */
+    public boolean isOccupied(Block block) {
+        return isOccupied(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    public boolean isOccupied(World world, int chunkX, int chunkZ) {
+        LongObjectMap<Boolean> chunks = world != null ? occupied.get(world.getUID()) : null;
+        return chunks != null && chunks.containsKey(chunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * @return true if the location's chunk is loaded; never loads the chunk
+     */
+    public boolean isLoaded(Location location) {
+        return isLoaded(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    public boolean isLoaded(World world, int chunkX, int chunkZ) {
+        LongObjectMap<Counter> chunks = worlds.get(world.getUID());
+        Counter counter = chunks != null ? chunks.get(chunkKey(chunkX, chunkZ)) : null;
+        return counter != null ? counter.loaded : world.isChunkLoaded(chunkX, chunkZ);
+    }
+
+    /**
+     * Record a chunk load or unload
+     * @return true if the chunk holds at least one death chest
+     */
+    public boolean setLoaded(World world, int chunkX, int chunkZ, boolean loaded) {
+        LongObjectMap<Counter> chunks = worlds.get(world.getUID());
+        Counter counter = chunks != null ? chunks.get(chunkKey(chunkX, chunkZ)) : null;
+        if (counter == null) {
+            return false;
+        }
+        counter.loaded = loaded;
+        return true;
+    }
+
+    public void add(Location location) {
+        UUID worldId = location.getWorld().getUID();
+        LongObjectMap<Counter> chunks = worlds.get(worldId);
+        if (chunks == null) {
+            chunks = new LongObjectMap<>();
+            worlds.put(worldId, chunks);
+        }
+
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        long key = chunkKey(chunkX, chunkZ);
+        Counter counter = chunks.get(key);
+        if (counter == null) {
+            counter = new Counter();
+            counter.loaded = location.getWorld().isChunkLoaded(chunkX, chunkZ);
+            chunks.put(key, counter);
+            publish(worldId, chunks);
+        }
+        counter.value++;
+    }
+
+    public void remove(Location location) {
+        UUID worldId = location.getWorld().getUID();
+        LongObjectMap<Counter> chunks = worlds.get(worldId);
+        if (chunks == null) {
+            return;
+        }
+
+        long key = chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        Counter counter = chunks.get(key);
+        if (counter != null && --counter.value <= 0) {
+            chunks.remove(key);
+            if (chunks.isEmpty()) {
+                worlds.remove(worldId);
+            }
+            publish(worldId, chunks);
+        }
+    }
+
+    public void clear() {
+        worlds.clear();
+        occupied = Collections.emptyMap();
+    }
+
+    /**
+     * Replace the published keys of one world with a copy of its current chunks
+     */
+    private void publish(UUID worldId, LongObjectMap<Counter> chunks) {
+        Map<UUID, LongObjectMap<Boolean>> next = new HashMap<>(occupied);
+        if (chunks.isEmpty()) {
+            next.remove(worldId);
+        } else {
+            LongObjectMap<Boolean> keys = new LongObjectMap<>(chunks.size());
+            chunks.forEach((key, counter) -> keys.put(key, Boolean.TRUE));
+            next.put(worldId, keys);
+        }
+        occupied = next;
+    }
+
+    private static final class Counter {
+        private int value;
+        private boolean loaded;
+    }
+}
@@ -3,19 +3,20 @@ package dev.antry.antrydeathloot.data;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.entity.ArmorStand;
+import org.bukkit.World;
 import org.bukkit.inventory.ItemStack;
 
-import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 /**
- * Immutable data class representing a death chest
+ * Immutable data class representing a death chest, as persisted in the chest journal
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class DeathChestData {
     @NonNull
     private final UUID ownerUuid;
@@ -24,34 +25,49 @@ public class DeathChestData {
     private final String ownerName;
     
     @NonNull
-    private final Location location;
+    private final UUID worldId;
+    
+    // Packed block position, see BlockKey
+    private final long blockKey;
     
     @NonNull
     private final List<ItemStack> items;
     
+    // Items that did not fit into the chest block; they move in as players empty it
     @NonNull
-    private final LocalDateTime createdAt;
+    @Builder.Default
+    private final List<ItemStack> overflow = Collections.emptyList();
+    
+    // Epoch millis
+    private final long createdAt;
     
     private final int breakTimeSeconds;
     
-    private final List<ArmorStand> hologram;
+    // Countdown left when this record was written, or when the server stopped if read back from
+    // the journal; the timer pauses while the server is down
+    private final int remainingSeconds;
+    
+    // Block the chest replaced, put back when it breaks; null for air. Shared through a BlockPalette
+    private final String replacedBlock;
     
-    private final List<Integer> taskIds;
+    // True while the items live only here and the chest block is still empty (lazy inventories).
+    // Not persisted: on restore an empty chest block always takes its items from the record.
+    private final boolean virtualContents;
     
     /**
-     * Check if this death chest has expired
-     * @return true if the chest should be broken
+     * Resolve the chest location
+     * @return the block location, or null if the world is not loaded
      */
-    public boolean isExpired() {
-        return createdAt.plusSeconds(breakTimeSeconds).isBefore(LocalDateTime.now());
+    public Location toLocation() {
+        World world = Bukkit.getWorld(worldId);
+        return world != null ? BlockKey.toLocation(world, blockKey) : null;
     }
     
     /**
-     * Get remaining seconds until break
-     * @return seconds remaining, or 0 if expired
+     * Check if this death chest has expired
+     * @return true if the chest should be broken
      */
-    public long getRemainingSeconds() {
-        long remaining = breakTimeSeconds - java.time.Duration.between(createdAt, LocalDateTime.now()).getSeconds();
-        return Math.max(0, remaining);
+    public boolean isExpired() {
+        return remainingSeconds <= 0;
     }
-} 
\ No newline at end of file
+}
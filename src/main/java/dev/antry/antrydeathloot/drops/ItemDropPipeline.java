@@ -0,0 +1,212 @@
+package dev.antry.antrydeathloot.drops;
+
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import dev.antry.antrydeathloot.managers.LogManager;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import dev.antry.antrydeathloot.utils.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Item;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spawns the contents of broken death chests as item entities.
+ * <p>
+ * Similar stacks are merged up to their max stack size first, so a chest produces as
+ * few entities as possible. Spawning is capped globally per tick; whatever does not fit
+ * waits for the next {@link #tick()} in the order it was dropped. Drops whose chunk has
+ * unloaded in the meantime are parked rather than loading the chunk, and each tick checks
+ * whether their chunk is back; that does not depend on a death chest still being there
+ * to notice the chunk load. Each spawn runs on the thread owning its location, so the queue
+ * itself can be driven from the main thread or the global region. Thread-safe: the queue
+ * is guarded by the pipeline's own lock, so ticking it does not need the caller's lock.
+ */
+public class ItemDropPipeline {
+    private final TaskExecutor executor;
+    private final ArrayDeque<PendingDrop> queue = new ArrayDeque<>();
+    // Drops waiting for their chunk to load, by world and chunk key
+    private final Map<World, LongObjectMap<List<PendingDrop>>> parked = new HashMap<>();
+    private int parkedCount;
+    private final boolean mergeStacks;
+    private final int maxPerTick;
+    private int spawnedThisTick;
+
+    /**
+     * @param executor runs each spawn where its location is owned
+     * @param mergeStacks merge similar stacks before spawning
+     * @param maxPerTick most item entities spawned per tick across all chests, or 0 for no limit
+     */
+    public ItemDropPipeline(TaskExecutor executor, boolean mergeStacks, int maxPerTick) {
+        this.executor = executor;
+        this.mergeStacks = mergeStacks;
+        this.maxPerTick = maxPerTick;
+    }
+
+    /**
+     * Drop items at a location, spawning as many as this tick's budget allows right away
+     * @param location where to drop the items
+     * @param items chest contents; null and air slots are skipped
+     */
+    public synchronized void drop(Location location, ItemStack[] items) {
+        List<ItemStack> stacks = mergeStacks ? merge(items) : nonEmpty(items);
+        for (ItemStack stack : stacks) {
+            queue.addLast(new PendingDrop(location, stack));
+        }
+        drain(false);
+    }
+
+    /**
+     * Start a new tick's budget and spawn queued drops
+     */
+    public synchronized void tick() {
+        spawnedThisTick = 0;
+        if (parkedCount > 0) {
+            requeueLoaded();
+        }
+        drain(false);
+    }
+
+    /**
+     * Spawn everything still queued or parked, ignoring the budget. Only for shutdown:
+     * parked drops load their chunk, since there is no later chance to drop them.
+     */
+    public synchronized void flush() {
+        for (LongObjectMap<List<PendingDrop>> chunks : parked.values()) {
+            chunks.forEach((key, drops) -> queue.addAll(drops));
+        }
+        parked.clear();
+        parkedCount = 0;
+        drain(true);
+    }
+
+    /**
+     * @return the number of item entities waiting to be spawned
+     */
+    public synchronized int getQueuedCount() {
+        return queue.size() + parkedCount;
+    }
+
+    private void drain(boolean unlimited) {
+        PendingDrop drop;
+        while ((unlimited || maxPerTick <= 0 || spawnedThisTick < maxPerTick) && (drop = queue.pollFirst()) != null) {
+            Location location = drop.location;
+            if (!unlimited && !location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+                park(drop);
+                continue;
+            }
+            spawnedThisTick++;
+            try {
+                executor.runAt(location, drop);
+            } catch (Exception e) {
+                LogManager.warning("Error dropping item from death chest", e);
+            }
+        }
+    }
+
+    private void park(PendingDrop drop) {
+        Location location = drop.location;
+        long key = ChunkOccupancy.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        LongObjectMap<List<PendingDrop>> chunks = parked.computeIfAbsent(location.getWorld(), world -> new LongObjectMap<>());
+        List<PendingDrop> drops = chunks.get(key);
+        if (drops == null) {
+            drops = new ArrayList<>();
+            chunks.put(key, drops);
+        }
+        drops.add(drop);
+        parkedCount++;
+    }
+
+    /**
+     * Move parked drops whose chunk has loaded again back to the end of the queue.
+     * Checks each parked chunk once, however many drops wait in it.
+     */
+    private void requeueLoaded() {
+        Iterator<Map.Entry<World, LongObjectMap<List<PendingDrop>>>> worlds = parked.entrySet().iterator();
+        while (worlds.hasNext()) {
+            Map.Entry<World, LongObjectMap<List<PendingDrop>>> entry = worlds.next();
+            World world = entry.getKey();
+            LongObjectMap<List<PendingDrop>> chunks = entry.getValue();
+            List<Long> loaded = new ArrayList<>();
+            chunks.forEach((key, drops) -> {
+                if (world.isChunkLoaded(ChunkOccupancy.getChunkX(key), ChunkOccupancy.getChunkZ(key))) {
+                    loaded.add(key);
+                }
+            });
+            for (long key : loaded) {
+                List<PendingDrop> drops = chunks.remove(key);
+                queue.addAll(drops);
+                parkedCount -= drops.size();
+            }
+            if (chunks.isEmpty()) {
+                worlds.remove();
+            }
+        }
+    }
+
+    /**
+     * Combine similar stacks, filling each up to its max stack size
+     */
+    static List<ItemStack> merge(ItemStack[] items) {
+        List<ItemStack> merged = new ArrayList<>(items.length);
+        for (ItemStack item : items) {
+            if (item == null || item.getType() == Material.AIR) {
+                continue;
+            }
+
+            int remaining = item.getAmount();
+            int maxStack = Math.max(1, item.getMaxStackSize());
+            for (int i = 0; i < merged.size() && remaining > 0; i++) {
+                ItemStack stack = merged.get(i);
+                if (stack.getAmount() < maxStack && stack.isSimilar(item)) {
+                    int moved = Math.min(remaining, maxStack - stack.getAmount());
+                    stack.setAmount(stack.getAmount() + moved);
+                    remaining -= moved;
+                }
+            }
+            if (remaining > 0) {
+                ItemStack rest = item.clone();
+                rest.setAmount(remaining);
+                merged.add(rest);
+            }
+        }
+        return merged;
+    }
+
+    private static List<ItemStack> nonEmpty(ItemStack[] items) {
+        List<ItemStack> stacks = new ArrayList<>(items.length);
+        for (ItemStack item : items) {
+            if (item != null && item.getType() != Material.AIR) {
+                stacks.add(item);
+            }
+        }
+        return stacks;
+    }
+
+    private static final class PendingDrop implements Runnable {
+        private final Location location;
+        private final ItemStack item;
+
+        private PendingDrop(Location location, ItemStack item) {
+            this.location = location;
+            this.item = item;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Item droppedItem = location.getWorld().dropItemNaturally(location, item);
+                droppedItem.setVelocity(droppedItem.getVelocity().multiply(0.5));
+            } catch (Exception e) {
+                LogManager.warning("Error dropping item from death chest", e);
+            }
+        }
+    }
+}
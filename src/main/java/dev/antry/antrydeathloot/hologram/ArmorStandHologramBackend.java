@@ -0,0 +1,248 @@
+package dev.antry.antrydeathloot.hologram;
+
+import dev.antry.antrydeathloot.managers.LogManager;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import lombok.extern.java.Log;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders holograms with invisible marker ArmorStand entities.
+ * <p>
+ * Works on every server without ProtocolLib, at the cost of real entities that are
+ * ticked and saved with the chunk. Name changes are held back while no player is within
+ * the view distance and applied on the {@link #tick()} that sees the first viewer.
+ * <p>
+ * Create and update holograms on the thread owning their location. Viewer checks and
+ * removal send themselves there, so {@link #tick()} and removal may run anywhere.
+ */
+@Log
+public class ArmorStandHologramBackend implements HologramBackend {
+    private final TaskExecutor executor;
+    private final double viewDistanceSquared;
+    // Guarded by this backend
+    private final List<ArmorStandHologram> holograms = new ArrayList<>();
+
+    public ArmorStandHologramBackend(TaskExecutor executor, double viewDistance) {
+        this.executor = executor;
+        this.viewDistanceSquared = viewDistance * viewDistance;
+    }
+
+    @Override
+    public String getName() {
+        return "armorstand";
+    }
+
+    @Override
+    public Hologram create(Location location, List<String> lines, double lineSpacing) {
+        List<ArmorStand> stands = new ArrayList<>(lines.size());
+        
+        try {
+            for (int i = 0; i < lines.size(); i++) {
+                ArmorStand stand = spawnHologramLine(location.clone().subtract(0, lineSpacing * i, 0), lines.get(i));
+                if (stand == null) {
+                    throw new IllegalStateException("could not spawn line " + i);
+                }
+                stands.add(stand);
+            }
+        } catch (Exception e) {
+            LogManager.warning("Error creating hologram", e);
+            // Clean up any partially created lines
+            for (ArmorStand stand : stands) {
+                stand.remove();
+            }
+            return null;
+        }
+        
+        ArmorStandHologram hologram = new ArmorStandHologram(location.clone(), stands, lines.toArray(new String[0]));
+        synchronized (this) {
+            holograms.add(hologram);
+        }
+        hologram.updateViewers();
+        return hologram;
+    }
+
+    @Override
+    public synchronized void tick() {
+        for (int i = 0; i < holograms.size(); i++) {
+            ArmorStandHologram hologram = holograms.get(i);
+            try {
+                executor.runAt(hologram.location, hologram);
+            } catch (Exception e) {
+                LogManager.warning("Error updating hologram viewers", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        // Entities are removed individually through HologramManager
+        holograms.clear();
+    }
+
+    private static ArmorStand spawnHologramLine(Location location, String text) {
+        try {
+            if (location.getWorld() == null) {
+                LogManager.warning("Cannot spawn hologram in null world");
+                return null;
+            }
+            
+            ArmorStand hologram = location.getWorld().spawn(location, ArmorStand.class);
+            
+            // Make the armor stand a perfect hologram
+            hologram.setVisible(false);
+            hologram.setGravity(false);
+            hologram.setCanPickupItems(false);
+            hologram.setCustomName(text);
+            hologram.setCustomNameVisible(true);
+            hologram.setMarker(true);
+            hologram.setSmall(true);
+            hologram.setBasePlate(false);
+            hologram.setArms(false);
+            
+            return hologram;
+        } catch (Exception e) {
+            LogManager.warning("Failed to spawn hologram line", e);
+            return null;
+        }
+    }
+
+    private final class ArmorStandHologram implements Hologram, Runnable {
+        private final Location location;
+        private final List<ArmorStand> stands;
+        // Wanted text per line, and the text each stand actually carries
+        private final String[] lines;
+        private final String[] shown;
+        // Read from other threads by the chest countdown
+        private volatile boolean viewed;
+        private volatile Runnable firstViewerTask;
+
+        private ArmorStandHologram(Location location, List<ArmorStand> stands, String[] lines) {
+            this.location = location;
+            this.stands = stands;
+            this.lines = lines;
+            this.shown = lines.clone();
+        }
+
+        @Override
+        public Location getLocation() {
+            return location;
+        }
+
+        @Override
+        public int getLineCount() {
+            return lines.length;
+        }
+
+        @Override
+        public String getLine(int index) {
+            return lines[index];
+        }
+
+        @Override
+        public void setLine(int index, String text) {
+            lines[index] = text;
+            if (viewed) {
+                apply(index);
+            }
+        }
+
+        @Override
+        public boolean hasViewers() {
+            return viewed;
+        }
+
+        @Override
+        public void setFirstViewerTask(Runnable task) {
+            firstViewerTask = task;
+        }
+
+        @Override
+        public boolean isValid() {
+            for (ArmorStand stand : stands) {
+                if (stand != null && stand.isValid()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void remove() {
+            synchronized (ArmorStandHologramBackend.this) {
+                holograms.remove(this);
+            }
+            executor.runAt(location, this::removeStands);
+        }
+
+        private void removeStands() {
+            int removed = 0;
+            for (ArmorStand stand : stands) {
+                if (stand != null && stand.isValid()) {
+                    stand.remove();
+                    removed++;
+                }
+            }
+            stands.clear();
+            
+            if (removed > 0) {
+                log.fine("Removed " + removed + " hologram entities");
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                updateViewers();
+            } catch (Exception e) {
+                LogManager.warning("Error updating hologram viewers", e);
+            }
+        }
+
+        private void apply(int index) {
+            if (index >= stands.size() || lines[index].equals(shown[index])) {
+                return;
+            }
+            
+            ArmorStand stand = stands.get(index);
+            if (stand != null && stand.isValid()) {
+                stand.setCustomName(lines[index]);
+                shown[index] = lines[index];
+            }
+        }
+
+        private void updateViewers() {
+            boolean wasViewed = viewed;
+            viewed = isViewed();
+            
+            // First viewer in range: bring every line up to date
+            if (viewed && !wasViewed) {
+                for (int i = 0; i < lines.length; i++) {
+                    apply(i);
+                }
+                Runnable task = firstViewerTask;
+                if (task != null) {
+                    task.run();
+                }
+            }
+        }
+
+        private boolean isViewed() {
+            World world = location.getWorld();
+            if (world == null) {
+                return false;
+            }
+            for (Player player : world.getPlayers()) {
+                if (player.getLocation().distanceSquared(location) <= viewDistanceSquared) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package dev.antry.antrydeathloot.hologram;
+
+import dev.antry.antrydeathloot.config.PluginConfig;
+import dev.antry.antrydeathloot.text.MessageTemplate;
+import dev.antry.antrydeathloot.text.Placeholder;
+import dev.antry.antrydeathloot.text.TemplateValues;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rendered countdown lines, computed once per seconds value.
+ * <p>
+ * Lines for the last {@value #PRERENDERED_SECONDS} seconds of the break time are prepared
+ * up front, where every chest counts down second by second. Larger values are rendered on
+ * first use and kept in a small LRU, so a long break time costs no more than a short one.
+ * The cache rebuilds itself whenever a different {@link PluginConfig} instance is passed
+ * in. Not thread-safe: callers hold the {@code HologramManager} lock, which chest work
+ * takes inside the {@code DeathChestManager} lock from region threads on Folia.
+ */
+public final class CountdownTextCache {
+    static final int PRERENDERED_SECONDS = 600;
+    private static final int MAX_MEMOIZED = 256;
+
+    private PluginConfig config;
+    private MessageTemplate template;
+    private final TemplateValues values = new TemplateValues();
+    private String[] lines = new String[0];
+    private final Map<Integer, String> memoized = new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > MAX_MEMOIZED;
+        }
+    };
+
+    /**
+     * @param config the active configuration
+     * @param seconds remaining seconds to display
+     * @return the colored second hologram line
+     */
+    public String get(PluginConfig config, int seconds) {
+        if (config != this.config) {
+            rebuild(config);
+        }
+        
+        int index = Math.max(0, seconds);
+        if (index < lines.length) {
+            return lines[index];
+        }
+        
+        String line = memoized.get(index);
+        if (line == null) {
+            line = render(index);
+            memoized.put(index, line);
+        }
+        return line;
+    }
+
+    /**
+     * Drop every cached line
+     */
+    public void invalidate() {
+        config = null;
+        template = null;
+        lines = new String[0];
+        memoized.clear();
+    }
+
+    private void rebuild(PluginConfig config) {
+        this.config = config;
+        this.template = MessageTemplate.compile(config.getHologramSecondLine());
+        this.lines = new String[Math.min(config.getChestBreakTime(), PRERENDERED_SECONDS) + 1];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = render(i);
+        }
+        memoized.clear();
+    }
+
+    private String render(int seconds) {
+        return template.render(values.set(Placeholder.SECONDS, seconds));
+    }
+}
@@ -0,0 +1,56 @@
+package dev.antry.antrydeathloot.hologram;
+
+import org.bukkit.Location;
+
+/**
+ * A multi-line floating text display, independent of how it is rendered
+ */
+public interface Hologram {
+
+    /**
+     * @return the location of the first line
+     */
+    Location getLocation();
+
+    /**
+     * @return number of lines in this hologram
+     */
+    int getLineCount();
+
+    /**
+     * @param index line index
+     * @return the text currently shown on the line
+     */
+    String getLine(int index);
+
+    /**
+     * Change the text of a line. Backends only push the change to clients while
+     * someone is in range; otherwise the latest text is sent when a viewer arrives.
+     * @param index line index
+     * @param text the new, already colored text
+     */
+    void setLine(int index, String text);
+
+    /**
+     * @return true if at least one player is close enough to see this hologram
+     */
+    boolean hasViewers();
+
+    /**
+     * Set a task to run when the hologram goes from no viewers to at least one, so text
+     * that was skipped while nobody could see it can be brought up to date. Runs on the
+     * thread that noticed the viewer, without any backend lock held.
+     * @param task the task, or null for none
+     */
+    void setFirstViewerTask(Runnable task);
+
+    /**
+     * @return true while the hologram is still displayed
+     */
+    boolean isValid();
+
+    /**
+     * Remove the hologram for every viewer
+     */
+    void remove();
+}
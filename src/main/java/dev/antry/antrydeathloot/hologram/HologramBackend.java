@@ -0,0 +1,37 @@
+package dev.antry.antrydeathloot.hologram;
+
+import org.bukkit.Location;
+
+import java.util.List;
+
+/**
+ * Strategy for rendering holograms
+ */
+public interface HologramBackend {
+
+    /**
+     * @return short name used in logs and config
+     */
+    String getName();
+
+    /**
+     * Create a hologram with the given lines stacked downwards from the location
+     * @param location location of the first line
+     * @param lines already colored text lines
+     * @param lineSpacing vertical distance between lines
+     * @return the created hologram, or null if it could not be created
+     */
+    Hologram create(Location location, List<String> lines, double lineSpacing);
+
+    /**
+     * Called periodically on the main thread (the global region on Folia) for backends
+     * that track viewers
+     */
+    default void tick() {
+    }
+
+    /**
+     * Release every hologram owned by this backend
+     */
+    void shutdown();
+}
@@ -0,0 +1,27 @@
+package dev.antry.antrydeathloot.hologram;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * Sends client-side-only hologram entities to individual players
+ */
+public interface HologramPacketSink {
+
+    /**
+     * Spawn a named, invisible marker armor stand for one viewer
+     */
+    void spawn(Player viewer, int entityId, UUID entityUuid, Location location, String text);
+
+    /**
+     * Change the custom name of a previously spawned entity
+     */
+    void updateName(Player viewer, int entityId, String text);
+
+    /**
+     * Destroy previously spawned entities
+     */
+    void destroy(Player viewer, int[] entityIds);
+}
@@ -0,0 +1,325 @@
+package dev.antry.antrydeathloot.hologram;
+
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import dev.antry.antrydeathloot.managers.LogManager;
+import dev.antry.antrydeathloot.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders holograms as client-side-only entities.
+ * <p>
+ * No server entity exists; spawn, rename and destroy packets are sent through a
+ * {@link HologramPacketSink} only to players within the view distance. Viewers are
+ * re-evaluated on every {@link #tick()} against one snapshot of player positions,
+ * bucketed by chunk, so each hologram only looks at players in the chunks around it.
+ * <p>
+ * Hologram state is guarded by the backend, and holograms may be created, changed and
+ * removed from any thread. Viewer checks walk the online player list and read each
+ * player's position, which is only safe on the main thread: on Folia {@link #tick()}
+ * runs on the global region and those reads are unsynchronized with the player's
+ * region, so a position may be a tick stale. That only delays a spawn or destroy to the
+ * next check.
+ */
+public class PacketHologramBackend implements HologramBackend, Listener {
+    // Count down from the top of the int range so we never collide with real entity IDs
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger(Integer.MAX_VALUE);
+
+    private final HologramPacketSink sink;
+    private final double viewDistanceSquared;
+    private final int viewDistanceChunks;
+    private final List<PacketHologram> holograms = new ArrayList<>();
+
+    public PacketHologramBackend(HologramPacketSink sink, double viewDistance) {
+        this.sink = sink;
+        this.viewDistanceSquared = viewDistance * viewDistance;
+        this.viewDistanceChunks = (int) Math.ceil(viewDistance / 16);
+    }
+
+    @Override
+    public String getName() {
+        return "packet";
+    }
+
+    @Override
+    public Hologram create(Location location, List<String> lines, double lineSpacing) {
+        if (location.getWorld() == null) {
+            LogManager.warning("Cannot create hologram in null world");
+            return null;
+        }
+        
+        PacketHologram hologram = new PacketHologram(location.clone(), lines, lineSpacing);
+        PlayerPositions positions = PlayerPositions.capture();
+        synchronized (this) {
+            holograms.add(hologram);
+            hologram.updateViewers(positions);
+        }
+        return hologram;
+    }
+
+    @Override
+    public void tick() {
+        PlayerPositions positions = PlayerPositions.capture();
+        List<Runnable> firstViewerTasks = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < holograms.size(); i++) {
+                PacketHologram hologram = holograms.get(i);
+                try {
+                    if (hologram.updateViewers(positions) && hologram.firstViewerTask != null) {
+                        firstViewerTasks.add(hologram.firstViewerTask);
+                    }
+                } catch (Exception e) {
+                    LogManager.warning("Error updating hologram viewers", e);
+                }
+            }
+        }
+        // Outside the backend lock: these take the chest manager's lock, which is held while creating holograms
+        for (Runnable task : firstViewerTasks) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                LogManager.warning("Error refreshing hologram for a new viewer", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        for (PacketHologram hologram : new ArrayList<>(holograms)) {
+            hologram.remove();
+        }
+        holograms.clear();
+    }
+
+    /**
+     * @return number of live packet holograms
+     */
+    public synchronized int getHologramCount() {
+        return holograms.size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        forgetViewer(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        // The client drops every entity on a world change
+        forgetViewer(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        forgetViewer(event.getPlayer());
+    }
+
+    private synchronized void forgetViewer(Player player) {
+        for (PacketHologram hologram : holograms) {
+            hologram.viewers.remove(player.getUniqueId());
+        }
+    }
+
+    private final class PacketHologram implements Hologram {
+        private final Location location;
+        private final Location[] lineLocations;
+        private final String[] lines;
+        private final int[] entityIds;
+        private final UUID[] entityUuids;
+        private final Set<UUID> viewers = new HashSet<>();
+        private final List<Player> viewerPlayers = new ArrayList<>();
+        // Read without the backend lock by the chest countdown
+        private volatile boolean viewed;
+        private volatile Runnable firstViewerTask;
+        private boolean valid = true;
+
+        private PacketHologram(Location location, List<String> lines, double lineSpacing) {
+            int count = lines.size();
+            this.location = location;
+            this.lineLocations = new Location[count];
+            this.lines = lines.toArray(new String[count]);
+            this.entityIds = new int[count];
+            this.entityUuids = new UUID[count];
+            
+            for (int i = 0; i < count; i++) {
+                lineLocations[i] = location.clone().subtract(0, lineSpacing * i, 0);
+                entityIds[i] = NEXT_ENTITY_ID.getAndDecrement();
+                entityUuids[i] = UUID.randomUUID();
+            }
+        }
+
+        @Override
+        public Location getLocation() {
+            return location;
+        }
+
+        @Override
+        public int getLineCount() {
+            return lines.length;
+        }
+
+        @Override
+        public String getLine(int index) {
+            return lines[index];
+        }
+
+        @Override
+        public void setLine(int index, String text) {
+            synchronized (PacketHologramBackend.this) {
+                if (!valid || text.equals(lines[index])) {
+                    return;
+                }
+                
+                lines[index] = text;
+                for (Player viewer : viewerPlayers) {
+                    sink.updateName(viewer, entityIds[index], text);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasViewers() {
+            return viewed;
+        }
+
+        @Override
+        public void setFirstViewerTask(Runnable task) {
+            firstViewerTask = task;
+        }
+
+        @Override
+        public boolean isValid() {
+            return valid;
+        }
+
+        @Override
+        public void remove() {
+            synchronized (PacketHologramBackend.this) {
+                if (!valid) {
+                    return;
+                }
+                
+                valid = false;
+                for (Player viewer : viewerPlayers) {
+                    if (viewer.isOnline()) {
+                        sink.destroy(viewer, entityIds);
+                    }
+                }
+                viewers.clear();
+                viewerPlayers.clear();
+                viewed = false;
+                holograms.remove(this);
+            }
+        }
+
+        /**
+         * @return true if the hologram had no viewers before and has at least one now
+         */
+        private boolean updateViewers(PlayerPositions positions) {
+            boolean wasViewed = !viewerPlayers.isEmpty();
+            
+            // Drop viewers that left, changed world or moved out of range
+            Iterator<Player> iterator = viewerPlayers.iterator();
+            while (iterator.hasNext()) {
+                Player viewer = iterator.next();
+                if (!viewers.contains(viewer.getUniqueId())) {
+                    // Already forgotten by a quit/world change/respawn event
+                    iterator.remove();
+                } else if (!inRange(positions.get(viewer))) {
+                    sink.destroy(viewer, entityIds);
+                    viewers.remove(viewer.getUniqueId());
+                    iterator.remove();
+                }
+            }
+            
+            // Show to players that came into range, looking only at the chunks around the hologram
+            LongObjectMap<List<Player>> chunks = positions.byChunk.get(location.getWorld());
+            if (chunks != null) {
+                int centerX = location.getBlockX() >> 4;
+                int centerZ = location.getBlockZ() >> 4;
+                for (int chunkX = centerX - viewDistanceChunks; chunkX <= centerX + viewDistanceChunks; chunkX++) {
+                    for (int chunkZ = centerZ - viewDistanceChunks; chunkZ <= centerZ + viewDistanceChunks; chunkZ++) {
+                        List<Player> players = chunks.get(ChunkOccupancy.chunkKey(chunkX, chunkZ));
+                        if (players != null) {
+                            showTo(players, positions);
+                        }
+                    }
+                }
+            }
+            
+            viewed = !viewerPlayers.isEmpty();
+            return viewed && !wasViewed;
+        }
+
+        private void showTo(List<Player> players, PlayerPositions positions) {
+            for (Player player : players) {
+                if (!viewers.contains(player.getUniqueId()) && inRange(positions.get(player))) {
+                    for (int i = 0; i < entityIds.length; i++) {
+                        sink.spawn(player, entityIds[i], entityUuids[i], lineLocations[i], lines[i]);
+                    }
+                    viewers.add(player.getUniqueId());
+                    viewerPlayers.add(player);
+                }
+            }
+        }
+
+        private boolean inRange(Location position) {
+            return position != null && position.getWorld() == location.getWorld()
+                    && position.distanceSquared(location) <= viewDistanceSquared;
+        }
+    }
+
+    /**
+     * Where every online player was when a viewer check started
+     */
+    private static final class PlayerPositions {
+        private final Map<UUID, Location> locations = new HashMap<>();
+        private final Map<World, LongObjectMap<List<Player>>> byChunk = new HashMap<>();
+
+        private static PlayerPositions capture() {
+            PlayerPositions positions = new PlayerPositions();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                Location location = player.getLocation();
+                if (location.getWorld() == null) {
+                    continue;
+                }
+                positions.locations.put(player.getUniqueId(), location);
+                
+                LongObjectMap<List<Player>> chunks = positions.byChunk.computeIfAbsent(location.getWorld(), world -> new LongObjectMap<>());
+                long key = ChunkOccupancy.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+                List<Player> players = chunks.get(key);
+                if (players == null) {
+                    players = new ArrayList<>(1);
+                    chunks.put(key, players);
+                }
+                players.add(player);
+            }
+            return positions;
+        }
+
+        /**
+         * @return the player's position, or null if they are no longer online
+         */
+        private Location get(Player player) {
+            return locations.get(player.getUniqueId());
+        }
+    }
+}
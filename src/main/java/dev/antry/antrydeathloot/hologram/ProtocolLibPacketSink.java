@@ -0,0 +1,184 @@
+package dev.antry.antrydeathloot.hologram;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.utility.MinecraftVersion;
+import com.comphenix.protocol.wrappers.WrappedChatComponent;
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import dev.antry.antrydeathloot.managers.LogManager;
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Sends hologram packets through ProtocolLib.
+ * <p>
+ * Handles the entity metadata layouts of 1.8 through 1.19.2. Later versions replaced
+ * the watchable-object metadata format, which ProtocolLib 4.x cannot write.
+ */
+public class ProtocolLibPacketSink implements HologramPacketSink {
+    private static final byte ENTITY_FLAG_INVISIBLE = 0x20;
+    // Small, no base plate, marker
+    private static final byte ARMOR_STAND_FLAGS = 0x01 | 0x08 | 0x10;
+    private static final int LEGACY_ARMOR_STAND_TYPE_ID = 30;
+    private static final int FLATTENED_ARMOR_STAND_TYPE_ID = 1;
+
+    private final ProtocolManager protocolManager;
+    private final int minor;
+    private final int build;
+
+    public ProtocolLibPacketSink() {
+        this.protocolManager = ProtocolLibrary.getProtocolManager();
+        MinecraftVersion version = protocolManager.getMinecraftVersion();
+        this.minor = version.getMinor();
+        this.build = version.getBuild();
+    }
+
+    /**
+     * @return true if ProtocolLib can write hologram packets for the running server version
+     */
+    public static boolean isSupported() {
+        try {
+            MinecraftVersion version = ProtocolLibrary.getProtocolManager().getMinecraftVersion();
+            int minor = version.getMinor();
+            return minor >= 8 && (minor < 19 || (minor == 19 && version.getBuild() <= 2));
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    @Override
+    public void spawn(Player viewer, int entityId, UUID entityUuid, Location location, String text) {
+        PacketContainer spawn;
+        if (minor >= 19) {
+            spawn = protocolManager.createPacket(PacketType.Play.Server.SPAWN_ENTITY);
+            spawn.getEntityTypeModifier().write(0, EntityType.ARMOR_STAND);
+        } else {
+            spawn = protocolManager.createPacket(PacketType.Play.Server.SPAWN_ENTITY_LIVING);
+            spawn.getIntegers().write(1, minor >= 13 ? FLATTENED_ARMOR_STAND_TYPE_ID : LEGACY_ARMOR_STAND_TYPE_ID);
+        }
+        spawn.getIntegers().write(0, entityId);
+        
+        if (minor == 8) {
+            // 1.8 sends fixed-point coordinates
+            spawn.getIntegers()
+                    .write(2, (int) Math.floor(location.getX() * 32.0D))
+                    .write(3, (int) Math.floor(location.getY() * 32.0D))
+                    .write(4, (int) Math.floor(location.getZ() * 32.0D));
+        } else {
+            spawn.getUUIDs().write(0, entityUuid);
+            spawn.getDoubles()
+                    .write(0, location.getX())
+                    .write(1, location.getY())
+                    .write(2, location.getZ());
+        }
+        
+        WrappedDataWatcher watcher = createWatcher(text);
+        if (minor < 15) {
+            // Before 1.15 the living spawn packet carries its own metadata
+            spawn.getDataWatcherModifier().write(0, watcher);
+        }
+        
+        send(viewer, spawn);
+        send(viewer, metadataPacket(entityId, watcher));
+    }
+
+    @Override
+    public void updateName(Player viewer, int entityId, String text) {
+        WrappedDataWatcher watcher = new WrappedDataWatcher();
+        setCustomName(watcher, text);
+        send(viewer, metadataPacket(entityId, watcher));
+    }
+
+    @Override
+    public void destroy(Player viewer, int[] entityIds) {
+        if (minor == 17 && build == 0) {
+            // 1.17.0 only destroys one entity per packet
+            for (int entityId : entityIds) {
+                PacketContainer destroy = protocolManager.createPacket(PacketType.Play.Server.ENTITY_DESTROY);
+                destroy.getIntegers().write(0, entityId);
+                send(viewer, destroy);
+            }
+            return;
+        }
+        
+        PacketContainer destroy = protocolManager.createPacket(PacketType.Play.Server.ENTITY_DESTROY);
+        if (minor >= 17) {
+            List<Integer> ids = new ArrayList<>(entityIds.length);
+            for (int entityId : entityIds) {
+                ids.add(entityId);
+            }
+            destroy.getIntLists().write(0, ids);
+        } else {
+            destroy.getIntegerArrays().write(0, entityIds);
+        }
+        send(viewer, destroy);
+    }
+
+    private PacketContainer metadataPacket(int entityId, WrappedDataWatcher watcher) {
+        PacketContainer metadata = protocolManager.createPacket(PacketType.Play.Server.ENTITY_METADATA);
+        metadata.getIntegers().write(0, entityId);
+        metadata.getWatchableCollectionModifier().write(0, watcher.getWatchableObjects());
+        return metadata;
+    }
+
+    private WrappedDataWatcher createWatcher(String text) {
+        WrappedDataWatcher watcher = new WrappedDataWatcher();
+        if (minor == 8) {
+            watcher.setObject(0, ENTITY_FLAG_INVISIBLE);
+            watcher.setObject(3, (byte) 1);
+            watcher.setObject(getArmorStandFlagsIndex(), ARMOR_STAND_FLAGS);
+        } else {
+            WrappedDataWatcher.Serializer byteSerializer = WrappedDataWatcher.Registry.get(Byte.class);
+            watcher.setObject(new WrappedDataWatcher.WrappedDataWatcherObject(0, byteSerializer), ENTITY_FLAG_INVISIBLE);
+            watcher.setObject(new WrappedDataWatcher.WrappedDataWatcherObject(3,
+                    WrappedDataWatcher.Registry.get(Boolean.class)), true);
+            watcher.setObject(new WrappedDataWatcher.WrappedDataWatcherObject(getArmorStandFlagsIndex(), byteSerializer),
+                    ARMOR_STAND_FLAGS);
+        }
+        setCustomName(watcher, text);
+        return watcher;
+    }
+
+    private void setCustomName(WrappedDataWatcher watcher, String text) {
+        if (minor == 8) {
+            watcher.setObject(2, text);
+        } else if (minor < 13) {
+            watcher.setObject(new WrappedDataWatcher.WrappedDataWatcherObject(2,
+                    WrappedDataWatcher.Registry.get(String.class)), text);
+        } else {
+            Object component = WrappedChatComponent.fromChatMessage(text)[0].getHandle();
+            watcher.setObject(new WrappedDataWatcher.WrappedDataWatcherObject(2,
+                    WrappedDataWatcher.Registry.getChatComponentSerializer(true)), Optional.of(component));
+        }
+    }
+
+    private int getArmorStandFlagsIndex() {
+        if (minor <= 9) {
+            return 10;
+        } else if (minor <= 13) {
+            return 11;
+        } else if (minor == 14) {
+            return 13;
+        } else if (minor <= 16) {
+            return 14;
+        }
+        return 15;
+    }
+
+    private void send(Player viewer, PacketContainer packet) {
+        try {
+            protocolManager.sendServerPacket(viewer, packet);
+        } catch (Exception e) {
+            LogManager.warning("Failed to send hologram packet",
+                    "Failed to send hologram packet to " + viewer.getName() + ": " + e.getMessage());
+        }
+    }
+}
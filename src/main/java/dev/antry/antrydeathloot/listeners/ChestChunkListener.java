@@ -0,0 +1,41 @@
+package dev.antry.antrydeathloot.listeners;
+
+import dev.antry.antrydeathloot.managers.DeathChestManager;
+import dev.antry.antrydeathloot.managers.LogManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * Keeps the death chest manager informed of which occupied chunks are loaded.
+ * <p>
+ * Registered by {@link DeathChestManager} together with the block listener, only while
+ * at least one death chest exists.
+ */
+public class ChestChunkListener implements Listener {
+    private final DeathChestManager deathChestManager;
+
+    public ChestChunkListener(DeathChestManager deathChestManager) {
+        this.deathChestManager = deathChestManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        try {
+            deathChestManager.handleChunkLoad(event.getChunk());
+        } catch (Exception e) {
+            LogManager.warning("Error handling chunk load", e);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        try {
+            deathChestManager.handleChunkUnload(event.getChunk());
+        } catch (Exception e) {
+            LogManager.warning("Error handling chunk unload", e);
+        }
+    }
+}
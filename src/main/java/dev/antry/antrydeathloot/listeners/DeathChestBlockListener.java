@@ -0,0 +1,136 @@
+package dev.antry.antrydeathloot.listeners;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.managers.DeathChestManager;
+import dev.antry.antrydeathloot.managers.LogManager;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.Chest;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockDamageEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+/**
+ * Protects death chests from normal breaking and handles instant breaks.
+ * <p>
+ * Registered by {@link DeathChestManager} only while at least one death chest exists.
+ */
+public class DeathChestBlockListener implements Listener {
+    private final AntryDeathLoot plugin;
+    private final DeathChestManager deathChestManager;
+
+    public DeathChestBlockListener(AntryDeathLoot plugin, DeathChestManager deathChestManager) {
+        this.plugin = plugin;
+        this.deathChestManager = deathChestManager;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onBlockBreak(BlockBreakEvent event) {
+        Block block = event.getBlock();
+        if (!isCandidate(block)) {
+            return;
+        }
+        
+        try {
+            if (deathChestManager.isDeathChest(block)) {
+                event.setCancelled(true);
+                
+                if (!plugin.getPluginConfig().isAllowInstantBreak()) {
+                    return;
+                }
+                
+                Location location = block.getLocation();
+                deathChestManager.cancelBreakTask(location);
+                // After the cancelled event has finished
+                plugin.getTaskExecutor().runAtLater(location, () -> {
+                    if (!plugin.isShuttingDown()) {
+                        deathChestManager.breakChest(location);
+                    }
+                }, 1L);
+            }
+        } catch (Exception e) {
+            LogManager.warning("Error handling block break", e);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onBlockDamage(BlockDamageEvent event) {
+        Block block = event.getBlock();
+        if (!isCandidate(block)) {
+            return;
+        }
+        
+        try {
+            if (deathChestManager.isDeathChest(block)) {
+                if (!plugin.getPluginConfig().isAllowInstantBreak()) {
+                    return;
+                }
+                event.setInstaBreak(true);
+            }
+        } catch (Exception e) {
+            LogManager.warning("Error handling block damage", e);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK || !isCandidate(event.getClickedBlock())) {
+            return;
+        }
+        
+        try {
+            // Fill lazy chests before the container opens
+            deathChestManager.materializeContents(event.getClickedBlock());
+        } catch (Exception e) {
+            LogManager.warning("Error handling chest interaction", e);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onInventoryOpen(InventoryOpenEvent event) {
+        if (plugin.isShuttingDown() || !(event.getInventory().getHolder() instanceof Chest)) {
+            return;
+        }
+        
+        try {
+            // Catches chests opened by other means than a click, e.g. by another plugin
+            Block block = ((Chest) event.getInventory().getHolder()).getBlock();
+            if (isCandidate(block)) {
+                deathChestManager.materializeContents(block);
+            }
+        } catch (Exception e) {
+            LogManager.warning("Error handling inventory open", e);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (plugin.isShuttingDown() || !(event.getInventory().getHolder() instanceof Chest)) {
+            return;
+        }
+        
+        try {
+            Block block = ((Chest) event.getInventory().getHolder()).getBlock();
+            if (deathChestManager.isDeathChest(block)) {
+                // Keep the journal in step with items players took out
+                deathChestManager.updateContents(block.getLocation(), event.getInventory());
+            }
+        } catch (Exception e) {
+            LogManager.warning("Error handling inventory close", e);
+        }
+    }
+    
+    private boolean isCandidate(Block block) {
+        // Material first, then the lock-free chunk filter; only then does anything take the manager lock
+        return block.getType() == Material.CHEST
+                && !plugin.isShuttingDown()
+                && deathChestManager.isChunkOccupied(block);
+    }
+}
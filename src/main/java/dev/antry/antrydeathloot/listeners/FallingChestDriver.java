@@ -0,0 +1,168 @@
+package dev.antry.antrydeathloot.listeners;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.managers.LogManager;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import dev.antry.antrydeathloot.scheduler.TimingWheel;
+import dev.antry.antrydeathloot.utils.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives every falling chest animation from one place.
+ * <p>
+ * In-flight falling blocks are tracked by entity ID and land when the server fires
+ * {@link EntityChangeBlockEvent} for them. A falling block that never lands (it broke on
+ * a torch, or its chunk unloaded) is caught by a once-per-second validity check and a
+ * hard time limit. Each fall lands exactly once. Registered as a listener only while
+ * something is falling.
+ * <p>
+ * The landing event arrives on the falling block's region thread and the validity check
+ * is sent there from the timer wheel, so every entry point holds the lock that guards
+ * the wheel.
+ */
+public class FallingChestDriver implements Listener {
+    private static final long CHECK_INTERVAL_TICKS = 20L;
+    private static final long MAX_FALL_TICKS = 200L;
+
+    private final AntryDeathLoot plugin;
+    private final TimingWheel timerWheel;
+    private final TaskExecutor executor;
+    private final Object lock;
+    private final LongObjectMap<Fall> inFlight = new LongObjectMap<>();
+    // Size of inFlight for readers without the lock
+    private volatile int inFlightCount;
+    private boolean registered;
+
+    /**
+     * @param timerWheel drives the validity checks
+     * @param lock guards the timer wheel; held while a fall lands
+     */
+    public FallingChestDriver(AntryDeathLoot plugin, TimingWheel timerWheel, Object lock) {
+        this.plugin = plugin;
+        this.timerWheel = timerWheel;
+        this.executor = plugin.getTaskExecutor();
+        this.lock = lock;
+    }
+
+    /**
+     * Start tracking a falling chest
+     * @param entity the falling block
+     * @param onLand run once when the block lands or is lost
+     */
+    public void launch(FallingBlock entity, Runnable onLand) {
+        synchronized (lock) {
+            Fall fall = new Fall(entity, onLand);
+            Fall previous = inFlight.put(entity.getEntityId(), fall);
+            if (previous != null) {
+                previous.guard.cancel();
+            }
+            fall.guard = timerWheel.schedule(CHECK_INTERVAL_TICKS, fall::check);
+            updateListener();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        if (!(event.getEntity() instanceof FallingBlock)) {
+            return;
+        }
+
+        synchronized (lock) {
+            Fall fall = inFlight.get(event.getEntity().getEntityId());
+            if (fall == null || fall.entity != event.getEntity()) {
+                return;
+            }
+
+            // The real chest goes where the player died, not wherever the block came to rest
+            event.setCancelled(true);
+            land(fall);
+        }
+    }
+
+    /**
+     * Land everything still in the air, e.g. on shutdown
+     */
+    public void landAll() {
+        synchronized (lock) {
+            List<Fall> falls = new ArrayList<>(inFlight.size());
+            inFlight.forEach((id, fall) -> falls.add(fall));
+            for (Fall fall : falls) {
+                land(fall);
+            }
+        }
+    }
+
+    /**
+     * @return the number of chests currently falling; may be called from any thread
+     */
+    public int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    private void land(Fall fall) {
+        if (!inFlight.remove(fall.entity.getEntityId(), fall)) {
+            return;
+        }
+        fall.guard.cancel();
+        updateListener();
+
+        try {
+            fall.entity.remove();
+        } catch (Exception e) {
+            LogManager.warning("Failed to remove falling chest", e);
+        }
+        try {
+            fall.onLand.run();
+        } catch (Exception e) {
+            LogManager.warning("Error landing falling chest", e);
+        }
+    }
+
+    private void updateListener() {
+        inFlightCount = inFlight.size();
+        if (!inFlight.isEmpty() && !registered) {
+            plugin.getServer().getPluginManager().registerEvents(this, plugin);
+            registered = true;
+        } else if (inFlight.isEmpty() && registered) {
+            HandlerList.unregisterAll(this);
+            registered = false;
+        }
+    }
+
+    private final class Fall {
+        private final FallingBlock entity;
+        // Where the block was spawned; it only falls straight down, so it stays in this region
+        private final Location origin;
+        private final Runnable onLand;
+        private TimingWheel.Timeout guard;
+        private long elapsed;
+
+        private Fall(FallingBlock entity, Runnable onLand) {
+            this.entity = entity;
+            this.origin = entity.getLocation();
+            this.onLand = onLand;
+        }
+
+        private void check(TimingWheel.Timeout timeout) {
+            elapsed += CHECK_INTERVAL_TICKS;
+            // Keep guarding until the check below has landed the fall
+            timeout.reschedule(CHECK_INTERVAL_TICKS);
+            executor.runAt(origin, () -> {
+                synchronized (lock) {
+                    if (elapsed >= MAX_FALL_TICKS || entity.isDead() || !entity.isValid()) {
+                        land(this);
+                    }
+                }
+            });
+        }
+    }
+}
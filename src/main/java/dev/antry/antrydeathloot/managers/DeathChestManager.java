@@ -1,45 +1,361 @@
 package dev.antry.antrydeathloot.managers;
 
 import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.config.PluginConfig;
+import dev.antry.antrydeathloot.data.BlockIndex;
+import dev.antry.antrydeathloot.data.BlockKey;
+import dev.antry.antrydeathloot.data.BlockPalette;
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import dev.antry.antrydeathloot.data.DeathChestData;
+import dev.antry.antrydeathloot.drops.ItemDropPipeline;
+import dev.antry.antrydeathloot.hologram.Hologram;
+import dev.antry.antrydeathloot.listeners.ChestChunkListener;
+import dev.antry.antrydeathloot.listeners.DeathChestBlockListener;
+import dev.antry.antrydeathloot.listeners.FallingChestDriver;
+import dev.antry.antrydeathloot.metrics.Counter;
+import dev.antry.antrydeathloot.metrics.Histogram;
+import dev.antry.antrydeathloot.metrics.MetricsRegistry;
+import dev.antry.antrydeathloot.persistence.ChestJournal;
+import dev.antry.antrydeathloot.placement.PlacementResolver;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import dev.antry.antrydeathloot.scheduler.TickBudgetQueue;
+import dev.antry.antrydeathloot.scheduler.TimingWheel;
 import dev.antry.antrydeathloot.utils.VersionUtils;
 import lombok.Getter;
 import lombok.extern.java.Log;
-import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Sound;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
-import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.FallingBlock;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.Effect;
-import org.bukkit.entity.Item;
+import org.bukkit.event.HandlerList;
+import org.bukkit.inventory.Inventory;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Places, tracks and breaks death chests.
+ * <p>
+ * The per-tick timer wheel and creation queue run on the main thread, or the global
+ * region on Folia. Anything touching a chest's blocks or entities is sent to the thread
+ * owning its location through the {@link TaskExecutor}. Deaths, chunk events and those
+ * region tasks can arrive on different threads, so all chest state is guarded by this
+ * manager's lock.
+ * <p>
+ * The tick takes the lock once per timer or queued death rather than for the whole
+ * drain, and item drops and hologram countdown updates run without it. Placing, merging
+ * and breaking a chest still hold the single lock, so on Folia that work runs one region
+ * at a time. This is deliberate: a placement search or merge can reach a chest owned by
+ * another region, regions merge and split at runtime, and the journal and indexes are
+ * shared, so sharding the state would need cross-shard locking for little gain. Each of
+ * those tasks is short and bounded by the creation queue's per-tick budget.
+ */
 @Log
 public class DeathChestManager {
+    private static final int TIMER_WHEEL_SIZE = 512;
+    private static final long TICKS_PER_SECOND = 20L;
+    private static final int HOLOGRAM_REBUILDS_PER_TICK = 50;
+    // Merges extend a chest's countdown up to this many break times after its first death
+    private static final int MAX_MERGED_LIFETIME = 3;
+    
     private final AntryDeathLoot plugin;
+    private final TaskExecutor executor;
     
+    // All chest state is keyed by packed block position; guarded by this manager
     @Getter
-    private final ConcurrentHashMap<Location, UUID> deathChests;
-    private final ConcurrentHashMap<Location, List<ArmorStand>> chestHolograms;
-    private final ConcurrentHashMap<Location, List<Integer>> breakTasks;
+    private final BlockIndex<DeathChestData> deathChests;
+    private final BlockIndex<Hologram> chestHolograms;
+    private final BlockIndex<TimingWheel.Timeout> breakTasks;
+    private final ChunkOccupancy occupiedChunks;
+    
+    // Block listener is only registered while at least one death chest exists
+    private final DeathChestBlockListener blockListener;
+    private boolean blockListenerRegistered;
+    
+    // One repeating task drives every chest countdown through the wheel
+    private final TimingWheel timerWheel;
+    private TaskExecutor.Task timerTask;
+    
+    // Deaths are turned into chests a few per tick so mass deaths do not spike a single tick
+    private final TickBudgetQueue<PendingChest> creationQueue;
+    
+    // Finds a safe spot when a death location is not one; null when disabled
+    private PlacementResolver placement;
+    private PlacementResolver.Fallback placementFallback;
+    // Deaths whose spot is still being searched for
+    private final Set<PendingChest> resolvingChests = new HashSet<>();
+    
+    // Blocks replaced by chests; most chests replace one of a handful of states
+    private final BlockPalette replacedBlocks = new BlockPalette();
+    
+    // Merges and paces item drops from broken chests
+    private final ItemDropPipeline dropPipeline;
+    
+    // Tracks in-flight falling chests and lands each one exactly once
+    private final FallingChestDriver fallingChests;
+    
+    // Crash-safe persistence, null when disabled
+    private final ChestJournal journal;
+    // Restored chests whose world is not loaded; carried into every snapshot
+    private final List<DeathChestData> unresolvedChests = new ArrayList<>();
+    // Snapshots must never be written before the old state has been read back
+    private boolean restored;
+    
+    // Chests in unloaded chunks: expiries waiting for the chunk, and restored chests not yet checked
+    private final BlockIndex<Boolean> deferredExpiries;
+    private final BlockIndex<Boolean> unverifiedChests;
+    private final ChestChunkListener chunkListener;
+    
+    // Latency and size metrics, shown by /deathloot stats
+    private final Histogram tickLatency;
+    private final Histogram createLatency;
+    private final Histogram breakLatency;
+    private final Histogram chestItems;
+    private final Counter chestsCreated;
+    private final Counter chestsBroken;
+    private final Counter chestsMerged;
+    private final Histogram placementLatency;
+    private final Counter placementFallbacks;
 
     public DeathChestManager(AntryDeathLoot plugin) {
         this.plugin = plugin;
-        this.deathChests = new ConcurrentHashMap<>();
-        this.chestHolograms = new ConcurrentHashMap<>();
-        this.breakTasks = new ConcurrentHashMap<>();
+        this.executor = plugin.getTaskExecutor();
+        this.deathChests = new BlockIndex<>();
+        this.chestHolograms = new BlockIndex<>();
+        this.breakTasks = new BlockIndex<>();
+        this.occupiedChunks = new ChunkOccupancy();
+        this.deferredExpiries = new BlockIndex<>();
+        this.unverifiedChests = new BlockIndex<>();
+        this.blockListener = new DeathChestBlockListener(plugin, this);
+        this.chunkListener = new ChestChunkListener(this);
+        this.timerWheel = new TimingWheel(TIMER_WHEEL_SIZE);
+        this.fallingChests = new FallingChestDriver(plugin, timerWheel, this);
+        this.dropPipeline = new ItemDropPipeline(
+                executor,
+                plugin.getPluginConfig().isDropMergeStacks(),
+                plugin.getPluginConfig().getDropMaxPerTick());
+        this.creationQueue = new TickBudgetQueue<>(
+                plugin.getPluginConfig().getCreationQueueCapacity(),
+                plugin.getPluginConfig().getCreationMaxPerTick(),
+                plugin.getPluginConfig().getCreationMaxMicrosPerTick(),
+                // On Folia this only hands each death to its region, so the time budget covers
+                // the hand-off and max-per-tick is what limits chest creation
+                pending -> runAtChest(pending.location, () -> materializeChest(pending)));
+        this.timerTask = executor.runGlobalTimer(this::tick, 1L, 1L);
+        this.journal = plugin.getPluginConfig().isPersistenceEnabled()
+                ? new ChestJournal(plugin.getDataFolder(), plugin.getPluginConfig().getPersistenceFlushInterval(),
+                        plugin.getPluginConfig().isPersistenceCompression())
+                : null;
+        
+        MetricsRegistry metrics = plugin.getMetrics();
+        this.tickLatency = metrics.timer("deathloot_tick_seconds", "Time spent in the per-tick death chest task");
+        this.createLatency = metrics.timer("deathloot_chest_create_seconds", "Time to place and fill a death chest");
+        this.breakLatency = metrics.timer("deathloot_chest_break_seconds", "Time to break a death chest and queue its drops");
+        this.chestItems = metrics.histogram("deathloot_chest_items", "Item stacks per death chest", 1);
+        this.chestsCreated = metrics.counter("deathloot_chests_created_total", "Death chests created");
+        this.chestsBroken = metrics.counter("deathloot_chests_broken_total", "Death chests broken");
+        this.chestsMerged = metrics.counter("deathloot_chests_merged_total", "Deaths merged into an existing death chest");
+        this.placementLatency = metrics.timer("deathloot_placement_search_seconds", "Time to search for a safe death chest spot");
+        this.placementFallbacks = metrics.counter("deathloot_placement_fallbacks_total", "Deaths with no safe chest spot nearby");
+        configurePlacement(plugin.getPluginConfig());
+        metrics.gauge("deathloot_chests_active", "Death chests currently in the world", this::getActiveChestCount);
+        metrics.gauge("deathloot_timers_pending", "Timers pending in the timing wheel", this::getPendingTimerCount);
+        metrics.gauge("deathloot_creation_queue_depth", "Deaths waiting to become chests", this::getQueuedChestCount);
+        metrics.gauge("deathloot_creation_queue_wait_milliseconds", "Moving average wait in the creation queue",
+                this::getAverageQueueWaitMillis);
+        metrics.gauge("deathloot_creation_queue_max_depth", "Most deaths waiting at once since startup",
+                creationQueue::getMaxDepth);
+        metrics.gauge("deathloot_creation_queue_max_wait_milliseconds", "Longest wait in the creation queue",
+                this::getMaxQueueWaitMillis);
+        metrics.gauge("deathloot_creation_queue_processed", "Deaths taken from the creation queue since startup",
+                creationQueue::getProcessedCount);
+        metrics.gauge("deathloot_falling_chests", "Chests currently falling", this::getFallingChestCount);
+        metrics.gauge("deathloot_item_drops_queued", "Item drops waiting to be spawned", dropPipeline::getQueuedCount);
         
         log.info("DeathChestManager initialized");
     }
+    
+    private void tick() {
+        long start = System.nanoTime();
+        dropPipeline.tick();
+        timerWheel.tick(this);
+        creationQueue.drain(this);
+        tickLatency.recordSince(start);
+    }
+    
+    /**
+     * Run world work for a chest on the thread owning its location, holding this manager's lock
+     */
+    private void runAtChest(Location location, Runnable task) {
+        if (executor.isOwnedByCurrentThread(location)) {
+            task.run();
+            return;
+        }
+        executor.runAt(location, () -> {
+            synchronized (this) {
+                if (!plugin.isShuttingDown()) {
+                    task.run();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Show a countdown value on a chest hologram from the thread owning its location.
+     * Needs no chest state, so region threads do not wait on this manager's lock for it.
+     */
+    private void updateHologramTimer(Location location, Hologram hologram, int seconds, PluginConfig config) {
+        if (executor.isOwnedByCurrentThread(location)) {
+            HologramManager.updateTimer(hologram, seconds, config);
+            return;
+        }
+        executor.runAt(location, () -> {
+            if (!plugin.isShuttingDown()) {
+                HologramManager.updateTimer(hologram, seconds, config);
+            }
+        });
+    }
+    
+    /**
+     * Restore chests recorded in the journal and start journaling.
+     * Called once the server has finished loading worlds.
+     */
+    public synchronized void restoreChests() {
+        if (journal == null) {
+            return;
+        }
+        
+        List<DeathChestData> saved;
+        try {
+            saved = journal.load();
+        } catch (Exception e) {
+            log.severe("Failed to read death chest journal, starting empty: " + e.getMessage());
+            saved = new ArrayList<>();
+        }
+        journal.open();
+        restored = true;
+        
+        int restoredCount = 0;
+        for (DeathChestData chest : saved) {
+            try {
+                if (restoreChest(chest)) {
+                    restoredCount++;
+                }
+            } catch (Exception e) {
+                log.warning("Failed to restore death chest for " + chest.getOwnerName() + ": " + e.getMessage());
+            }
+        }
+        
+        // Compact straight away so the journal only holds changes made from now on
+        writeSnapshot();
+        scheduleSnapshots();
+        
+        if (!saved.isEmpty()) {
+            log.info("Restored " + restoredCount + " of " + saved.size() + " death chests");
+        }
+    }
+    
+    private boolean restoreChest(DeathChestData chest) {
+        Location location = chest.toLocation();
+        if (location == null) {
+            log.warning("World of " + chest.getOwnerName() + "'s death chest is not loaded, keeping it for later");
+            unresolvedChests.add(chest);
+            return false;
+        }
+        if (chest.getReplacedBlock() != null) {
+            chest = chest.toBuilder().replacedBlock(replacedBlocks.intern(chest.getReplacedBlock())).build();
+        }
+        
+        trackChest(location, chest, false);
+        scheduleChestBreak(location, Math.max(1, chest.getRemainingSeconds()));
+        
+        // Never load a chunk just to check on a chest; verify it when the chunk loads instead
+        if (!occupiedChunks.isLoaded(location)) {
+            unverifiedChests.put(location, Boolean.TRUE);
+            return true;
+        }
+        if (!executor.isOwnedByCurrentThread(location)) {
+            // Verified on its region's thread; counted as restored until then
+            unverifiedChests.put(location, Boolean.TRUE);
+            runAtChest(location, () -> {
+                if (unverifiedChests.remove(location) != null) {
+                    verifyRestoredChest(location);
+                }
+            });
+            return true;
+        }
+        return verifyRestoredChest(location);
+    }
+    
+    private boolean verifyRestoredChest(Location location) {
+        DeathChestData chest = deathChests.get(location);
+        if (chest == null) {
+            return false;
+        }
+        
+        Block block = location.getBlock();
+        HologramManager.removeOrphanedHolograms(location);
+        if (block.getType() != Material.CHEST) {
+            log.warning("Death chest for " + chest.getOwnerName() + " is gone from the world, dropping its record");
+            cleanupChestResources(location);
+            return false;
+        }
+        
+        // A filled chest in the world is authoritative; an empty one either never had its
+        // contents placed (lazy inventories) or the world was saved before they were
+        Inventory inventory = ((Chest) block.getState()).getInventory();
+        List<ItemStack> worldItems = copyContents(inventory);
+        DeathChestData current = worldItems.isEmpty()
+                ? chest.toBuilder().virtualContents(true).build()
+                : chest.toBuilder().items(worldItems).virtualContents(false).build();
+        deathChests.put(location, current);
+        if (current.isVirtualContents() && !plugin.getPluginConfig().isLazyChestInventory()) {
+            materializeContents(block);
+        }
+        
+        refreshHologram(location);
+        return true;
+    }
+
+    /**
+     * Read the block a chest is about to replace
+     * @return the palette's copy of its state, or null if there is nothing worth putting back
+     */
+    private String captureReplacedBlock(Block block) {
+        // Liquids would flow back over the dropped items
+        if (block.isEmpty() || block.isLiquid()) {
+            return null;
+        }
+        String state = VersionUtils.getAdapter().getBlockState(block);
+        return state != null ? replacedBlocks.intern(state) : null;
+    }
+    
+    /**
+     * Put back the block a chest replaced, or air if there was none or it cannot be placed
+     */
+    private static void restoreReplacedBlock(Block block, String replaced) {
+        if (replaced == null || !VersionUtils.getAdapter().setBlockState(block, replaced)) {
+            block.setType(Material.AIR);
+        }
+    }
+
+    private void configurePlacement(PluginConfig config) {
+        placement = config.isPlacementEnabled()
+                ? new PlacementResolver(executor, VersionUtils.getAdapter(), config.getPlacementRadius(),
+                        config.getPlacementHeight(), config.getPlacementMaxChecks(), placementLatency)
+                : null;
+        placementFallback = PlacementResolver.parseFallback(config.getPlacementFallback());
+    }
 
     private Location normalizeLocation(Location loc) {
         if (loc == null || loc.getWorld() == null) {
@@ -48,30 +364,101 @@ public class DeathChestManager {
         return new Location(loc.getWorld(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
     }
 
-    public void createDeathChest(Player player, Location location, List<ItemStack> items) {
+    public synchronized void createDeathChest(Player player, Location location, List<ItemStack> items) {
         if (player == null || location == null || plugin.isShuttingDown() || plugin.getPluginConfig() == null) {
             return;
         }
         
         Location normalized = normalizeLocation(location);
         if (normalized == null) {
-            log.warning("Cannot create death chest at invalid location");
+            LogManager.warning("Cannot create death chest at invalid location");
+            return;
+        }
+        
+        PendingChest pending = new PendingChest(player, normalized, items != null ? items : new ArrayList<>());
+        // A death on an existing chest is merged into it rather than moved
+        if (placement != null && !deathChests.containsKey(normalized) && !placement.isSafe(normalized)) {
+            // Searched off the server threads; queued once a spot is known
+            PlacementResolver resolver = placement;
+            resolvingChests.add(pending);
+            resolver.resolve(normalized, spot -> placeResolved(resolver, pending, spot));
+            return;
+        }
+        queueChest(pending);
+    }
+    
+    private void queueChest(PendingChest pending) {
+        if (!creationQueue.offer(pending)) {
+            // Placing now costs tick time, but losing the items would be worse. Deaths are
+            // handled on the thread owning the player, which owns the death location too
+            LogManager.warning("Death chest queue is full, creating chests immediately");
+            materializeChest(pending);
+        }
+    }
+    
+    /**
+     * Queue a death whose spot search has finished. Called on the thread owning the spot,
+     * or the death location if none was found.
+     */
+    private synchronized void placeResolved(PlacementResolver resolver, PendingChest pending, Location spot) {
+        if (!resolvingChests.remove(pending) || plugin.isShuttingDown()) {
+            // Already placed at the death location by a shutdown
+            return;
+        }
+        
+        // The world may have changed since the snapshots were taken
+        if (spot != null && spot.getWorld().isChunkLoaded(spot.getBlockX() >> 4, spot.getBlockZ() >> 4)
+                && resolver.isSafe(spot)) {
+            queueChest(new PendingChest(pending.player, spot, pending.items));
+            return;
+        }
+        
+        placementFallbacks.increment();
+        runAtChest(pending.location, () -> {
+            Location target = resolver.fallback(pending.location, placementFallback);
+            if (target != null) {
+                queueChest(new PendingChest(pending.player, target, pending.items));
+            } else {
+                dropPipeline.drop(pending.location, pending.items.toArray(new ItemStack[0]));
+            }
+        });
+    }
+    
+    /**
+     * Take every death that has no chest yet: queued ones and those waiting for a spot
+     */
+    private List<PendingChest> removeWaitingChests() {
+        List<PendingChest> waiting = creationQueue.removeAll();
+        waiting.addAll(resolvingChests);
+        resolvingChests.clear();
+        return waiting;
+    }
+    
+    private void materializeChest(PendingChest pending) {
+        Player player = pending.player;
+        Location location = pending.location;
+        if (plugin.isShuttingDown()) {
             return;
         }
         
         try {
-            // Create falling chest animation if enabled
-            if (plugin.getPluginConfig().isFallingChestEnabled()) {
-                createFallingChest(normalized, player, items);
+            // Deaths close to an existing chest share it instead of placing another one
+            Location target = findMergeTarget(location);
+            if (target != null) {
+                mergeIntoChest(target, player, pending.items);
+            } else if (plugin.getPluginConfig().isFallingChestEnabled()) {
+                // Create falling chest animation if enabled
+                createFallingChest(location, player, pending.items);
             } else {
-                createStaticChest(normalized, player, items);
+                createStaticChest(location, player, pending.items);
             }
             
+            MessageManager.sendDeathChestMessage(player, target != null ? target : location, pending.items.size());
         } catch (Exception e) {
-            log.warning("Error creating death chest for " + player.getName() + ": " + e.getMessage());
+            LogManager.warning("Error creating death chest",
+                    "Error creating death chest for " + player.getName() + ": " + e.getMessage());
             // Clean up partial state
-            deathChests.remove(normalized);
-            cleanupChestResources(normalized);
+            cleanupChestResources(location);
         }
     }
     
@@ -84,161 +471,436 @@ public class DeathChestManager {
         if (fallingChest != null) {
             fallingChest.setDropItem(false);
             
-            // Monitor when it lands and create the actual chest
-            Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
-                int ticks = 0;
-                
-                @Override
-                public void run() {
-                    ticks++;
-                    
-                    // Safety check - cancel after 10 seconds
-                    if (ticks > 200 || fallingChest.isDead() || !fallingChest.isValid()) {
-                        createStaticChest(location, player, items);
-                        return;
-                    }
-                    
-                    // Check if it landed
-                    if (fallingChest.isOnGround() || Math.abs(fallingChest.getLocation().getY() - location.getY()) < 1) {
-                        fallingChest.remove();
-                        createStaticChest(location, player, items);
-                    }
+            // Create the actual chest once it lands
+            fallingChests.launch(fallingChest, () -> {
+                try {
+                    createStaticChest(location, player, items);
+                } catch (Exception e) {
+                    LogManager.warning("Error creating death chest",
+                            "Error creating death chest for " + player.getName() + ": " + e.getMessage());
+                    cleanupChestResources(location);
                 }
-            }, 1L, 1L);
+            });
         } else {
             // If falling block creation failed, create static chest directly
-            log.warning("Failed to create falling chest, creating static chest instead");
+            LogManager.warning("Failed to create falling chest, creating static chest instead");
             createStaticChest(location, player, items);
         }
     }
     
     private void createStaticChest(Location location, Player player, List<ItemStack> items) {
+        // Another chest may have landed nearby while this one was falling
+        Location target = findMergeTarget(location);
+        if (target != null) {
+            mergeIntoChest(target, player, items);
+            return;
+        }
+        if (deathChests.containsKey(location) && mergeIntoRecord(location, player, items)) {
+            return;
+        }
+        
+        long start = System.nanoTime();
         try {
             Block block = location.getBlock();
+            String replaced = captureReplacedBlock(block);
             block.setType(Material.CHEST);
-            Chest chest = (Chest) block.getState();
             
-            // Add items to chest
-            if (items != null && !items.isEmpty()) {
-                for (ItemStack item : items) {
-                    if (item != null && item.getType() != Material.AIR) {
-                        try {
-                            chest.getInventory().addItem(item);
-                        } catch (Exception e) {
-                            log.warning("Failed to add item to death chest: " + e.getMessage());
-                        }
-                    }
-                }
+            // With lazy inventories the items stay plugin-side until someone opens the chest
+            boolean lazy = plugin.getPluginConfig().isLazyChestInventory();
+            List<ItemStack> contents;
+            List<ItemStack> overflow;
+            if (lazy) {
+                contents = nonEmptyCopy(items);
+                overflow = new ArrayList<>();
+            } else {
+                Chest chest = (Chest) block.getState();
+                overflow = fillInventory(chest.getInventory(), items);
+                contents = copyContents(chest.getInventory());
             }
 
+            int breakTime = plugin.getPluginConfig().getChestBreakTime();
+            
             // Store chest location
-            deathChests.put(location, player.getUniqueId());
-
-            // Create hologram and schedule break
+            DeathChestData data = DeathChestData.builder()
+                    .ownerUuid(player.getUniqueId())
+                    .ownerName(player.getName())
+                    .worldId(location.getWorld().getUID())
+                    .blockKey(BlockKey.of(location))
+                    .items(contents)
+                    .overflow(overflow)
+                    .createdAt(System.currentTimeMillis())
+                    .breakTimeSeconds(breakTime)
+                    .remainingSeconds(breakTime)
+                    .replacedBlock(replaced)
+                    .virtualContents(lazy)
+                    .build();
+            trackChest(location, data, true);
+            
+            // Create hologram
             if (plugin.getPluginConfig().isHologramEnabled()) {
-                int breakTime = plugin.getPluginConfig().getChestBreakTime();
-                
-                // Create hologram after a short delay to ensure chest is fully created
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    if (!plugin.isShuttingDown() && deathChests.containsKey(location)) {
+                // Create hologram on the next tick to ensure chest is fully created
+                timerWheel.schedule(1L, t -> runAtChest(location, () -> {
+                    // If the chunk unloaded meanwhile, the hologram is created when it loads again
+                    if (!plugin.isShuttingDown() && deathChests.containsKey(location)
+                            && occupiedChunks.isLoaded(location) && !chestHolograms.containsKey(location)) {
                         try {
-                            List<ArmorStand> hologram = HologramManager.createHologram(location, player, breakTime);
-                            if (hologram != null && !hologram.isEmpty()) {
-                                chestHolograms.put(location, hologram);
-                            }
+                            createChestHologram(location, player.getName(), breakTime);
                         } catch (Exception e) {
-                            log.warning("Failed to create hologram for death chest: " + e.getMessage());
+                            LogManager.warning("Failed to create hologram for death chest", e);
                         }
                     }
-                }, 1L);
-                
-                scheduleChestBreak(location, breakTime);
+                }));
             }
             
-            log.info("Created death chest for " + player.getName() + " at " + 
+            // Schedule break
+            scheduleChestBreak(location, breakTime);
+            
+            LogManager.count(LogManager.Counter.CHESTS_CREATED);
+            chestsCreated.increment();
+            chestItems.record(contents.size() + overflow.size());
+            createLatency.recordSince(start);
+            LogManager.debug(() -> "Created death chest for " + player.getName() + " at " + 
                      location.getWorld().getName() + " " + location.getBlockX() + 
                      "," + location.getBlockY() + "," + location.getBlockZ());
                      
         } catch (Exception e) {
-            log.warning("Error creating static chest: " + e.getMessage());
+            LogManager.warning("Error creating static chest", e);
             throw e; // Re-throw to trigger cleanup in parent method
         }
     }
 
+    /**
+     * Find the chest a death should be merged into: the closest one within the merge radius
+     * that is loaded, owned by this thread and can take items right now
+     * @return the chest location, or null to place a new chest
+     */
+    private Location findMergeTarget(Location location) {
+        Location target = deathChests.nearest(location, plugin.getPluginConfig().getMergeRadius());
+        if (target == null || !occupiedChunks.isLoaded(target) || !executor.isOwnedByCurrentThread(target)
+                || deferredExpiries.containsKey(target)
+                || unverifiedChests.containsKey(target) || target.getBlock().getType() != Material.CHEST) {
+            return null;
+        }
+        return target;
+    }
+    
+    /**
+     * Add a death's items to an existing chest. Items that do not fit wait in the chest's
+     * overflow. The shared countdown is topped up so the newest death gets the full break
+     * time, but never past {@link #MAX_MERGED_LIFETIME} break times after the chest's first
+     * death, so a spot where players keep dying cannot hold a chest forever.
+     */
+    private void mergeIntoChest(Location target, Player player, List<ItemStack> items) {
+        long start = System.nanoTime();
+        DeathChestData data = deathChests.get(target);
+        List<ItemStack> added = nonEmptyCopy(items);
+        
+        DeathChestData merged;
+        if (data.isVirtualContents()) {
+            List<ItemStack> contents = new ArrayList<>(data.getItems());
+            contents.addAll(added);
+            merged = data.toBuilder().items(contents).build();
+        } else {
+            Chest chest = (Chest) target.getBlock().getState();
+            List<ItemStack> overflow = new ArrayList<>(data.getOverflow());
+            // Earlier overflow moves in first, so only fill the chest directly if nothing is waiting
+            overflow.addAll(overflow.isEmpty() ? fillInventory(chest.getInventory(), added) : added);
+            merged = data.toBuilder().items(copyContents(chest.getInventory())).overflow(overflow).build();
+        }
+        updateChest(target, data, merged);
+        extendCountdown(target, merged);
+        
+        chestsMerged.increment();
+        createLatency.recordSince(start);
+        LogManager.debug(() -> "Merged " + player.getName() + "'s death into the chest at " +
+                 target.getWorld().getName() + " " + target.getBlockX() +
+                 "," + target.getBlockY() + "," + target.getBlockZ());
+    }
+
+    /**
+     * Merge a death into a chest at the same block that could not take it in the world: one
+     * restored but not verified yet, or one that expired while its chunk was unloaded. The
+     * world is left alone; the items join the record and move in like any other overflow,
+     * or drop with the chest if it still expires.
+     * @return false if there turned out to be no chest here, and a new one should be placed
+     */
+    private boolean mergeIntoRecord(Location location, Player player, List<ItemStack> items) {
+        // This thread owns the block, so a restored chest can be checked right away
+        if (unverifiedChests.remove(location) != null && verifyRestoredChest(location)
+                && !deferredExpiries.containsKey(location)) {
+            mergeIntoChest(location, player, items);
+            return true;
+        }
+        DeathChestData data = deathChests.get(location);
+        if (data == null) {
+            return false;
+        }
+        
+        List<ItemStack> added = nonEmptyCopy(items);
+        DeathChestData merged;
+        if (data.isVirtualContents()) {
+            List<ItemStack> contents = new ArrayList<>(data.getItems());
+            contents.addAll(added);
+            merged = data.toBuilder().items(contents).build();
+        } else {
+            List<ItemStack> overflow = new ArrayList<>(data.getOverflow());
+            overflow.addAll(added);
+            merged = data.toBuilder().overflow(overflow).build();
+        }
+        updateChest(location, data, merged);
+        extendCountdown(location, merged);
+        
+        chestsMerged.increment();
+        LogManager.debug(() -> "Merged " + player.getName() + "'s death into the record of the chest at " +
+                 location.getWorld().getName() + " " + location.getBlockX() +
+                 "," + location.getBlockY() + "," + location.getBlockZ());
+        return true;
+    }
+    
+    /**
+     * Top up a chest's countdown to the full break time after a merge, within its maximum lifetime
+     */
+    private void extendCountdown(Location location, DeathChestData data) {
+        int breakTime = plugin.getPluginConfig().getChestBreakTime();
+        int remaining = getRemainingSeconds(location, data);
+        long lifetimeLeft = (data.getCreatedAt() - System.currentTimeMillis()) / 1000L + (long) MAX_MERGED_LIFETIME * breakTime;
+        int extended = (int) Math.max(remaining, Math.min(breakTime, lifetimeLeft));
+        if (extended <= remaining) {
+            return;
+        }
+        
+        deferredExpiries.remove(location);
+        scheduleChestBreak(location, extended);
+        Hologram hologram = chestHolograms.get(location);
+        if (hologram != null) {
+            HologramManager.updateTimer(hologram, extended);
+        }
+    }
+
     private void scheduleChestBreak(Location location, int breakTime) {
+        scheduleChestBreak(location, breakTime, plugin.getPluginConfig());
+    }
+    
+    private void scheduleChestBreak(Location location, int breakTime, PluginConfig config) {
         if (location == null || breakTime <= 0 || plugin.isShuttingDown()) {
             return;
         }
         
-        List<Integer> taskIds = new CopyOnWriteArrayList<>();
-        
         try {
-            // Update timer every second if holograms are enabled
-            if (plugin.getPluginConfig().isHologramEnabled()) {
-                for (int i = breakTime - 1; i > 0; i--) {
-                    final int seconds = i;
-                    int taskId = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                        if (!plugin.isShuttingDown() && deathChests.containsKey(location)) {
-                            try {
-                                List<ArmorStand> hologram = chestHolograms.get(location);
-                                if (hologram != null && !hologram.isEmpty()) {
-                                    HologramManager.updateTimer(hologram, seconds);
-                                }
-                            } catch (Exception e) {
-                                log.warning("Error updating hologram timer: " + e.getMessage());
-                            }
-                        }
-                    }, (breakTime - i) * 20L).getTaskId();
-                    taskIds.add(taskId);
+            // With holograms the countdown fires whenever the displayed value changes;
+            // without them a single deadline is enough
+            ChestCountdown countdown = new ChestCountdown(location, breakTime, config);
+            TimingWheel.Timeout timeout = timerWheel.schedule(countdown.nextStep() * TICKS_PER_SECOND, countdown);
+            
+            TimingWheel.Timeout previous = breakTasks.put(location, timeout);
+            if (previous != null) {
+                previous.cancel();
+            }
+            
+            DeathChestData data = deathChests.get(location);
+            if (journal != null && data != null) {
+                journal.recordTimer(data.getWorldId(), data.getBlockKey(), breakTime);
+            }
+        } catch (Exception e) {
+            LogManager.warning("Error scheduling chest break", e);
+        }
+    }
+    
+    private void expireChest(Location location, TimingWheel.Timeout timeout) {
+        breakTasks.remove(location, timeout);
+        if (plugin.isShuttingDown() || !deathChests.containsKey(location)) {
+            return;
+        }
+        
+        if (occupiedChunks.isLoaded(location)) {
+            runAtChest(location, () -> breakChest(location));
+        } else {
+            // Breaking would load the chunk from disk; wait until something else loads it
+            deferredExpiries.put(location, Boolean.TRUE);
+        }
+    }
+    
+    /**
+     * Move live chests over to a reloaded configuration. Countdowns are rescheduled with
+     * the remaining time scaled to the new break time. If the hologram layout changed,
+     * holograms are removed and rebuilt a few per tick.
+     * @param previous the configuration the chests were created with
+     * @param config the configuration now in use
+     */
+    public synchronized void applyConfig(PluginConfig previous, PluginConfig config) {
+        // Searches already running finish with the settings they started with
+        configurePlacement(config);
+        
+        int oldBreakTime = previous.getChestBreakTime();
+        int newBreakTime = config.getChestBreakTime();
+        for (Location location : breakTasks.locations()) {
+            TimingWheel.Timeout timeout = breakTasks.get(location);
+            int remaining = ((ChestCountdown) timeout.getTask()).getRemainingSeconds(timeout);
+            if (oldBreakTime != newBreakTime) {
+                remaining = (int) Math.max(1L, ((long) remaining * newBreakTime + oldBreakTime - 1) / oldBreakTime);
+            }
+            // Also picks up changes to holograms and the adaptive countdown
+            scheduleChestBreak(location, remaining, config);
+            Hologram hologram = chestHolograms.get(location);
+            if (hologram != null && hologram.hasViewers() && occupiedChunks.isLoaded(location)) {
+                updateHologramTimer(location, hologram, remaining, config);
+            }
+        }
+        
+        if (previous.hasSameHologramLayout(config)) {
+            return;
+        }
+        chestHolograms.forEach((world, key, hologram) -> HologramManager.removeHologram(hologram));
+        chestHolograms.clear();
+        HologramManager.cleanup();
+        HologramManager.initialize(plugin, config);
+        if (!config.isHologramEnabled()) {
+            return;
+        }
+        
+        int index = 0;
+        for (Location location : deathChests.locations()) {
+            if (!occupiedChunks.isLoaded(location)) {
+                // Created when the chunk loads
+                continue;
+            }
+            timerWheel.schedule(1L + index++ / HOLOGRAM_REBUILDS_PER_TICK, t -> runAtChest(location, () -> {
+                if (!plugin.isShuttingDown() && deathChests.containsKey(location) && occupiedChunks.isLoaded(location)
+                        && !unverifiedChests.containsKey(location)) {
+                    try {
+                        refreshHologram(location);
+                    } catch (Exception e) {
+                        LogManager.warning("Failed to rebuild hologram for death chest", e);
+                    }
                 }
+            }));
+        }
+    }
+    
+    /**
+     * Called when a chunk loads; resumes work for death chests in it on the next tick
+     * @param chunk the loaded chunk
+     */
+    public synchronized void handleChunkLoad(Chunk chunk) {
+        World world = chunk.getWorld();
+        int chunkX = chunk.getX();
+        int chunkZ = chunk.getZ();
+        if (occupiedChunks.setLoaded(world, chunkX, chunkZ, true)) {
+            // Blocks should not be changed from inside the load event itself
+            Location corner = new Location(world, chunkX << 4, 0, chunkZ << 4);
+            timerWheel.schedule(1L, t -> runAtChest(corner, () -> resumeChunk(world, chunkX, chunkZ)));
+        }
+    }
+    
+    /**
+     * Called when a chunk unloads; work for death chests in it is deferred until it loads again
+     * @param chunk the unloading chunk
+     */
+    public synchronized void handleChunkUnload(Chunk chunk) {
+        occupiedChunks.setLoaded(chunk.getWorld(), chunk.getX(), chunk.getZ(), false);
+    }
+    
+    private void resumeChunk(World world, int chunkX, int chunkZ) {
+        if (plugin.isShuttingDown() || !occupiedChunks.isLoaded(world, chunkX, chunkZ)) {
+            return;
+        }
+        
+        List<Location> chests = new ArrayList<>();
+        deathChests.forEach((chestWorld, key, data) -> {
+            if (chestWorld == world && BlockKey.getX(key) >> 4 == chunkX && BlockKey.getZ(key) >> 4 == chunkZ) {
+                chests.add(BlockKey.toLocation(world, key));
             }
-
-            // Schedule the final break task
-            int finalTaskId = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (!plugin.isShuttingDown() && deathChests.containsKey(location)) {
+        });
+        
+        for (Location location : chests) {
+            try {
+                if (unverifiedChests.remove(location) != null && !verifyRestoredChest(location)) {
+                    continue;
+                }
+                if (deferredExpiries.remove(location) != null) {
                     breakChest(location);
+                } else {
+                    refreshHologram(location);
                 }
-            }, breakTime * 20L).getTaskId();
-            taskIds.add(finalTaskId);
-            
-            breakTasks.put(location, taskIds);
-        } catch (Exception e) {
-            log.warning("Error scheduling chest break: " + e.getMessage());
-            // Clean up any tasks that were created
-            for (Integer taskId : taskIds) {
-                try {
-                    Bukkit.getScheduler().cancelTask(taskId);
-                } catch (Exception ignored) {}
+            } catch (Exception e) {
+                LogManager.warning("Error resuming death chest",
+                        "Error resuming death chest at " + location + ": " + e.getMessage());
             }
         }
     }
-
-    public void cancelBreakTask(Location location) {
-        Location normalized = normalizeLocation(location);
-        if (normalized == null) {
+    
+    /**
+     * Make sure a chest in a loaded chunk has a working hologram. ArmorStand holograms are
+     * unloaded with their chunk and come back as different entities, so they are replaced.
+     */
+    private void refreshHologram(Location location) {
+        if (!plugin.getPluginConfig().isHologramEnabled()) {
             return;
         }
         
-        List<Integer> taskIds = breakTasks.remove(normalized);
-        if (taskIds != null) {
-            for (Integer taskId : taskIds) {
-                try {
-                    if (taskId != null) {
-                        Bukkit.getScheduler().cancelTask(taskId);
-                    }
-                } catch (Exception e) {
-                    log.warning("Error cancelling break task: " + e.getMessage());
+        Hologram hologram = chestHolograms.get(location);
+        if (hologram != null && hologram.isValid()) {
+            return;
+        }
+        if (hologram != null) {
+            chestHolograms.remove(location);
+            HologramManager.removeHologram(hologram);
+            HologramManager.untrackHologram(location);
+        }
+        
+        DeathChestData data = deathChests.get(location);
+        HologramManager.removeOrphanedHolograms(location);
+        createChestHologram(location, data.getOwnerName(), getRemainingSeconds(location, data));
+    }
+    
+    /**
+     * Create and track the hologram of a chest. The countdown leaves it alone while nobody
+     * is in range, so it is brought up to date whenever it gains a viewer.
+     */
+    private void createChestHologram(Location location, String ownerName, int seconds) {
+        Hologram hologram = HologramManager.createHologram(location, ownerName, seconds);
+        if (hologram == null) {
+            return;
+        }
+        chestHolograms.put(location, hologram);
+        hologram.setFirstViewerTask(() -> runAtChest(location, () -> {
+            synchronized (this) {
+                DeathChestData data = deathChests.get(location);
+                if (data != null && chestHolograms.get(location) == hologram) {
+                    HologramManager.updateTimer(hologram, getRemainingSeconds(location, data));
                 }
             }
+        }));
+    }
+    
+    private int getRemainingSeconds(Location location, DeathChestData data) {
+        TimingWheel.Timeout timeout = breakTasks.get(location);
+        if (timeout != null) {
+            return ((ChestCountdown) timeout.getTask()).getRemainingSeconds(timeout);
         }
+        return deferredExpiries.containsKey(location) ? 0 : data.getRemainingSeconds();
     }
 
-    public void breakChest(Location location) {
-        Location normalized = normalizeLocation(location);
-        if (normalized == null || !deathChests.containsKey(normalized)) {
+    public synchronized void cancelBreakTask(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return;
+        }
+        
+        TimingWheel.Timeout timeout = breakTasks.remove(location);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public synchronized void breakChest(Location location) {
+        DeathChestData data = location != null && location.getWorld() != null ? deathChests.get(location) : null;
+        if (data == null) {
             return;
         }
         
+        Location normalized = normalizeLocation(location);
+        long start = System.nanoTime();
+        
         try {
             Block block = normalized.getBlock();
             if (block.getType() != Material.CHEST) {
@@ -247,11 +909,19 @@ public class DeathChestManager {
                 return;
             }
             
-            Chest chest = (Chest) block.getState();
+            // 1. Get and clear items; unopened lazy chests drop straight from the record
+            ItemStack[] items;
+            if (data.isVirtualContents()) {
+                items = data.getItems().toArray(new ItemStack[0]);
+            } else {
+                Chest chest = (Chest) block.getState();
+                items = chest.getInventory().getContents();
+                chest.getInventory().clear();
+            }
             
-            // 1. Get and clear items
-            ItemStack[] items = chest.getInventory().getContents();
-            chest.getInventory().clear();
+            if (!data.getOverflow().isEmpty()) {
+                items = withOverflow(items, data.getOverflow());
+            }
             
             // 2. Clean up resources
             cleanupChestResources(normalized);
@@ -259,35 +929,29 @@ public class DeathChestManager {
             // 3. Break chest with effect
             try {
                 block.getWorld().playEffect(block.getLocation(), Effect.SMOKE, 0);
-                block.setType(Material.AIR);
+                restoreReplacedBlock(block, data.getReplacedBlock());
             } catch (Exception e) {
-                log.warning("Error creating break effect: " + e.getMessage());
+                LogManager.warning("Error creating break effect", e);
                 // Still try to break the chest
-                block.setType(Material.AIR);
+                restoreReplacedBlock(block, data.getReplacedBlock());
             }
             
-            // 4. Drop items
-            for (ItemStack item : items) {
-                if (item != null && item.getType() != Material.AIR) {
-                    try {
-                        Item droppedItem = normalized.getWorld().dropItemNaturally(normalized, item);
-                        droppedItem.setVelocity(droppedItem.getVelocity().multiply(0.5));
-                    } catch (Exception e) {
-                        log.warning("Error dropping item from death chest: " + e.getMessage());
-                    }
-                }
-            }
+            // 4. Drop items, merged and paced across ticks
+            dropPipeline.drop(normalized, items);
             
             // 5. Play sound and send message
             playBreakSound(normalized);
-            MessageManager.sendBreakMessage();
+            MessageManager.sendBreakMessage(data.getOwnerUuid(), data.getOwnerName(), normalized);
             
-            log.info("Death chest broken at " + normalized.getWorld().getName() + 
+            LogManager.count(LogManager.Counter.CHESTS_BROKEN);
+            chestsBroken.increment();
+            breakLatency.recordSince(start);
+            LogManager.debug(() -> "Death chest broken at " + normalized.getWorld().getName() + 
                      " " + normalized.getBlockX() + "," + normalized.getBlockY() + 
                      "," + normalized.getBlockZ());
                      
         } catch (Exception e) {
-            log.warning("Error breaking death chest: " + e.getMessage());
+            LogManager.warning("Error breaking death chest", e);
             // Ensure cleanup happens even if breaking fails
             cleanupChestResources(normalized);
         }
@@ -301,19 +965,21 @@ public class DeathChestManager {
         try {
             // Cancel any break tasks
             cancelBreakTask(location);
+            deferredExpiries.remove(location);
+            unverifiedChests.remove(location);
             
             // Remove and clean up hologram
-            List<ArmorStand> hologram = chestHolograms.remove(location);
+            Hologram hologram = chestHolograms.remove(location);
             if (hologram != null) {
                 HologramManager.removeHologram(hologram);
                 HologramManager.untrackHologram(location);
             }
             
             // Remove from tracking
-            deathChests.remove(location);
+            untrackChest(location);
             
         } catch (Exception e) {
-            log.warning("Error during chest resource cleanup: " + e.getMessage());
+            LogManager.warning("Error during chest resource cleanup", e);
         }
     }
 
@@ -329,19 +995,73 @@ public class DeathChestManager {
                 location.getWorld().playSound(location, sound, 1.0f, 1.0f);
             }
         } catch (Exception e) {
-            log.warning("Error playing break sound: " + e.getMessage());
+            LogManager.warning("Error playing break sound", e);
         }
     }
 
-    public void cleanup() {
+    /**
+     * Persist every live chest and release runtime resources without breaking anything.
+     * Used on shutdown when persistence is enabled; chests are restored on the next start.
+     */
+    public synchronized void saveAndRelease() {
         try {
+            // Chests still falling or waiting for a spot are placed now so they are saved with the rest
+            fallingChests.landAll();
+            for (PendingChest pending : removeWaitingChests()) {
+                try {
+                    createStaticChest(pending.location, pending.player, pending.items);
+                } catch (Exception e) {
+                    log.warning("Failed to place queued death chest for " + pending.player.getName() + ": " + e.getMessage());
+                }
+            }
+            
+            dropPipeline.flush();
+            
+            log.info("Saving " + deathChests.size() + " death chests...");
+            
+            writeSnapshot();
+            journal.close();
+            
+            chestHolograms.forEach((world, key, hologram) -> HologramManager.removeHologram(hologram));
+            stopTimer();
+            deathChests.clear();
+            chestHolograms.clear();
+            breakTasks.clear();
+            occupiedChunks.clear();
+            updateBlockListener();
+            
+            log.info("Death chests saved.");
+        } catch (Exception e) {
+            log.severe("Error saving death chests: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized void cleanup() {
+        try {
+            fallingChests.landAll();
+            
+            // Chests are broken on shutdown anyway, so waiting deaths just drop their items
+            for (PendingChest pending : removeWaitingChests()) {
+                dropPipeline.drop(pending.location, pending.items.toArray(new ItemStack[0]));
+            }
+            
             log.info("Cleaning up " + deathChests.size() + " death chests...");
             
             // Create a copy of locations to avoid concurrent modification
-            List<Location> locations = new ArrayList<>(deathChests.keySet());
+            List<Location> locations = deathChests.locations();
             
             for (Location loc : locations) {
                 try {
+                    DeathChestData data = deathChests.get(loc);
+                    if (!occupiedChunks.isLoaded(loc) && !data.isVirtualContents() && data.getOverflow().isEmpty()
+                            && !unverifiedChests.containsKey(loc)) {
+                        // The items are safe in the chest block; leave it as a plain chest rather
+                        // than loading the chunk. Chests whose items only exist in memory are still broken.
+                        cleanupChestResources(loc);
+                        continue;
+                    }
+                    
                     Block block = loc.getBlock();
                     if (block.getType() == Material.CHEST) {
                         breakChest(loc);
@@ -356,10 +1076,20 @@ public class DeathChestManager {
                 }
             }
             
+            // Nothing may be left waiting for a tick that will never come
+            dropPipeline.flush();
+            
             // Force clear all collections
+            stopTimer();
             deathChests.clear();
             chestHolograms.clear();
             breakTasks.clear();
+            occupiedChunks.clear();
+            updateBlockListener();
+            
+            if (journal != null) {
+                journal.close();
+            }
             
             log.info("Death chest cleanup completed.");
             
@@ -369,20 +1099,229 @@ public class DeathChestManager {
             
             // Force clear collections as last resort
             try {
+                stopTimer();
                 deathChests.clear();
                 chestHolograms.clear();
                 breakTasks.clear();
+                occupiedChunks.clear();
+                updateBlockListener();
             } catch (Exception ignored) {}
         }
     }
 
-    public boolean isDeathChest(Location location) {
-        Location normalized = normalizeLocation(location);
-        return normalized != null && deathChests.containsKey(normalized);
+    private void trackChest(Location location, DeathChestData data, boolean journaled) {
+        if (deathChests.put(location, data) == null) {
+            occupiedChunks.add(location);
+        }
+        if (journaled && journal != null) {
+            journal.recordCreate(data);
+        }
+        updateBlockListener();
+    }
+    
+    private void untrackChest(Location location) {
+        DeathChestData removed = deathChests.remove(location);
+        if (removed != null) {
+            occupiedChunks.remove(location);
+            if (journal != null) {
+                journal.recordBreak(removed.getWorldId(), removed.getBlockKey());
+            }
+        }
+        updateBlockListener();
+    }
+    
+    /**
+     * Record the current contents of a death chest, e.g. after a player took items out.
+     * Overflow items move into the space that was freed, a page at a time.
+     * @param location the chest location
+     * @param inventory the chest inventory
+     */
+    public synchronized void updateContents(Location location, Inventory inventory) {
+        DeathChestData data = deathChests.get(location);
+        if (data == null) {
+            return;
+        }
+        
+        List<ItemStack> overflow = data.getOverflow();
+        if (!overflow.isEmpty() && inventory.firstEmpty() >= 0) {
+            overflow = fillInventory(inventory, overflow);
+        }
+        updateChest(location, data, data.toBuilder().items(copyContents(inventory)).overflow(overflow).build());
+    }
+    
+    /**
+     * Replace a chest's record and journal what changed
+     */
+    private void updateChest(Location location, DeathChestData previous, DeathChestData updated) {
+        deathChests.put(location, updated);
+        if (journal != null) {
+            journal.recordContents(updated.getWorldId(), updated.getBlockKey(), updated.getItems());
+            if (updated.getOverflow() != previous.getOverflow()) {
+                journal.recordOverflow(updated.getWorldId(), updated.getBlockKey(), updated.getOverflow());
+            }
+        }
     }
     
     /**
-     * Get the number of active death chests
+     * Move plugin-side contents into the real chest inventory, the first time a player opens it
+     * @param block the chest block
+     */
+    public synchronized void materializeContents(Block block) {
+        DeathChestData data = deathChests.get(block);
+        if (data == null || !data.isVirtualContents() || block.getType() != Material.CHEST) {
+            return;
+        }
+        
+        try {
+            Chest chest = (Chest) block.getState();
+            List<ItemStack> overflow = fillInventory(chest.getInventory(), data.getItems());
+            if (overflow.isEmpty() && data.getOverflow().isEmpty()) {
+                // Everything fit: the record already matches the chest
+                deathChests.put(block.getLocation(), data.toBuilder().virtualContents(false).build());
+                return;
+            }
+            overflow.addAll(data.getOverflow());
+            updateChest(block.getLocation(), data, data.toBuilder()
+                    .items(copyContents(chest.getInventory()))
+                    .overflow(overflow)
+                    .virtualContents(false)
+                    .build());
+        } catch (Exception e) {
+            LogManager.warning("Error filling death chest inventory", e);
+        }
+    }
+    
+    /**
+     * Add items to an inventory. The given stacks are never modified, as the journal thread
+     * may still be encoding them.
+     * @return the items that did not fit
+     */
+    private static List<ItemStack> fillInventory(Inventory inventory, List<ItemStack> items) {
+        List<ItemStack> leftover = new ArrayList<>();
+        if (items == null) {
+            return leftover;
+        }
+        for (ItemStack item : items) {
+            if (item != null && item.getType() != Material.AIR) {
+                try {
+                    leftover.addAll(inventory.addItem(item.clone()).values());
+                } catch (Exception e) {
+                    LogManager.warning("Failed to add item to death chest", e);
+                }
+            }
+        }
+        return leftover;
+    }
+    
+    private static ItemStack[] withOverflow(ItemStack[] items, List<ItemStack> overflow) {
+        ItemStack[] all = new ItemStack[items.length + overflow.size()];
+        System.arraycopy(items, 0, all, 0, items.length);
+        for (int i = 0; i < overflow.size(); i++) {
+            all[items.length + i] = overflow.get(i).clone();
+        }
+        return all;
+    }
+    
+    private static List<ItemStack> nonEmptyCopy(List<ItemStack> items) {
+        List<ItemStack> copy = new ArrayList<>();
+        if (items != null) {
+            for (ItemStack item : items) {
+                if (item != null && item.getType() != Material.AIR) {
+                    copy.add(item.clone());
+                }
+            }
+        }
+        return copy;
+    }
+    
+    private static List<ItemStack> copyContents(Inventory inventory) {
+        List<ItemStack> items = new ArrayList<>();
+        for (ItemStack item : inventory.getContents()) {
+            if (item != null && item.getType() != Material.AIR) {
+                // Inventory contents can be live mirrors; the journal thread needs a stable copy
+                items.add(item.clone());
+            }
+        }
+        return items;
+    }
+    
+    private void scheduleSnapshots() {
+        long interval = plugin.getPluginConfig().getPersistenceSnapshotInterval() * TICKS_PER_SECOND;
+        timerWheel.schedule(interval, timeout -> {
+            writeSnapshot();
+            timeout.reschedule(interval);
+        });
+    }
+    
+    private void writeSnapshot() {
+        if (journal == null || !restored) {
+            return;
+        }
+        
+        List<DeathChestData> chests = new ArrayList<>(deathChests.size() + unresolvedChests.size());
+        deathChests.forEach((world, key, data) -> {
+            int remaining = getRemainingSeconds(BlockKey.toLocation(world, key), data);
+            chests.add(data.toBuilder().remainingSeconds(remaining).build());
+        });
+        chests.addAll(unresolvedChests);
+        journal.writeSnapshot(chests);
+    }
+    
+    private void updateBlockListener() {
+        boolean needed = !deathChests.isEmpty();
+        if (needed == blockListenerRegistered) {
+            return;
+        }
+        
+        if (needed) {
+            plugin.getServer().getPluginManager().registerEvents(blockListener, plugin);
+            plugin.getServer().getPluginManager().registerEvents(chunkListener, plugin);
+        } else {
+            HandlerList.unregisterAll(blockListener);
+            HandlerList.unregisterAll(chunkListener);
+        }
+        blockListenerRegistered = needed;
+    }
+
+    private void stopTimer() {
+        if (timerTask != null) {
+            timerTask.cancel();
+            timerTask = null;
+        }
+        timerWheel.clear();
+    }
+
+    public synchronized boolean isDeathChest(Location location) {
+        return location != null && location.getWorld() != null && deathChests.containsKey(location);
+    }
+    
+    /**
+     * Check whether a block is a tracked death chest without allocating
+     * @param block the block to check
+     * @return true if the block is a death chest
+     */
+    public boolean isDeathChest(Block block) {
+        if (block == null || !occupiedChunks.isOccupied(block)) {
+            return false;
+        }
+        synchronized (this) {
+            return deathChests.containsKey(block);
+        }
+    }
+    
+    /**
+     * Check whether the block's chunk contains any death chest. Does not take the
+     * manager lock, so block events on any region thread can call it cheaply.
+     * @param block the block to check
+     * @return true if a death chest exists in the same chunk
+     */
+    public boolean isChunkOccupied(Block block) {
+        return occupiedChunks.isOccupied(block);
+    }
+    
+    /**
+     * Get the number of active death chests. Like the other counts below, this needs no lock
+     * and may be called from any thread, e.g. the metrics endpoint.
      * @return number of active death chests
      */
     public int getActiveChestCount() {
@@ -394,8 +1333,122 @@ public class DeathChestManager {
      * @param location the location of the chest
      * @return the UUID of the owner, or null if not a death chest
      */
-    public UUID getChestOwner(Location location) {
-        Location normalized = normalizeLocation(location);
-        return normalized != null ? deathChests.get(normalized) : null;
+    public synchronized UUID getChestOwner(Location location) {
+        DeathChestData data = location != null && location.getWorld() != null ? deathChests.get(location) : null;
+        return data != null ? data.getOwnerUuid() : null;
+    }
+    
+    /**
+     * Get the number of deaths waiting for their chest to be placed
+     * @return creation queue depth
+     */
+    public int getQueuedChestCount() {
+        return creationQueue.getDepth();
+    }
+    
+    /**
+     * Get how long deaths wait in the creation queue
+     * @return moving average wait in milliseconds
+     */
+    public double getAverageQueueWaitMillis() {
+        return creationQueue.getAverageWaitMillis();
+    }
+    
+    /**
+     * Get the longest time a death waited in the creation queue
+     * @return maximum wait in milliseconds
+     */
+    public long getMaxQueueWaitMillis() {
+        return creationQueue.getMaxWaitMillis();
+    }
+    
+    /**
+     * Get the number of falling chests that have not landed yet
+     * @return in-flight falling chest count
+     */
+    public int getFallingChestCount() {
+        return fallingChests.getInFlightCount();
+    }
+    
+    /**
+     * Get the number of pending chest timers
+     * @return number of countdowns waiting in the timer wheel
+     */
+    public int getPendingTimerCount() {
+        return timerWheel.getPendingCount();
+    }
+    
+    /**
+     * Per-chest countdown that re-arms itself each time the displayed value changes
+     * (every second, or in coarser steps with the adaptive countdown) until the chest breaks
+     */
+    private final class ChestCountdown implements TimingWheel.Task {
+        private final Location location;
+        // Settings the countdown was started with; a reload starts a new one
+        private final PluginConfig config;
+        private final boolean showCountdown;
+        private int secondsLeft;
+        private int step;
+        
+        private ChestCountdown(Location location, int breakTime, PluginConfig config) {
+            this.location = location;
+            this.config = config;
+            this.showCountdown = config.isHologramEnabled();
+            this.secondsLeft = breakTime;
+        }
+        
+        private int nextStep() {
+            step = showCountdown
+                    ? Math.min(secondsLeft, config.getSecondsUntilNextUpdate(secondsLeft))
+                    : secondsLeft;
+            return step;
+        }
+        
+        private int getRemainingSeconds(TimingWheel.Timeout timeout) {
+            long ticks = (secondsLeft - step) * TICKS_PER_SECOND + timeout.getRemainingTicks();
+            return (int) Math.max(1L, (ticks + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND);
+        }
+        
+        @Override
+        public void run(TimingWheel.Timeout timeout) {
+            secondsLeft -= step;
+            if (secondsLeft <= 0) {
+                expireChest(location, timeout);
+                return;
+            }
+            
+            if (plugin.isShuttingDown() || !deathChests.containsKey(location)) {
+                breakTasks.remove(location, timeout);
+                return;
+            }
+            
+            try {
+                // Holograms nobody can see are refreshed when they gain a viewer, and those in
+                // unloaded chunks when the chunk loads again
+                Hologram hologram = chestHolograms.get(location);
+                if (hologram != null && hologram.hasViewers() && occupiedChunks.isLoaded(location)) {
+                    updateHologramTimer(location, hologram, secondsLeft, config);
+                }
+            } catch (Exception e) {
+                LogManager.warning("Error updating hologram timer", e);
+            }
+            
+            timeout.reschedule(nextStep() * TICKS_PER_SECOND);
+        }
+    }
+    
+    /**
+     * A death waiting in the creation queue; holds the dropped items until the chest is placed
+     */
+    private static final class PendingChest {
+        private final Player player;
+        private final Location location;
+        private final List<ItemStack> items;
+        
+        private PendingChest(Player player, Location location, List<ItemStack> items) {
+            this.player = player;
+            this.location = location;
+            this.items = items;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -1,189 +1,248 @@
 package dev.antry.antrydeathloot.managers;
 
 import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.config.PluginConfig;
+import dev.antry.antrydeathloot.data.BlockIndex;
+import dev.antry.antrydeathloot.hologram.ArmorStandHologramBackend;
+import dev.antry.antrydeathloot.hologram.CountdownTextCache;
+import dev.antry.antrydeathloot.hologram.Hologram;
+import dev.antry.antrydeathloot.hologram.HologramBackend;
+import dev.antry.antrydeathloot.hologram.PacketHologramBackend;
+import dev.antry.antrydeathloot.hologram.ProtocolLibPacketSink;
+import dev.antry.antrydeathloot.metrics.Histogram;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import dev.antry.antrydeathloot.text.MessageTemplate;
+import dev.antry.antrydeathloot.text.Placeholder;
+import dev.antry.antrydeathloot.text.TemplateValues;
+import dev.antry.antrydeathloot.utils.Capability;
 import dev.antry.antrydeathloot.utils.VersionUtils;
 import lombok.extern.java.Log;
-import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.Player;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+/**
+ * Creates and updates the hologram above each death chest.
+ * <p>
+ * Called from whichever thread owns the chest (a region thread on Folia), so the
+ * tracking state is guarded by the class lock. Creating and updating a hologram must
+ * happen on the thread owning its location.
+ */
 @Log
 public class HologramManager {
+    private static final long VIEWER_UPDATE_INTERVAL = 10L;
+
     private static AntryDeathLoot plugin;
-    private static final Map<Location, List<ArmorStand>> activeHolograms = new ConcurrentHashMap<>();
+    private static HologramBackend backend;
+    private static TaskExecutor.Task backendTask;
+    private static final BlockIndex<Hologram> activeHolograms = new BlockIndex<>();
+    private static final CountdownTextCache countdownText = new CountdownTextCache();
+    private static Histogram updateLatency;
+    private static MessageTemplate firstLineTemplate;
 
     public static void initialize(AntryDeathLoot main) {
+        initialize(main, main.getPluginConfig());
+    }
+
+    /**
+     * @param config the settings to build holograms with, which need not be the plugin's current ones yet
+     */
+    public static synchronized void initialize(AntryDeathLoot main, PluginConfig config) {
         plugin = main;
-        log.info("HologramManager initialized");
+        backend = selectBackend(main, config);
+        firstLineTemplate = MessageTemplate.compile(config.getHologramFirstLine());
+
+        if (backend instanceof Listener) {
+            main.getServer().getPluginManager().registerEvents((Listener) backend, main);
+        }
+        backendTask = main.getTaskExecutor().runGlobalTimer(backend::tick, VIEWER_UPDATE_INTERVAL, VIEWER_UPDATE_INTERVAL);
+
+        updateLatency = main.getMetrics().timer("deathloot_hologram_update_seconds", "Time to update a hologram countdown");
+        main.getMetrics().gauge("deathloot_holograms_active", "Holograms currently tracked", activeHolograms::size);
+
+        log.info("HologramManager initialized using " + backend.getName() + " holograms");
+    }
+
+    private static HologramBackend selectBackend(AntryDeathLoot main, PluginConfig config) {
+        String configured = config.getHologramBackend();
+        double viewDistance = config.getHologramViewDistance();
+        if (!"armorstand".equalsIgnoreCase(configured)) {
+            boolean protocolLib = main.getServer().getPluginManager().isPluginEnabled("ProtocolLib");
+            if (protocolLib && ProtocolLibPacketSink.isSupported()) {
+                return new PacketHologramBackend(new ProtocolLibPacketSink(), viewDistance);
+            }
+            if ("packet".equalsIgnoreCase(configured)) {
+                log.warning("Packet holograms are not supported on this server, falling back to ArmorStands");
+            }
+        }
+        return new ArmorStandHologramBackend(main.getTaskExecutor(), viewDistance);
     }
 
-    public static List<ArmorStand> createHologram(Location location, Player player, int seconds) {
-        List<ArmorStand> hologramLines = new ArrayList<>();
-        
-        if (plugin == null || plugin.getPluginConfig() == null || !plugin.getPluginConfig().isHologramEnabled()) {
-            return hologramLines;
+    public static synchronized Hologram createHologram(Location location, String ownerName, int seconds) {
+        if (plugin == null || backend == null || plugin.getPluginConfig() == null || !plugin.getPluginConfig().isHologramEnabled()) {
+            return null;
         }
-        
+
         // Check if ArmorStands are supported (not available in 1.7.10)
-        if (!VersionUtils.supportsFeature("armor_stands")) {
+        if (!VersionUtils.supports(Capability.ARMOR_STANDS)) {
             log.info("Holograms are not supported in Minecraft 1.7.10 - ArmorStands were added in 1.8");
-            return hologramLines;
+            return null;
         }
-        
+
         try {
             double height = plugin.getPluginConfig().getHologramHeight();
             double lineSpacing = plugin.getPluginConfig().getHologramLineSpacing();
-            
+
             Location holoLoc = location.getBlock().getLocation().add(0.5, height, 0.5);
             holoLoc.setYaw(0);
             holoLoc.setPitch(0);
-            
-            String firstLine = plugin.getPluginConfig().getHologramFirstLine()
-                                   .replace("%player%", player.getName());
-            firstLine = ChatColor.translateAlternateColorCodes('&', firstLine);
-            ArmorStand firstStand = spawnHologramLine(holoLoc.clone(), firstLine);
-            if (firstStand != null) {
-                hologramLines.add(firstStand);
-            }
-            
-            String secondLine = plugin.getPluginConfig().getHologramSecondLine()
-                                    .replace("%seconds%", String.valueOf(seconds));
-            secondLine = ChatColor.translateAlternateColorCodes('&', secondLine);
-            ArmorStand secondStand = spawnHologramLine(holoLoc.clone().subtract(0, lineSpacing, 0), secondLine);
-            if (secondStand != null) {
-                hologramLines.add(secondStand);
-            }
-            
+
+            String firstLine = firstLineTemplate.render(new TemplateValues()
+                    .set(Placeholder.PLAYER, ownerName)
+                    .location(location));
+
+            int displayed = plugin.getPluginConfig().getDisplayedSeconds(seconds);
+            String secondLine = countdownText.get(plugin.getPluginConfig(), displayed);
+
+            Hologram hologram = backend.create(holoLoc, Arrays.asList(firstLine, secondLine), lineSpacing);
+
             // Track the hologram for cleanup
-            if (!hologramLines.isEmpty()) {
-                activeHolograms.put(normalizeLocation(location), new ArrayList<>(hologramLines));
-                log.fine("Created hologram with " + hologramLines.size() + " lines for " + player.getName());
+            if (hologram != null) {
+                activeHolograms.put(location, hologram);
+                LogManager.debug(() -> "Created hologram with " + hologram.getLineCount() + " lines for " + ownerName);
             }
-            
+            return hologram;
+
         } catch (Exception e) {
-            log.warning("Error creating hologram: " + e.getMessage());
-            // Clean up any partially created holograms
-            removeHologram(hologramLines);
-            hologramLines.clear();
+            LogManager.warning("Error creating hologram", e);
+            return null;
         }
-        
-        return hologramLines;
     }
 
-    private static ArmorStand spawnHologramLine(Location location, String text) {
+    public static synchronized void removeHologram(Hologram hologram) {
+        if (hologram == null) {
+            return;
+        }
+
         try {
-            if (location.getWorld() == null) {
-                log.warning("Cannot spawn hologram in null world");
-                return null;
-            }
-            
-            ArmorStand hologram = location.getWorld().spawn(location, ArmorStand.class);
-            
-            // Make the armor stand a perfect hologram
-            hologram.setVisible(false);
-            hologram.setGravity(false);
-            hologram.setCanPickupItems(false);
-            hologram.setCustomName(text);
-            hologram.setCustomNameVisible(true);
-            hologram.setMarker(true);
-            hologram.setSmall(true);
-            hologram.setBasePlate(false);
-            hologram.setArms(false);
-            
-            return hologram;
+            hologram.remove();
         } catch (Exception e) {
-            log.warning("Failed to spawn hologram line: " + e.getMessage());
-            return null;
+            LogManager.warning("Error removing hologram", e);
+        }
+    }
+
+    public static synchronized void updateTimer(Hologram hologram, int seconds) {
+        if (plugin != null) {
+            updateTimer(hologram, seconds, plugin.getPluginConfig());
         }
     }
 
-    public static void removeHologram(List<ArmorStand> hologramLines) {
-        if (hologramLines == null) {
+    /**
+     * @param config the settings to render the countdown with
+     */
+    public static synchronized void updateTimer(Hologram hologram, int seconds, PluginConfig config) {
+        if (hologram == null || hologram.getLineCount() < 2 || plugin == null || config == null) {
             return;
         }
-        
+
+        long start = System.nanoTime();
         try {
-            int removed = 0;
-            for (ArmorStand stand : hologramLines) {
-                if (stand != null && stand.isValid()) {
-                    stand.remove();
-                    removed++;
-                }
+            // Callers skip holograms without viewers; the backend still only records text nobody can see
+            int displayed = config.getDisplayedSeconds(seconds);
+            String secondLine = countdownText.get(config, displayed);
+            if (!secondLine.equals(hologram.getLine(1)) && hologram.isValid()) {
+                hologram.setLine(1, secondLine);
             }
-            hologramLines.clear();
-            
-            if (removed > 0) {
-                log.fine("Removed " + removed + " hologram entities");
+            if (updateLatency != null) {
+                updateLatency.recordSince(start);
             }
         } catch (Exception e) {
-            log.warning("Error removing hologram: " + e.getMessage());
+            LogManager.warning("Error updating hologram timer", e);
         }
     }
 
-    public static void updateTimer(List<ArmorStand> hologramLines, int seconds) {
-        if (hologramLines == null || hologramLines.size() < 2 || plugin == null || plugin.getPluginConfig() == null) {
+    /**
+     * Remove ArmorStand hologram lines left behind above a chest by a crash.
+     * Packet holograms never touch the world, so this only matters for the ArmorStand backend.
+     * @param location the chest location
+     */
+    public static void removeOrphanedHolograms(Location location) {
+        if (location == null || location.getWorld() == null || !VersionUtils.supports(Capability.ARMOR_STANDS)) {
             return;
         }
-        
+
         try {
-            ArmorStand timerLine = hologramLines.get(1);
-            if (timerLine != null && timerLine.isValid()) {
-                String secondLine = plugin.getPluginConfig().getHologramSecondLine()
-                                        .replace("%seconds%", String.valueOf(seconds));
-                secondLine = ChatColor.translateAlternateColorCodes('&', secondLine);
-                timerLine.setCustomName(secondLine);
+            double centerX = location.getBlockX() + 0.5;
+            double centerZ = location.getBlockZ() + 0.5;
+            for (Entity entity : location.getChunk().getEntities()) {
+                if (!(entity instanceof ArmorStand)) {
+                    continue;
+                }
+                ArmorStand stand = (ArmorStand) entity;
+                Location standLoc = stand.getLocation();
+                if (!stand.isVisible() && stand.isMarker() && stand.isCustomNameVisible()
+                        && Math.abs(standLoc.getX() - centerX) < 0.01
+                        && Math.abs(standLoc.getZ() - centerZ) < 0.01
+                        && standLoc.getY() > location.getBlockY()
+                        && standLoc.getY() < location.getBlockY() + 5) {
+                    stand.remove();
+                }
             }
         } catch (Exception e) {
-            log.warning("Error updating hologram timer: " + e.getMessage());
+            LogManager.warning("Error removing orphaned holograms", e);
         }
     }
-    
-    private static Location normalizeLocation(Location loc) {
-        if (loc == null || loc.getWorld() == null) {
-            return null;
-        }
-        return new Location(loc.getWorld(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-    }
-    
+
     /**
      * Clean up all active holograms and reset the manager
      */
-    public static void cleanup() {
+    public static synchronized void cleanup() {
         try {
             log.info("Cleaning up " + activeHolograms.size() + " active holograms...");
-            
-            for (List<ArmorStand> hologram : activeHolograms.values()) {
+
+            for (Hologram hologram : activeHolograms.values()) {
                 removeHologram(hologram);
             }
             activeHolograms.clear();
-            
+            countdownText.invalidate();
+            firstLineTemplate = null;
+
+            if (backendTask != null) {
+                backendTask.cancel();
+                backendTask = null;
+            }
+            if (backend != null) {
+                backend.shutdown();
+                if (backend instanceof Listener) {
+                    HandlerList.unregisterAll((Listener) backend);
+                }
+                backend = null;
+            }
+
             log.info("Hologram cleanup completed.");
         } catch (Exception e) {
             log.severe("Error during hologram cleanup: " + e.getMessage());
             e.printStackTrace();
         }
     }
-    
+
     /**
      * Remove a hologram from tracking when it's destroyed
      * @param location The location of the hologram to stop tracking
      */
-    public static void untrackHologram(Location location) {
-        Location normalized = normalizeLocation(location);
-        if (normalized != null) {
-            List<ArmorStand> removed = activeHolograms.remove(normalized);
+    public static synchronized void untrackHologram(Location location) {
+        if (location != null && location.getWorld() != null) {
+            Hologram removed = activeHolograms.remove(location);
             if (removed != null) {
-                log.fine("Untracked hologram at " + normalized);
+                log.fine("Untracked hologram at " + location);
             }
         }
     }
-    
+
     /**
      * Get the number of active holograms
      * @return count of active holograms
@@ -191,4 +250,12 @@ public class HologramManager {
     public static int getActiveHologramCount() {
         return activeHolograms.size();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Get the name of the hologram backend in use
+     * @return backend name, or "none" before initialization
+     */
+    public static synchronized String getBackendName() {
+        return backend != null ? backend.getName() : "none";
+    }
+}
@@ -0,0 +1,215 @@
+package dev.antry.antrydeathloot.managers;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.config.PluginConfig;
+import org.bukkit.Bukkit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logging facade for hot paths.
+ * <p>
+ * Per-chest events are counted and reported as one summary line per interval, with the
+ * full per-chest lines only in debug mode. Warnings are rate-limited per call site, keyed
+ * by their constant message. Everything is written from a background thread so console
+ * I/O never runs on the main thread. Before {@link #initialize(AntryDeathLoot)} and after
+ * {@link #cleanup()} messages are logged directly. A reload only swaps the settings through
+ * {@link #reconfigure(PluginConfig)}; the logging thread keeps running.
+ */
+public class LogManager {
+
+    /**
+     * Events reported in the periodic summary
+     */
+    public enum Counter {
+        CHESTS_CREATED("death chests created"),
+        CHESTS_BROKEN("broken");
+
+        private final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private static final Map<String, WarningSite> warningSites = new ConcurrentHashMap<>();
+
+    private static volatile Logger logger = Bukkit.getLogger();
+    private static volatile ScheduledExecutorService executor;
+    private static volatile boolean debug;
+    private static volatile long warningIntervalNanos = TimeUnit.SECONDS.toNanos(60);
+    private static volatile long summaryIntervalSeconds;
+    private static ScheduledFuture<?> summaryTask;
+
+    static {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public static synchronized void initialize(AntryDeathLoot main) {
+        logger = main.getLogger();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AntryDeathLoot-Log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        applySettings(main.getPluginConfig());
+
+        logger.info("LogManager initialized" + (debug ? " with debug logging" : ""));
+    }
+
+    /**
+     * Switch to new settings, keeping the logging thread and whatever it has queued
+     */
+    public static synchronized void reconfigure(PluginConfig config) {
+        if (executor == null) {
+            return;
+        }
+        applySettings(config);
+        logger.info("LogManager reconfigured" + (debug ? " with debug logging" : ""));
+    }
+
+    private static void applySettings(PluginConfig config) {
+        debug = config.isDebugLogging();
+        warningIntervalNanos = TimeUnit.SECONDS.toNanos(config.getLogWarningInterval());
+
+        long interval = config.getLogSummaryInterval();
+        if (summaryTask == null || interval != summaryIntervalSeconds) {
+            if (summaryTask != null) {
+                summaryTask.cancel(false);
+            }
+            summaryIntervalSeconds = interval;
+            summaryTask = executor.scheduleAtFixedRate(LogManager::writeSummary, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Count an event for the next summary
+     */
+    public static void count(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * @return true if per-chest debug logging is enabled
+     */
+    public static boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * Log a detailed message in debug mode only; the message is not built otherwise
+     */
+    public static void debug(Supplier<String> message) {
+        if (debug) {
+            write(Level.INFO, "[debug] " + message.get());
+        }
+    }
+
+    /**
+     * Log a warning, rate-limited by the message itself
+     */
+    public static void warning(String message) {
+        warning(message, message);
+    }
+
+    /**
+     * Log a warning with the error's message appended, rate-limited by {@code message}
+     */
+    public static void warning(String message, Throwable error) {
+        warning(message, message + ": " + error.getMessage());
+    }
+
+    /**
+     * Log a warning, rate-limited by a call site key
+     * @param site constant key identifying where the warning comes from
+     * @param message the full message
+     */
+    public static void warning(String site, String message) {
+        WarningSite state = warningSites.computeIfAbsent(site, key -> new WarningSite());
+        int suppressed;
+        synchronized (state) {
+            long now = System.nanoTime();
+            if (state.logged && now - state.lastLogged < warningIntervalNanos) {
+                state.suppressed++;
+                return;
+            }
+            suppressed = state.suppressed;
+            state.suppressed = 0;
+            state.lastLogged = now;
+            state.logged = true;
+        }
+        write(Level.WARNING, suppressed > 0 ? message + " (" + suppressed + " similar suppressed)" : message);
+    }
+
+    /**
+     * Write a final summary and stop the logging thread, waiting for queued messages
+     */
+    public static synchronized void cleanup() {
+        ScheduledExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+
+        try {
+            current.execute(LogManager::writeSummary);
+        } catch (RejectedExecutionException ignored) {
+        }
+        current.shutdown();
+        try {
+            current.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        summaryTask = null;
+        warningSites.clear();
+    }
+
+    private static void writeSummary() {
+        StringBuilder summary = new StringBuilder();
+        long total = 0;
+        for (Counter counter : Counter.values()) {
+            long value = counters[counter.ordinal()].sumThenReset();
+            total += value;
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(value).append(' ').append(counter.label);
+        }
+        if (total > 0) {
+            logger.info(summary + " in the last " + summaryIntervalSeconds + "s");
+        }
+    }
+
+    private static void write(Level level, String message) {
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            try {
+                current.execute(() -> logger.log(level, message));
+                return;
+            } catch (RejectedExecutionException ignored) {
+                // Shutting down; log directly below
+            }
+        }
+        logger.log(level, message);
+    }
+
+    private static final class WarningSite {
+        private boolean logged;
+        private long lastLogged;
+        private int suppressed;
+    }
+}
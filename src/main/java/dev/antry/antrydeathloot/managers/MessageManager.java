@@ -1,77 +1,390 @@
 package dev.antry.antrydeathloot.managers;
 
 import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.config.PluginConfig;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import dev.antry.antrydeathloot.text.MessageTemplate;
+import dev.antry.antrydeathloot.text.Placeholder;
+import dev.antry.antrydeathloot.text.TemplateValues;
 import lombok.extern.java.Log;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Death chest announcements.
+ * <p>
+ * Each announcement goes only to the players in the configured {@link Scope}. With an
+ * aggregate interval, announcements are collected and each player gets one line per kind
+ * per interval: the original message if only one applies to them, a summary otherwise.
+ * Announcements may come from any region thread, so the shared state is guarded by the
+ * class lock. Recipients are worked out under it and messages are sent after releasing
+ * it; scopes that check player locations are delivered from the global region.
+ */
 @Log
 public class MessageManager {
+
+    /**
+     * Who receives an announcement
+     */
+    public enum Scope {
+        GLOBAL,
+        WORLD,
+        RADIUS,
+        OWNER
+    }
+
     private static AntryDeathLoot plugin;
+    // Prefix included; null when the message is disabled
+    private static MessageTemplate deathChestMessage;
+    private static MessageTemplate breakMessage;
+    private static boolean announceDeathChest;
+    private static int breakTimeSeconds;
+    private static Scope scope = Scope.GLOBAL;
+    private static double radiusSquared;
+    private static long aggregateTicks;
+    private static Batch created;
+    private static Batch broken;
+    private static TaskExecutor.Task flushTask;
 
     public static void initialize(AntryDeathLoot main) {
-        plugin = main;
-        log.info("MessageManager initialized");
+        synchronized (MessageManager.class) {
+            plugin = main;
+        }
+        reload(main.getPluginConfig());
     }
 
-    private static String getPrefix() {
-        if (plugin == null || plugin.getPluginConfig() == null) {
-            return "[AntryDeathLoot] ";
+    /**
+     * Switch to new settings in one step, sending whatever was collected under the old ones.
+     * Announcements are not dropped while this runs; each goes out under one set of settings.
+     * @param config the settings to use, which need not be the plugin's current ones yet
+     */
+    public static void reload(PluginConfig config) {
+        MessageTemplate newDeathChestMessage = compile(config.getPrefix(), config.getDeathChestMessage());
+        MessageTemplate newBreakMessage = compile(config.getPrefix(), config.getChestBreakMessage());
+        Scope newScope = parseScope(config.getAnnouncementScope());
+        Batch newCreated = new Batch(compile(config.getPrefix(), config.getAnnouncementCreatedSummary()));
+        Batch newBroken = new Batch(compile(config.getPrefix(), config.getAnnouncementBrokenSummary()));
+
+        List<Message> messages = new ArrayList<>();
+        synchronized (MessageManager.class) {
+            if (flushTask != null) {
+                flushTask.cancel();
+                flushTask = null;
+            }
+            if (created != null) {
+                messages.addAll(collect(created));
+                messages.addAll(collect(broken));
+            }
+            deathChestMessage = newDeathChestMessage;
+            breakMessage = newBreakMessage;
+            announceDeathChest = config.isAnnounceDeathChest();
+            breakTimeSeconds = config.getChestBreakTime();
+            scope = newScope;
+            radiusSquared = config.getAnnouncementRadius() * config.getAnnouncementRadius();
+            aggregateTicks = config.getAnnouncementAggregateInterval() * 20L;
+            created = newCreated;
+            broken = newBroken;
         }
-        return ChatColor.translateAlternateColorCodes('&', plugin.getPluginConfig().getPrefix());
+        send(messages);
+
+        log.info("MessageManager initialized with " + newScope.name().toLowerCase(Locale.ROOT) + " announcements"
+                + (config.getAnnouncementAggregateInterval() > 0
+                        ? " aggregated every " + config.getAnnouncementAggregateInterval() + "s" : ""));
     }
 
-    public static void sendDeathChestMessage(Player player) {
-        if (plugin == null || player == null || plugin.getPluginConfig() == null) {
-            return;
+    private static Scope parseScope(String configured) {
+        try {
+            return Scope.valueOf(configured.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warning("Unknown announcement scope '" + configured + "', announcing globally");
+            return Scope.GLOBAL;
         }
-        
+    }
+
+    private static MessageTemplate compile(String prefix, String message) {
+        if (message == null || message.isEmpty()) {
+            return null;
+        }
+        return MessageTemplate.compile(prefix + message);
+    }
+
+    /**
+     * Announce a new death chest
+     * @param player the owner
+     * @param location where the chest is placed
+     * @param itemCount number of item stacks in the chest
+     */
+    public static void sendDeathChestMessage(Player player, Location location, int itemCount) {
         try {
-            if (plugin.getPluginConfig().isAnnounceDeathChest()) {
-                String message = plugin.getPluginConfig().getDeathChestMessage()
-                    .replace("%player%", player.getName())
-                    .replace("%time%", String.valueOf(plugin.getPluginConfig().getChestBreakTime()));
-                broadcast(message);
-            }
+            deliver(prepareDeathChestMessage(player, location, itemCount));
         } catch (Exception e) {
-            log.warning("Error sending death chest message: " + e.getMessage());
+            LogManager.warning("Error sending death chest message", e);
         }
     }
 
-    public static void sendBreakMessage() {
-        if (plugin == null || plugin.getPluginConfig() == null) {
-            return;
+    private static synchronized Announcement prepareDeathChestMessage(Player player, Location location, int itemCount) {
+        if (plugin == null || player == null || deathChestMessage == null || !announceDeathChest) {
+            return null;
         }
-        
+
+        TemplateValues values = new TemplateValues()
+            .set(Placeholder.PLAYER, player.getName())
+            .set(Placeholder.TIME, breakTimeSeconds)
+            .set(Placeholder.ITEMS, itemCount)
+            .location(location);
+        return announce(created, new Announcement(player.getUniqueId(), location, deathChestMessage, values));
+    }
+
+    /**
+     * Announce a death chest breaking
+     * @param ownerId the chest owner
+     * @param ownerName the chest owner's name
+     * @param location the chest location
+     */
+    public static void sendBreakMessage(UUID ownerId, String ownerName, Location location) {
         try {
-            String breakMessage = plugin.getPluginConfig().getChestBreakMessage();
-            if (breakMessage != null && !breakMessage.isEmpty()) {
-                broadcast(breakMessage);
-            }
+            deliver(prepareBreakMessage(ownerId, ownerName, location));
         } catch (Exception e) {
-            log.warning("Error sending break message: " + e.getMessage());
+            LogManager.warning("Error sending break message", e);
         }
     }
 
-    private static void broadcast(String message) {
-        if (message == null || message.isEmpty()) {
+    private static synchronized Announcement prepareBreakMessage(UUID ownerId, String ownerName, Location location) {
+        if (plugin == null || breakMessage == null) {
+            return null;
+        }
+
+        TemplateValues values = new TemplateValues()
+            .set(Placeholder.PLAYER, ownerName)
+            .location(location);
+        return announce(broken, new Announcement(ownerId, location, breakMessage, values));
+    }
+
+    /**
+     * @return the announcement if it should be delivered right away, null if it was batched
+     */
+    private static Announcement announce(Batch batch, Announcement announcement) {
+        if (aggregateTicks <= 0) {
+            return announcement;
+        }
+
+        batch.pending.add(announcement);
+        // While disabling, cleanup() sends what is left
+        if (flushTask == null && plugin.isEnabled()) {
+            flushTask = plugin.getTaskExecutor().runGlobalLater(MessageManager::flush, aggregateTicks);
+        }
+        return null;
+    }
+
+    /**
+     * Deliver a single announcement, without holding the class lock
+     */
+    private static void deliver(Announcement announcement) {
+        if (announcement == null) {
             return;
         }
-        
+        if (announcement.scope == Scope.GLOBAL || announcement.scope == Scope.OWNER || announcement.executor == null) {
+            send(recipients(announcement));
+        } else {
+            // Range checks read player locations, which a region thread may not do for players elsewhere
+            announcement.executor.runGlobal(() -> send(recipients(announcement)));
+        }
+    }
+
+    private static List<Message> recipients(Announcement announcement) {
+        switch (announcement.scope) {
+            case GLOBAL:
+                return Collections.singletonList(new Message(null, announcement.text()));
+            case OWNER:
+                Player owner = Bukkit.getPlayer(announcement.ownerId);
+                return owner != null ? Collections.singletonList(new Message(owner, announcement.text())) : Collections.emptyList();
+            default:
+                World world = announcement.location.getWorld();
+                if (world == null) {
+                    return Collections.emptyList();
+                }
+                List<Message> messages = new ArrayList<>();
+                for (Player player : world.getPlayers()) {
+                    if (hears(player, player.getLocation(), announcement)) {
+                        messages.add(new Message(player, announcement.text()));
+                    }
+                }
+                return messages;
+        }
+    }
+
+    private static void flush() {
+        List<Message> messages;
+        synchronized (MessageManager.class) {
+            flushTask = null;
+            messages = collect(created);
+            messages.addAll(collect(broken));
+        }
+        send(messages);
+    }
+
+    /**
+     * Take a batch's pending announcements and work out who gets which line
+     */
+    private static List<Message> collect(Batch batch) {
+        List<Message> messages = new ArrayList<>();
+        List<Announcement> pending = batch.pending;
+        if (pending.isEmpty()) {
+            return messages;
+        }
+        batch.pending = new ArrayList<>();
+
         try {
-            message = getPrefix() + ChatColor.translateAlternateColorCodes('&', message);
-            Bukkit.broadcastMessage(message);
+            if (pending.size() == 1) {
+                messages.addAll(recipients(pending.get(0)));
+            } else if (scope == Scope.GLOBAL) {
+                if (batch.summary != null) {
+                    messages.add(new Message(null, batch.summary.render(new TemplateValues().set(Placeholder.COUNT, pending.size()))));
+                }
+            } else {
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    collect(batch, pending, player, messages);
+                }
+            }
         } catch (Exception e) {
-            log.warning("Error broadcasting message: " + e.getMessage());
+            LogManager.warning("Error sending announcements", e);
         }
+        return messages;
     }
-    
+
+    private static void collect(Batch batch, List<Announcement> pending, Player player, List<Message> messages) {
+        Location location = scope == Scope.OWNER ? null : player.getLocation();
+        Announcement only = null;
+        int count = 0;
+        for (Announcement announcement : pending) {
+            if (hears(player, location, announcement)) {
+                only = announcement;
+                count++;
+            }
+        }
+
+        if (count == 1) {
+            messages.add(new Message(player, only.text()));
+        } else if (count > 1 && batch.summary != null) {
+            messages.add(new Message(player, batch.summary.render(new TemplateValues().set(Placeholder.COUNT, count))));
+        }
+    }
+
+    private static boolean hears(Player player, Location playerLocation, Announcement announcement) {
+        switch (announcement.scope) {
+            case GLOBAL:
+                return true;
+            case OWNER:
+                return player.getUniqueId().equals(announcement.ownerId);
+            default:
+                World world = announcement.location.getWorld();
+                if (world == null || !world.equals(playerLocation.getWorld())) {
+                    return false;
+                }
+                return announcement.scope == Scope.WORLD || playerLocation.distanceSquared(announcement.location) <= announcement.radiusSquared;
+        }
+    }
+
+    private static void send(List<Message> messages) {
+        for (Message message : messages) {
+            try {
+                if (message.recipient == null) {
+                    Bukkit.broadcastMessage(message.text);
+                } else {
+                    message.recipient.sendMessage(message.text);
+                }
+            } catch (Exception e) {
+                LogManager.warning("Error sending announcements", e);
+            }
+        }
+    }
+
     /**
-     * Clean up the message manager
+     * Clean up the message manager, sending anything still collected
      */
     public static void cleanup() {
+        List<Message> messages = new ArrayList<>();
+        synchronized (MessageManager.class) {
+            if (flushTask != null) {
+                flushTask.cancel();
+                flushTask = null;
+            }
+            if (created != null) {
+                messages.addAll(collect(created));
+                messages.addAll(collect(broken));
+            }
+            plugin = null;
+            deathChestMessage = null;
+            breakMessage = null;
+            created = null;
+            broken = null;
+        }
+        send(messages);
         log.info("MessageManager cleanup completed");
-        plugin = null;
     }
-} 
\ No newline at end of file
+
+    private static final class Announcement {
+        private final UUID ownerId;
+        private final Location location;
+        private final MessageTemplate template;
+        private final TemplateValues values;
+        // Settings it was announced under, so delivery needs no lock
+        private final Scope scope;
+        private final double radiusSquared;
+        // Null while disabling, when delivery happens right away
+        private final TaskExecutor executor;
+        private String text;
+
+        /**
+         * Create under the class lock
+         */
+        private Announcement(UUID ownerId, Location location, MessageTemplate template, TemplateValues values) {
+            this.ownerId = ownerId;
+            this.location = location;
+            this.template = template;
+            this.values = values;
+            this.scope = MessageManager.scope;
+            this.radiusSquared = MessageManager.radiusSquared;
+            this.executor = plugin.isEnabled() ? plugin.getTaskExecutor() : null;
+        }
+
+        /**
+         * @return the rendered message, rendered at most once however many players receive it;
+         * a race between threads at worst renders it twice
+         */
+        private String text() {
+            if (text == null) {
+                text = template.render(values);
+            }
+            return text;
+        }
+    }
+
+    private static final class Message {
+        // Null to broadcast
+        private final Player recipient;
+        private final String text;
+
+        private Message(Player recipient, String text) {
+            this.recipient = recipient;
+            this.text = text;
+        }
+    }
+
+    private static final class Batch {
+        private final MessageTemplate summary;
+        private List<Announcement> pending = new ArrayList<>();
+
+        private Batch(MessageTemplate summary) {
+            this.summary = summary;
+        }
+    }
+}
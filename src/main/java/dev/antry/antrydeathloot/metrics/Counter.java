@@ -0,0 +1,45 @@
+package dev.antry.antrydeathloot.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter; increments are contention-free from any thread
+ */
+public final class Counter implements Metric {
+    private final String name;
+    private final String help;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getHelp() {
+        return help;
+    }
+
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        MetricsRegistry.writeHeader(out, this, "counter");
+        out.append(name).append(' ').append(get()).append('\n');
+    }
+}
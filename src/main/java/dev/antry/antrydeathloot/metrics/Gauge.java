@@ -0,0 +1,43 @@
+package dev.antry.antrydeathloot.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Value read on demand from a supplier. Suppliers are called from whichever thread
+ * reads the registry, so they should only do plain reads of plugin state.
+ */
+public final class Gauge implements Metric {
+    private final String name;
+    private final String help;
+    private final DoubleSupplier value;
+
+    Gauge(String name, String help, DoubleSupplier value) {
+        this.name = name;
+        this.help = help;
+        this.value = value;
+    }
+
+    public double get() {
+        try {
+            return value.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getHelp() {
+        return help;
+    }
+
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        MetricsRegistry.writeHeader(out, this, "gauge");
+        out.append(name).append(' ').append(get()).append('\n');
+    }
+}
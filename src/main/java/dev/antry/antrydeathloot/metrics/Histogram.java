@@ -0,0 +1,139 @@
+package dev.antry.antrydeathloot.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram in the style of HdrHistogram.
+ * <p>
+ * Every power of two is split into 8 linear sub-buckets, so any recorded value is
+ * reported within 12.5% across the full {@code long} range with a fixed 496 buckets.
+ * Values are recorded in raw units (e.g. nanoseconds) and multiplied by {@code scale}
+ * on export (e.g. to seconds).
+ */
+public final class Histogram implements Metric {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final double[] EXPORTED_QUANTILES = {0.5, 0.9, 0.99};
+
+    private final String name;
+    private final String help;
+    private final double scale;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(String name, String help, double scale) {
+        this.name = name;
+        this.help = help;
+        this.scale = scale;
+    }
+
+    /**
+     * @param value raw value, negative values count as zero
+     */
+    public void record(long value) {
+        long recorded = Math.max(0L, value);
+        buckets.incrementAndGet(indexOf(recorded));
+        count.increment();
+        sum.add(recorded);
+
+        long current;
+        while (recorded > (current = max.get()) && !max.compareAndSet(current, recorded)) {
+            // retry
+        }
+    }
+
+    /**
+     * Record the time elapsed since {@code startNanos}, taken from {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of recorded values, scaled
+     */
+    public double getSum() {
+        return sum.sum() * scale;
+    }
+
+    /**
+     * @return the largest recorded value, scaled
+     */
+    public double getMax() {
+        return max.get() * scale;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the scaled value at the quantile, or 0 if nothing was recorded
+     */
+    public double getQuantile(double quantile) {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max.get()) * scale;
+            }
+        }
+        return max.get() * scale;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getHelp() {
+        return help;
+    }
+
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        MetricsRegistry.writeHeader(out, this, "summary");
+        for (double quantile : EXPORTED_QUANTILES) {
+            out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(getQuantile(quantile)).append('\n');
+        }
+        out.append(name).append("_sum ").append(getSum()).append('\n');
+        out.append(name).append("_count ").append(getCount()).append('\n');
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        int shift = index / SUB_BUCKETS - 1;
+        if (shift <= 0) {
+            return index;
+        }
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
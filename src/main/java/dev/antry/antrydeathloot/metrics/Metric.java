@@ -0,0 +1,16 @@
+package dev.antry.antrydeathloot.metrics;
+
+/**
+ * A named value in the {@link MetricsRegistry}
+ */
+public interface Metric {
+
+    String getName();
+
+    String getHelp();
+
+    /**
+     * Append this metric in Prometheus text exposition format, including HELP and TYPE lines
+     */
+    void writePrometheus(StringBuilder out);
+}
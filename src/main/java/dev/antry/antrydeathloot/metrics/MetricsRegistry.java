@@ -0,0 +1,67 @@
+package dev.antry.antrydeathloot.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of the plugin's counters, gauges and histograms.
+ * <p>
+ * Recording never locks; reads may come from any thread (the stats command on the main
+ * thread, the Prometheus endpoint on its own). Registering a counter or histogram that
+ * already exists returns the existing one, so metrics survive manager restarts; gauges are
+ * replaced, since their supplier captures the manager instance.
+ */
+public class MetricsRegistry {
+    private static final double NANOS_TO_SECONDS = 1e-9;
+
+    private final ConcurrentSkipListMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name, String help) {
+        return (Counter) metrics.computeIfAbsent(name, key -> new Counter(name, help));
+    }
+
+    public Gauge gauge(String name, String help, DoubleSupplier value) {
+        Gauge gauge = new Gauge(name, help, value);
+        metrics.put(name, gauge);
+        return gauge;
+    }
+
+    /**
+     * Histogram of durations recorded in nanoseconds and exported in seconds
+     */
+    public Histogram timer(String name, String help) {
+        return histogram(name, help, NANOS_TO_SECONDS);
+    }
+
+    /**
+     * @param scale multiplier applied to recorded values on export
+     */
+    public Histogram histogram(String name, String help, double scale) {
+        return (Histogram) metrics.computeIfAbsent(name, key -> new Histogram(name, help, scale));
+    }
+
+    /**
+     * @return every metric, sorted by name
+     */
+    public List<Metric> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * @return all metrics in Prometheus text exposition format
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : metrics.values()) {
+            metric.writePrometheus(out);
+        }
+        return out.toString();
+    }
+
+    static void writeHeader(StringBuilder out, Metric metric, String type) {
+        out.append("# HELP ").append(metric.getName()).append(' ').append(metric.getHelp()).append('\n');
+        out.append("# TYPE ").append(metric.getName()).append(' ').append(type).append('\n');
+    }
+}
@@ -0,0 +1,117 @@
+package dev.antry.antrydeathloot.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable heap {@link ByteBuffer} with varint and string helpers, plus the matching readers.
+ * Big-endian like the rest of the journal format.
+ */
+final class BufferOutput {
+    private ByteBuffer buffer;
+
+    BufferOutput(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(16, initialCapacity));
+    }
+
+    void writeByte(int value) {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    void writeInt(int value) {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    void writeLong(long value) {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    void writeVarInt(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        buffer.put(bytes, offset, length);
+    }
+
+    void writeBytes(ByteBuffer bytes) {
+        ensure(bytes.remaining());
+        buffer.put(bytes);
+    }
+
+    /**
+     * Overwrite an int at an absolute position, e.g. a length placeholder
+     */
+    void putInt(int index, int value) {
+        buffer.putInt(index, value);
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    /**
+     * @return the backing array; valid up to {@link #position()}
+     */
+    byte[] array() {
+        return buffer.array();
+    }
+
+    /**
+     * @return a read view of everything written so far
+     */
+    ByteBuffer toBuffer() {
+        ByteBuffer view = buffer.duplicate();
+        view.flip();
+        return view;
+    }
+
+    private void ensure(int extra) {
+        if (buffer.remaining() >= extra) {
+            return;
+        }
+        int capacity = Math.max(buffer.capacity() << 1, buffer.position() + extra);
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    static int readVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static String readString(ByteBuffer in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Malformed string of length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
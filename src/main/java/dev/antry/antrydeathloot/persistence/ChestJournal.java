@@ -0,0 +1,666 @@
+package dev.antry.antrydeathloot.persistence;
+
+import dev.antry.antrydeathloot.data.BlockPalette;
+import dev.antry.antrydeathloot.data.DeathChestData;
+import lombok.extern.java.Log;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of death chest changes, compacted into periodic snapshots.
+ * <p>
+ * Every record is encoded and written on a single background thread, so the main
+ * thread only enqueues work. The journal is fsynced in batches at most once per flush
+ * interval. A snapshot replaces the snapshot file atomically and then truncates the
+ * journal; because both run on the same thread, no record can fall between them.
+ * Records appended before {@link #open()} are kept in memory and written once it runs,
+ * so chests created before the journal is replayed are not lost.
+ * <p>
+ * Records are framed as {@code [length][type][payload][crc32]}; replay stops at the
+ * first torn or corrupt record, which can only be the tail written during a crash.
+ * Item contents are stored with {@link ItemStackCodec}; a snapshot keeps every chest's
+ * contents in one block so they share a single dictionary. Replaced blocks are written
+ * once per distinct state in a {@link BlockPalette}, and each chest refers to one by index.
+ * <p>
+ * Break timers are journaled against a clock that only runs while the journal is open,
+ * so downtime does not count against them. Every (re)scheduled timer is recorded with
+ * the clock reading, and the clock itself is recorded once a second without forcing the
+ * file; replay takes the time elapsed since each timer was recorded off its countdown.
+ * A crash therefore gives chests back at most the last second, or whatever the OS had
+ * not yet written out.
+ */
+@Log
+public class ChestJournal {
+    private static final int SNAPSHOT_MAGIC = 0x41444C53;
+    // Version 3 added overflow items, version 4 replaced blocks; versions 2 and 3 are still read
+    private static final int FORMAT_VERSION = 4;
+    private static final int FORMAT_VERSION_NO_REPLACED = 3;
+    private static final int FORMAT_VERSION_NO_OVERFLOW = 2;
+
+    private static final byte RECORD_CREATE = 1;
+    private static final byte RECORD_BREAK = 2;
+    private static final byte RECORD_CONTENTS = 3;
+    private static final byte RECORD_OVERFLOW = 4;
+    private static final byte RECORD_REPLACED = 5;
+    private static final byte RECORD_TIMER = 6;
+    private static final byte RECORD_CLOCK = 7;
+    private static final byte RECORD_OPEN = 8;
+
+    private static final long CLOCK_INTERVAL_MILLIS = 1000L;
+
+    private final Path journalPath;
+    private final Path snapshotPath;
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService executor;
+    private final ItemStackCodec codec;
+    // Milliseconds, only compared with earlier readings
+    private final LongSupplier clock;
+    private final long clockStart;
+
+    // Only touched on the journal thread
+    private FileChannel channel;
+    private boolean dirty;
+    // Records appended before open(); dropped like any other if the journal cannot be opened
+    private final List<ByteBuffer> pending = new ArrayList<>();
+    private boolean opened;
+
+    public ChestJournal(File dataFolder, long flushIntervalMillis, boolean compress) {
+        this(dataFolder, flushIntervalMillis, compress, () -> System.nanoTime() / 1_000_000L);
+    }
+
+    ChestJournal(File dataFolder, long flushIntervalMillis, boolean compress, LongSupplier clock) {
+        this.clock = clock;
+        this.clockStart = clock.getAsLong();
+        this.journalPath = new File(dataFolder, "chests.journal").toPath();
+        this.snapshotPath = new File(dataFolder, "chests.snapshot").toPath();
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.codec = new ItemStackCodec(compress);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AntryDeathLoot-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Read the last snapshot and replay the journal on top of it.
+     * Must be called before {@link #open()}.
+     * @return every chest that was alive when the journal was last written
+     */
+    public List<DeathChestData> load() throws IOException {
+        Map<String, DeathChestData> chests = new LinkedHashMap<>();
+
+        if (Files.exists(snapshotPath)) {
+            readSnapshot(chests);
+        }
+        if (Files.exists(journalPath)) {
+            replayJournal(chests);
+        }
+
+        return new ArrayList<>(chests.values());
+    }
+
+    /**
+     * Open the journal for appending, write the records appended so far and start the periodic flush
+     */
+    public void open() {
+        executor.execute(() -> {
+            opened = true;
+            try {
+                Files.createDirectories(journalPath.getParent());
+                channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                // Clock readings restart here
+                writeFully(channel, record(RECORD_OPEN, out -> {}));
+                for (ByteBuffer record : pending) {
+                    writeFully(channel, record);
+                    dirty = true;
+                }
+            } catch (IOException e) {
+                log.severe("Could not open death chest journal: " + e.getMessage());
+            }
+            pending.clear();
+        });
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::recordClock, CLOCK_INTERVAL_MILLIS, CLOCK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordCreate(DeathChestData chest) {
+        append(RECORD_CREATE, out -> {
+            writeChest(out, chest);
+            out.writeBytes(codec.encode(chest.getItems()));
+        });
+        if (!chest.getOverflow().isEmpty()) {
+            recordOverflow(chest.getWorldId(), chest.getBlockKey(), chest.getOverflow());
+        }
+        if (chest.getReplacedBlock() != null) {
+            append(RECORD_REPLACED, out -> {
+                writeUuid(out, chest.getWorldId());
+                out.writeLong(chest.getBlockKey());
+                out.writeString(chest.getReplacedBlock());
+            });
+        }
+    }
+
+    /**
+     * Record that a chest's break timer was (re)started
+     * @param remainingSeconds the countdown it starts from
+     */
+    public void recordTimer(UUID worldId, long blockKey, int remainingSeconds) {
+        long now = clockSeconds();
+        append(RECORD_TIMER, out -> {
+            writeUuid(out, worldId);
+            out.writeLong(blockKey);
+            out.writeVarInt(remainingSeconds);
+            out.writeVarInt((int) now);
+        });
+    }
+
+    public void recordBreak(UUID worldId, long blockKey) {
+        append(RECORD_BREAK, out -> {
+            writeUuid(out, worldId);
+            out.writeLong(blockKey);
+        });
+    }
+
+    public void recordContents(UUID worldId, long blockKey, List<ItemStack> items) {
+        append(RECORD_CONTENTS, out -> {
+            writeUuid(out, worldId);
+            out.writeLong(blockKey);
+            out.writeBytes(codec.encode(items));
+        });
+    }
+
+    public void recordOverflow(UUID worldId, long blockKey, List<ItemStack> overflow) {
+        append(RECORD_OVERFLOW, out -> {
+            writeUuid(out, worldId);
+            out.writeLong(blockKey);
+            out.writeBytes(codec.encode(overflow));
+        });
+    }
+
+    /**
+     * Replace the snapshot with the given state and truncate the journal
+     * @param chests every live chest, captured on the main thread
+     */
+    public void writeSnapshot(Collection<DeathChestData> chests) {
+        List<DeathChestData> copy = new ArrayList<>(chests);
+        long now = clockSeconds();
+        submit(() -> {
+            BufferOutput out = new BufferOutput(1024 + copy.size() * 256);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(copy.size());
+            List<List<ItemStack>> items = new ArrayList<>(copy.size());
+            List<List<ItemStack>> overflow = new ArrayList<>(copy.size());
+            for (DeathChestData chest : copy) {
+                writeChest(out, chest);
+                items.add(chest.getItems());
+                overflow.add(chest.getOverflow());
+            }
+            // All contents go into one block so the whole snapshot shares a dictionary
+            out.writeBytes(codec.encodeAll(items));
+            out.writeBytes(codec.encodeAll(overflow));
+            writeReplacedBlocks(out, copy);
+            out.writeInt(crc(out.toBuffer()));
+
+            Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(file, out.toBuffer());
+                file.force(true);
+            }
+
+            try {
+                Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // Everything up to now is in the snapshot; the journal starts with the time it was taken
+            if (channel != null) {
+                channel.truncate(0);
+                writeFully(channel, record(RECORD_CLOCK, clockOut -> clockOut.writeVarInt((int) now)));
+                channel.force(true);
+                dirty = false;
+            }
+            log.fine("Wrote death chest snapshot with " + copy.size() + " chests (" + out.position() + " bytes)");
+        });
+    }
+
+    /**
+     * Flush outstanding records and stop the journal thread, waiting for pending writes
+     */
+    public void close() {
+        recordClock();
+        submit(() -> {
+            if (channel != null) {
+                channel.force(true);
+                channel.close();
+                channel = null;
+            }
+        });
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warning("Timed out waiting for the death chest journal to flush");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(byte type, RecordWriter writer) {
+        submit(() -> {
+            ByteBuffer record = record(type, writer);
+            if (channel == null) {
+                if (!opened) {
+                    pending.add(record);
+                }
+                return;
+            }
+            writeFully(channel, record);
+            dirty = true;
+        });
+    }
+
+    private static ByteBuffer record(byte type, RecordWriter writer) throws IOException {
+        BufferOutput out = new BufferOutput(256);
+        out.writeInt(0); // length placeholder
+        out.writeByte(type);
+        writer.write(out);
+
+        ByteBuffer payload = out.toBuffer();
+        payload.position(4);
+        out.putInt(0, payload.remaining());
+        out.writeInt(crc(payload));
+        return out.toBuffer();
+    }
+
+    /**
+     * Write the current clock reading. Not worth an fsync of its own: losing it to an OS
+     * crash only gives chests back a little time.
+     */
+    private void recordClock() {
+        submit(() -> {
+            if (channel != null) {
+                // Read on this thread so readings are written in order
+                writeFully(channel, record(RECORD_CLOCK, out -> out.writeVarInt((int) clockSeconds())));
+            }
+        });
+    }
+
+    private long clockSeconds() {
+        return (clock.getAsLong() - clockStart) / 1000L;
+    }
+
+    private void flush() {
+        if (channel == null || !dirty) {
+            return;
+        }
+        try {
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            log.warning("Failed to flush death chest journal: " + e.getMessage());
+        }
+    }
+
+    private void submit(JournalTask task) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warning("Death chest journal write failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private void readSnapshot(Map<String, DeathChestData> chests) throws IOException {
+        ByteBuffer bytes = readFile(snapshotPath);
+        if (bytes.remaining() < 16) {
+            log.warning("Ignoring truncated death chest snapshot");
+            return;
+        }
+
+        int end = bytes.limit() - 4;
+        int expected = bytes.getInt(end);
+        bytes.limit(end);
+        if (crc(bytes.duplicate()) != expected) {
+            log.warning("Ignoring corrupt death chest snapshot");
+            return;
+        }
+
+        int version = bytes.getInt() == SNAPSHOT_MAGIC ? bytes.getInt() : -1;
+        if (version != FORMAT_VERSION && version != FORMAT_VERSION_NO_REPLACED && version != FORMAT_VERSION_NO_OVERFLOW) {
+            log.warning("Ignoring death chest snapshot with unknown format");
+            return;
+        }
+
+        try {
+            int count = bytes.getInt();
+            List<DeathChestData.DeathChestDataBuilder> headers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                headers.add(readChest(bytes));
+            }
+            List<List<ItemStack>> items = codec.decodeAll(bytes);
+            if (items.size() != count) {
+                throw new IOException("Expected " + count + " item lists, found " + items.size());
+            }
+            List<List<ItemStack>> overflow = null;
+            if (version >= FORMAT_VERSION_NO_REPLACED) {
+                overflow = codec.decodeAll(bytes);
+                if (overflow.size() != count) {
+                    throw new IOException("Expected " + count + " overflow lists, found " + overflow.size());
+                }
+            }
+            if (version >= FORMAT_VERSION) {
+                readReplacedBlocks(bytes, headers);
+            }
+            for (int i = 0; i < count; i++) {
+                if (overflow != null) {
+                    headers.get(i).overflow(overflow.get(i));
+                }
+                DeathChestData chest = headers.get(i).items(items.get(i)).build();
+                chests.put(id(chest.getWorldId(), chest.getBlockKey()), chest);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated death chest snapshot", e);
+        }
+    }
+
+    private void replayJournal(Map<String, DeathChestData> chests) throws IOException {
+        ByteBuffer bytes = readFile(journalPath);
+        int replayed = 0;
+        ReplayClock clock = new ReplayClock();
+
+        while (bytes.remaining() >= 4) {
+            int start = bytes.position();
+            int length = bytes.getInt();
+            if (length <= 0 || bytes.remaining() < length + 4) {
+                break;
+            }
+
+            ByteBuffer record = bytes.slice();
+            record.limit(length);
+            if (crc(record.duplicate()) != bytes.getInt(start + 4 + length)) {
+                break;
+            }
+
+            try {
+                applyRecord(record, chests, clock);
+            } catch (IOException | RuntimeException e) {
+                // A record that checksums but does not decode is from an incompatible build
+                log.warning("Stopping journal replay at an unreadable record: " + e.getMessage());
+                bytes.position(start);
+                break;
+            }
+            bytes.position(start + 4 + length + 4);
+            replayed++;
+        }
+
+        if (bytes.hasRemaining()) {
+            log.warning("Discarded " + bytes.remaining() + " bytes of incomplete death chest journal");
+        }
+        clock.applyElapsed(chests);
+        log.fine("Replayed " + replayed + " death chest journal records");
+    }
+
+    private void applyRecord(ByteBuffer in, Map<String, DeathChestData> chests, ReplayClock clock) throws IOException {
+        byte type = in.get();
+        switch (type) {
+            case RECORD_CREATE: {
+                DeathChestData chest = readChest(in).items(codec.decode(in)).build();
+                String id = id(chest.getWorldId(), chest.getBlockKey());
+                chests.put(id, chest);
+                clock.forget(id);
+                break;
+            }
+            case RECORD_BREAK: {
+                UUID worldId = readUuid(in);
+                String id = id(worldId, in.getLong());
+                chests.remove(id);
+                clock.forget(id);
+                break;
+            }
+            case RECORD_CONTENTS: {
+                UUID worldId = readUuid(in);
+                String id = id(worldId, in.getLong());
+                List<ItemStack> items = codec.decode(in);
+                DeathChestData chest = chests.get(id);
+                if (chest != null) {
+                    chests.put(id, chest.toBuilder().items(items).build());
+                }
+                break;
+            }
+            case RECORD_OVERFLOW: {
+                UUID worldId = readUuid(in);
+                String id = id(worldId, in.getLong());
+                List<ItemStack> overflow = codec.decode(in);
+                DeathChestData chest = chests.get(id);
+                if (chest != null) {
+                    chests.put(id, chest.toBuilder().overflow(overflow).build());
+                }
+                break;
+            }
+            case RECORD_REPLACED: {
+                UUID worldId = readUuid(in);
+                String id = id(worldId, in.getLong());
+                String replaced = BufferOutput.readString(in);
+                DeathChestData chest = chests.get(id);
+                if (chest != null) {
+                    chests.put(id, chest.toBuilder().replacedBlock(replaced).build());
+                }
+                break;
+            }
+            case RECORD_TIMER: {
+                UUID worldId = readUuid(in);
+                String id = id(worldId, in.getLong());
+                int remaining = BufferOutput.readVarInt(in);
+                long recordedAt = BufferOutput.readVarInt(in);
+                DeathChestData chest = chests.get(id);
+                if (chest != null) {
+                    chests.put(id, chest.toBuilder().remainingSeconds(remaining).build());
+                    clock.stamp(id, recordedAt);
+                }
+                break;
+            }
+            case RECORD_CLOCK:
+                clock.advance(BufferOutput.readVarInt(in), chests);
+                break;
+            case RECORD_OPEN:
+                clock.restart();
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Chest header without its items, which are encoded separately by the codec
+     */
+    private static void writeChest(BufferOutput out, DeathChestData chest) {
+        writeUuid(out, chest.getWorldId());
+        out.writeLong(chest.getBlockKey());
+        writeUuid(out, chest.getOwnerUuid());
+        out.writeString(chest.getOwnerName());
+        out.writeLong(chest.getCreatedAt());
+        out.writeVarInt(chest.getBreakTimeSeconds());
+        out.writeVarInt(chest.getRemainingSeconds());
+    }
+
+    private static DeathChestData.DeathChestDataBuilder readChest(ByteBuffer in) throws IOException {
+        return DeathChestData.builder()
+                .worldId(readUuid(in))
+                .blockKey(in.getLong())
+                .ownerUuid(readUuid(in))
+                .ownerName(BufferOutput.readString(in))
+                .createdAt(in.getLong())
+                .breakTimeSeconds(BufferOutput.readVarInt(in))
+                .remainingSeconds(BufferOutput.readVarInt(in));
+    }
+
+    /**
+     * Palette of distinct replaced blocks, then one index per chest; 0 means nothing was replaced
+     */
+    private static void writeReplacedBlocks(BufferOutput out, List<DeathChestData> chests) {
+        BlockPalette palette = new BlockPalette();
+        int[] indices = new int[chests.size()];
+        for (int i = 0; i < indices.length; i++) {
+            String replaced = chests.get(i).getReplacedBlock();
+            indices[i] = replaced != null ? palette.idOf(replaced) + 1 : 0;
+        }
+        out.writeVarInt(palette.size());
+        for (String state : palette.getStates()) {
+            out.writeString(state);
+        }
+        for (int index : indices) {
+            out.writeVarInt(index);
+        }
+    }
+
+    private static void readReplacedBlocks(ByteBuffer in, List<DeathChestData.DeathChestDataBuilder> headers)
+            throws IOException {
+        int size = BufferOutput.readVarInt(in);
+        String[] palette = new String[size];
+        for (int i = 0; i < size; i++) {
+            palette[i] = BufferOutput.readString(in);
+        }
+        for (DeathChestData.DeathChestDataBuilder header : headers) {
+            int index = BufferOutput.readVarInt(in);
+            if (index > size) {
+                throw new IOException("Replaced block " + index + " is not in the palette of " + size);
+            }
+            if (index > 0) {
+                header.replacedBlock(palette[index - 1]);
+            }
+        }
+    }
+
+    private static ByteBuffer readFile(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = file.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(path.getFileName() + " is too large");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && file.read(buffer) >= 0) {
+                // keep reading
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static void writeUuid(BufferOutput out, UUID uuid) {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static String id(UUID worldId, long blockKey) {
+        return worldId + ":" + blockKey;
+    }
+
+    private static int crc(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Journal clock as seen during replay, and when each chest's timer was last recorded
+     */
+    private static final class ReplayClock {
+        private final Map<String, Long> stamps = new HashMap<>();
+        private boolean started;
+        // Readings start over each time the journal is opened
+        private long sessionStart;
+        private long lastReading;
+
+        private long now() {
+            return sessionStart + lastReading;
+        }
+
+        private void advance(long reading, Map<String, DeathChestData> chests) {
+            if (!started) {
+                // A journal that starts with a reading was truncated by a snapshot taken then
+                started = true;
+                for (String id : chests.keySet()) {
+                    stamps.put(id, sessionStart + reading);
+                }
+            }
+            lastReading = Math.max(lastReading, reading);
+        }
+
+        private void restart() {
+            // Snapshot timers from before the first restart were not clocked; leave them as written
+            started = true;
+            sessionStart = now();
+            lastReading = 0;
+        }
+
+        private void stamp(String id, long reading) {
+            stamps.put(id, sessionStart + reading);
+        }
+
+        private void forget(String id) {
+            stamps.remove(id);
+        }
+
+        private void applyElapsed(Map<String, DeathChestData> chests) {
+            for (Map.Entry<String, Long> stamp : stamps.entrySet()) {
+                DeathChestData chest = chests.get(stamp.getKey());
+                long elapsed = now() - stamp.getValue();
+                if (chest != null && elapsed > 0) {
+                    int remaining = (int) Math.max(0L, chest.getRemainingSeconds() - elapsed);
+                    chests.put(stamp.getKey(), chest.toBuilder().remainingSeconds(remaining).build());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(BufferOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface JournalTask {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,373 @@
+package dev.antry.antrydeathloot.persistence;
+
+import lombok.extern.java.Log;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned binary encoding for lists of item stacks.
+ * <p>
+ * One encoded block holds any number of item lists and starts with a dictionary of
+ * every material and enchantment name they use, so each item refers to those by a
+ * varint index. Names rather than numeric IDs keep blocks readable across Minecraft
+ * versions. Amount, durability, display name, lore and enchantments are encoded
+ * directly; items with any other meta (books, skulls, potions, ...) fall back to Bukkit
+ * object serialization for that item only.
+ * <p>
+ * Block layout: {@code [version][flags][raw length][stored length][stored bytes]}, where
+ * the stored bytes are deflated when that makes the block smaller.
+ */
+@Log
+public final class ItemStackCodec {
+    private static final byte VERSION = 1;
+
+    private static final int BLOCK_COMPRESSED = 1;
+    private static final int COMPRESSION_THRESHOLD = 256;
+
+    private static final int ITEM_NAME = 1;
+    private static final int ITEM_LORE = 2;
+    private static final int ITEM_ENCHANTS = 4;
+    private static final int ITEM_SERIALIZED = 8;
+
+    // Meta that serializes to nothing beyond these keys can be encoded field by field
+    private static final Set<String> SIMPLE_META_KEYS = new HashSet<>(
+            Arrays.asList("meta-type", "display-name", "lore", "enchants"));
+
+    private final boolean compress;
+
+    /**
+     * @param compress deflate blocks larger than a few hundred bytes when it pays off
+     */
+    public ItemStackCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    /**
+     * Encode a single item list into its own block
+     */
+    public ByteBuffer encode(List<ItemStack> items) throws IOException {
+        return encodeAll(Collections.singletonList(items));
+    }
+
+    /**
+     * Encode several item lists into one block sharing a single dictionary
+     */
+    public ByteBuffer encodeAll(List<List<ItemStack>> lists) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        BufferOutput body = new BufferOutput(64 + lists.size() * 128);
+
+        body.writeVarInt(lists.size());
+        for (List<ItemStack> items : lists) {
+            body.writeVarInt(items.size());
+            for (ItemStack item : items) {
+                writeItem(body, item, dictionary);
+            }
+        }
+
+        BufferOutput raw = new BufferOutput(body.position() + dictionary.size() * 16 + 8);
+        raw.writeVarInt(dictionary.size());
+        for (String name : dictionary.keySet()) {
+            raw.writeString(name);
+        }
+        raw.writeBytes(body.toBuffer());
+
+        int rawLength = raw.position();
+        byte[] stored = raw.array();
+        int storedLength = rawLength;
+        int flags = 0;
+        if (compress && rawLength >= COMPRESSION_THRESHOLD) {
+            byte[] deflated = deflate(stored, rawLength);
+            if (deflated.length < rawLength) {
+                stored = deflated;
+                storedLength = deflated.length;
+                flags |= BLOCK_COMPRESSED;
+            }
+        }
+
+        BufferOutput out = new BufferOutput(storedLength + 12);
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        out.writeVarInt(rawLength);
+        out.writeVarInt(storedLength);
+        out.writeBytes(stored, 0, storedLength);
+        return out.toBuffer();
+    }
+
+    /**
+     * Decode a block written by {@link #encode(List)}, advancing past it
+     */
+    public List<ItemStack> decode(ByteBuffer in) throws IOException {
+        List<List<ItemStack>> lists = decodeAll(in);
+        if (lists.size() != 1) {
+            throw new IOException("Expected one item list, found " + lists.size());
+        }
+        return lists.get(0);
+    }
+
+    /**
+     * Decode a block written by {@link #encodeAll(List)}, advancing past it
+     */
+    public List<List<ItemStack>> decodeAll(ByteBuffer in) throws IOException {
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported item block version " + version);
+        }
+        int flags = in.get();
+        int rawLength = BufferOutput.readVarInt(in);
+        int storedLength = BufferOutput.readVarInt(in);
+        if (rawLength < 0 || storedLength < 0 || storedLength > in.remaining()) {
+            throw new IOException("Malformed item block");
+        }
+
+        ByteBuffer raw;
+        if ((flags & BLOCK_COMPRESSED) != 0) {
+            byte[] stored = new byte[storedLength];
+            in.get(stored);
+            raw = ByteBuffer.wrap(inflate(stored, rawLength));
+        } else {
+            raw = in.slice();
+            raw.limit(storedLength);
+            in.position(in.position() + storedLength);
+        }
+
+        String[] dictionary = new String[BufferOutput.readVarInt(raw)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = BufferOutput.readString(raw);
+        }
+
+        int listCount = BufferOutput.readVarInt(raw);
+        List<List<ItemStack>> lists = new ArrayList<>(listCount);
+        for (int i = 0; i < listCount; i++) {
+            int itemCount = BufferOutput.readVarInt(raw);
+            List<ItemStack> items = new ArrayList<>(itemCount);
+            for (int j = 0; j < itemCount; j++) {
+                ItemStack item = readItem(raw, dictionary);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            lists.add(items);
+        }
+        return lists;
+    }
+
+    private static void writeItem(BufferOutput out, ItemStack item, Map<String, Integer> dictionary) throws IOException {
+        if (item == null || item.getType() == Material.AIR) {
+            out.writeVarInt(0);
+            return;
+        }
+
+        out.writeVarInt(index(dictionary, item.getType().name()) + 1);
+        out.writeVarInt(item.getAmount());
+        out.writeVarInt(zigZag(item.getDurability()));
+
+        ItemMeta meta = item.hasItemMeta() ? item.getItemMeta() : null;
+        if (meta == null) {
+            out.writeByte(0);
+            return;
+        }
+
+        Map<String, Object> serialized = meta.serialize();
+        if (!SIMPLE_META_KEYS.containsAll(serialized.keySet())
+                || !"UNSPECIFIC".equals(serialized.get("meta-type"))) {
+            out.writeByte(ITEM_SERIALIZED);
+            byte[] bytes = serialize(item);
+            out.writeVarInt(bytes.length);
+            out.writeBytes(bytes, 0, bytes.length);
+            return;
+        }
+
+        int flags = (meta.hasDisplayName() ? ITEM_NAME : 0)
+                | (meta.hasLore() ? ITEM_LORE : 0)
+                | (meta.hasEnchants() ? ITEM_ENCHANTS : 0);
+        out.writeByte(flags);
+
+        if ((flags & ITEM_NAME) != 0) {
+            out.writeString(meta.getDisplayName());
+        }
+        if ((flags & ITEM_LORE) != 0) {
+            List<String> lore = meta.getLore();
+            out.writeVarInt(lore.size());
+            for (String line : lore) {
+                out.writeString(line);
+            }
+        }
+        if ((flags & ITEM_ENCHANTS) != 0) {
+            Map<Enchantment, Integer> enchants = meta.getEnchants();
+            out.writeVarInt(enchants.size());
+            for (Map.Entry<Enchantment, Integer> enchant : enchants.entrySet()) {
+                out.writeVarInt(index(dictionary, enchant.getKey().getName()));
+                out.writeVarInt(enchant.getValue());
+            }
+        }
+    }
+
+    private static ItemStack readItem(ByteBuffer in, String[] dictionary) throws IOException {
+        int materialIndex = BufferOutput.readVarInt(in);
+        if (materialIndex == 0) {
+            return null;
+        }
+
+        String materialName = lookup(dictionary, materialIndex - 1);
+        int amount = BufferOutput.readVarInt(in);
+        short durability = (short) unZigZag(BufferOutput.readVarInt(in));
+        int flags = in.get();
+
+        if ((flags & ITEM_SERIALIZED) != 0) {
+            byte[] bytes = new byte[BufferOutput.readVarInt(in)];
+            in.get(bytes);
+            return deserialize(bytes);
+        }
+
+        // Read everything before deciding, so an unknown material cannot desync the stream
+        String displayName = (flags & ITEM_NAME) != 0 ? BufferOutput.readString(in) : null;
+        List<String> lore = null;
+        if ((flags & ITEM_LORE) != 0) {
+            int lines = BufferOutput.readVarInt(in);
+            lore = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) {
+                lore.add(BufferOutput.readString(in));
+            }
+        }
+        Map<Enchantment, Integer> enchants = null;
+        if ((flags & ITEM_ENCHANTS) != 0) {
+            int count = BufferOutput.readVarInt(in);
+            enchants = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = lookup(dictionary, BufferOutput.readVarInt(in));
+                int level = BufferOutput.readVarInt(in);
+                Enchantment enchantment = Enchantment.getByName(name);
+                if (enchantment != null) {
+                    enchants.put(enchantment, level);
+                } else {
+                    log.warning("Dropping unknown enchantment " + name + " from a saved item");
+                }
+            }
+        }
+
+        Material material = Material.getMaterial(materialName);
+        if (material == null) {
+            log.warning("Dropping saved item with unknown material " + materialName);
+            return null;
+        }
+
+        ItemStack item = new ItemStack(material, amount, durability);
+        if (flags != 0) {
+            ItemMeta meta = item.getItemMeta();
+            if (displayName != null) {
+                meta.setDisplayName(displayName);
+            }
+            if (lore != null) {
+                meta.setLore(lore);
+            }
+            if (enchants != null) {
+                for (Map.Entry<Enchantment, Integer> enchant : enchants.entrySet()) {
+                    meta.addEnchant(enchant.getKey(), enchant.getValue(), true);
+                }
+            }
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private static int index(Map<String, Integer> dictionary, String name) {
+        Integer index = dictionary.get(name);
+        if (index == null) {
+            index = dictionary.size();
+            dictionary.put(name, index);
+        }
+        return index;
+    }
+
+    private static String lookup(String[] dictionary, int index) throws IOException {
+        if (index < 0 || index >= dictionary.length) {
+            throw new IOException("Dictionary index " + index + " out of range");
+        }
+        return dictionary[index];
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] serialize(ItemStack item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BukkitObjectOutputStream objects = new BukkitObjectOutputStream(bytes)) {
+            objects.writeObject(item);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ItemStack deserialize(byte[] bytes) throws IOException {
+        try (BukkitObjectInputStream objects = new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (ItemStack) objects.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unreadable item data", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes, 0, length);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("Truncated compressed item block");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed item block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package dev.antry.antrydeathloot.placement;
+
+import dev.antry.antrydeathloot.managers.LogManager;
+import dev.antry.antrydeathloot.metrics.Histogram;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import dev.antry.antrydeathloot.utils.VersionAdapter;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Finds a safe spot for a death chest: an air block on solid ground with room to open
+ * the lid.
+ * <p>
+ * The death location is checked in the world first, which settles almost every death.
+ * Otherwise the loaded chunks around it are captured as {@link ChunkSnapshot}s and the
+ * neighbourhood is searched off the server threads, nearest positions first, until a
+ * spot is found or the check budget runs out. The search never loads a chunk.
+ */
+public class PlacementResolver {
+
+    /**
+     * Where the chest goes when no safe spot is found
+     */
+    public enum Fallback {
+        // The death location, moved inside the world's height limits
+        EXACT,
+        // On top of the highest block above the death location
+        HIGHEST,
+        // No chest; the items drop like a normal death
+        DROP
+    }
+
+    private static final Set<Material> AIR = airTypes();
+
+    private final TaskExecutor executor;
+    private final VersionAdapter adapter;
+    private final Histogram searchLatency;
+    private final int radius;
+    private final int maxChecks;
+    // Packed (dx, dy, dz) triples, nearest first
+    private final int[] offsets;
+
+    /**
+     * @param radius how far to search sideways, in blocks
+     * @param height how far to search up and down, in blocks
+     * @param maxChecks most positions checked per search
+     * @param searchLatency records the time each search takes
+     */
+    public PlacementResolver(TaskExecutor executor, VersionAdapter adapter, int radius, int height, int maxChecks,
+                             Histogram searchLatency) {
+        this.executor = executor;
+        this.adapter = adapter;
+        this.radius = radius;
+        this.maxChecks = maxChecks;
+        this.searchLatency = searchLatency;
+        this.offsets = sortedOffsets(radius, height);
+    }
+
+    /**
+     * Parse a configured fallback
+     * @return the fallback, or {@link Fallback#HIGHEST} if the value is unknown
+     */
+    public static Fallback parseFallback(String configured) {
+        try {
+            return Fallback.valueOf(configured.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LogManager.warning("Unknown placement fallback '" + configured + "', using highest");
+            return Fallback.HIGHEST;
+        }
+    }
+
+    /**
+     * Check a position in the world. Call on the thread owning it.
+     * @return true if a chest can go here without replacing anything
+     */
+    public boolean isSafe(Location location) {
+        World world = location.getWorld();
+        int y = location.getBlockY();
+        if (world == null || y <= adapter.getMinHeight(world) || y >= world.getMaxHeight() - 1) {
+            return false;
+        }
+        Block block = location.getBlock();
+        return isSafe(block.getType(), block.getRelative(BlockFace.DOWN).getType(), block.getRelative(BlockFace.UP).getType());
+    }
+
+    /**
+     * Search the neighbourhood of a death for a safe spot. Call on the thread owning the
+     * death location; the snapshots are taken right away and the search runs async.
+     * @param death the block the player died in
+     * @param callback receives the spot, or null if none was found, on the thread owning
+     *                 the spot (or the death location)
+     */
+    public void resolve(Location death, Consumer<Location> callback) {
+        if (!adapter.canReadSnapshots()) {
+            callback.accept(null);
+            return;
+        }
+
+        World world = death.getWorld();
+        int minY = adapter.getMinHeight(world);
+        int maxY = world.getMaxHeight();
+
+        int minChunkX = (death.getBlockX() - radius) >> 4;
+        int minChunkZ = (death.getBlockZ() - radius) >> 4;
+        int spanX = ((death.getBlockX() + radius) >> 4) - minChunkX + 1;
+        int spanZ = ((death.getBlockZ() + radius) >> 4) - minChunkZ + 1;
+        ChunkSnapshot[] snapshots = new ChunkSnapshot[spanX * spanZ];
+        for (int cx = 0; cx < spanX; cx++) {
+            for (int cz = 0; cz < spanZ; cz++) {
+                int chunkX = minChunkX + cx;
+                int chunkZ = minChunkZ + cz;
+                // Chunks that are unloaded or owned by another region are left out of the search
+                if (world.isChunkLoaded(chunkX, chunkZ)
+                        && executor.isOwnedByCurrentThread(new Location(world, chunkX << 4, death.getBlockY(), chunkZ << 4))) {
+                    snapshots[cx * spanZ + cz] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+                }
+            }
+        }
+
+        // Deaths in the void or above the build limit search from the nearest height in the world
+        int y = Math.max(minY + 1, Math.min(maxY - 2, death.getBlockY()));
+        Search search = new Search(world, death.getBlockX(), y, death.getBlockZ(), minY, maxY,
+                minChunkX, minChunkZ, spanZ, snapshots);
+        executor.runAsync(() -> {
+            long start = System.nanoTime();
+            Location found = null;
+            try {
+                found = search.run();
+            } catch (Exception e) {
+                LogManager.warning("Error searching for a death chest spot", e);
+            }
+            searchLatency.recordSince(start);
+
+            Location result = found;
+            executor.runAt(result != null ? result : death, () -> callback.accept(result));
+        });
+    }
+
+    /**
+     * Find the chest spot for a fallback. Call on the thread owning the death location.
+     * @return the spot, or null to drop the items
+     */
+    public Location fallback(Location death, Fallback fallback) {
+        World world = death.getWorld();
+        int minY = adapter.getMinHeight(world);
+        int maxY = world.getMaxHeight();
+        Location exact = new Location(world, death.getBlockX(), Math.max(minY, Math.min(maxY - 1, death.getBlockY())),
+                death.getBlockZ());
+        switch (fallback) {
+            case DROP:
+                return null;
+            case HIGHEST:
+                // Older servers return the air block above the highest block, newer ones the block itself
+                Block highest = world.getHighestBlockAt(death.getBlockX(), death.getBlockZ());
+                if (!AIR.contains(highest.getType())) {
+                    highest = highest.getRelative(BlockFace.UP);
+                }
+                if (highest.getY() < maxY && highest.getRelative(BlockFace.DOWN).getType().isSolid()) {
+                    return highest.getLocation();
+                }
+                // Nothing to stand on in this column, e.g. over the void
+                return exact;
+            default:
+                return exact;
+        }
+    }
+
+    private static boolean isSafe(Material block, Material below, Material above) {
+        // Vanilla chests cannot be opened under an occluding block
+        return block != null && below != null && above != null
+                && AIR.contains(block) && below.isSolid() && !above.isOccluding();
+    }
+
+    private static Set<Material> airTypes() {
+        // CAVE_AIR and VOID_AIR since 1.13
+        Set<Material> air = EnumSet.noneOf(Material.class);
+        for (Material material : Material.values()) {
+            if (material.name().equals("AIR") || material.name().endsWith("_AIR")) {
+                air.add(material);
+            }
+        }
+        return air;
+    }
+
+    private static int[] sortedOffsets(int radius, int height) {
+        List<int[]> offsets = new ArrayList<>();
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                for (int dy = -height; dy <= height; dy++) {
+                    offsets.add(new int[]{dx, dy, dz});
+                }
+            }
+        }
+        // Nearest first; among equals prefer the same height, then lower
+        offsets.sort(Comparator.<int[]>comparingInt(o -> o[0] * o[0] + o[1] * o[1] + o[2] * o[2])
+                .thenComparingInt(o -> Math.abs(o[1]))
+                .thenComparingInt(o -> o[1]));
+
+        int[] packed = new int[offsets.size() * 3];
+        for (int i = 0; i < offsets.size(); i++) {
+            System.arraycopy(offsets.get(i), 0, packed, i * 3, 3);
+        }
+        return packed;
+    }
+
+    /**
+     * One search over captured snapshots; only touches its own state
+     */
+    private final class Search {
+        private final World world;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final int minY;
+        private final int maxY;
+        private final int minChunkX;
+        private final int minChunkZ;
+        private final int spanZ;
+        private final ChunkSnapshot[] snapshots;
+
+        private Search(World world, int x, int y, int z, int minY, int maxY, int minChunkX, int minChunkZ, int spanZ,
+                       ChunkSnapshot[] snapshots) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.minChunkX = minChunkX;
+            this.minChunkZ = minChunkZ;
+            this.spanZ = spanZ;
+            this.snapshots = snapshots;
+        }
+
+        private Location run() {
+            int checks = 0;
+            for (int i = 0; i < offsets.length && checks < maxChecks; i += 3) {
+                int bx = x + offsets[i];
+                int by = y + offsets[i + 1];
+                int bz = z + offsets[i + 2];
+                if (by <= minY || by >= maxY - 1) {
+                    continue;
+                }
+                ChunkSnapshot snapshot = snapshots[((bx >> 4) - minChunkX) * spanZ + (bz >> 4) - minChunkZ];
+                if (snapshot == null) {
+                    continue;
+                }
+
+                checks++;
+                if (isSafe(type(snapshot, bx, by, bz), type(snapshot, bx, by - 1, bz), type(snapshot, bx, by + 1, bz))) {
+                    return new Location(world, bx, by, bz);
+                }
+            }
+            return null;
+        }
+
+        private Material type(ChunkSnapshot snapshot, int bx, int by, int bz) {
+            return adapter.getBlockType(snapshot, bx & 15, by, bz & 15);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package dev.antry.antrydeathloot.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Consumer;
+
+/**
+ * Runs world work on the owning region's thread and plugin-wide work on the global
+ * region, for region-threaded servers (Folia).
+ * <p>
+ * The region schedulers are not part of the API this plugin compiles against, so they
+ * are bound once through {@link MethodHandle}s when the executor is created.
+ */
+public final class RegionTaskExecutor implements TaskExecutor {
+    private static final String REGIONIZED_SERVER = "io.papermc.paper.threadedregions.RegionizedServer";
+
+    private final Plugin plugin;
+    private final MethodHandle isOwnedByCurrentRegion;
+    // (Plugin, Location, Runnable)
+    private final MethodHandle regionExecute;
+    // (Plugin, Location, Consumer, long) -> ScheduledTask
+    private final MethodHandle regionRunDelayed;
+    // (Plugin, Runnable)
+    private final MethodHandle globalExecute;
+    // (Plugin, Consumer, long) -> ScheduledTask
+    private final MethodHandle globalRunDelayed;
+    // (Plugin, Consumer, long, long) -> ScheduledTask
+    private final MethodHandle globalRunAtFixedRate;
+    // (Plugin, Consumer) -> ScheduledTask
+    private final MethodHandle asyncRunNow;
+    private final MethodHandle cancel;
+
+    /**
+     * @return true if the server runs regions on separate threads
+     */
+    public static boolean isSupported() {
+        try {
+            Class.forName(REGIONIZED_SERVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    public RegionTaskExecutor(Plugin plugin) {
+        this.plugin = plugin;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ClassLoader loader = Bukkit.class.getClassLoader();
+            Class<?> regionScheduler = Class.forName("io.papermc.paper.threadedregions.scheduler.RegionScheduler", true, loader);
+            Class<?> globalScheduler = Class.forName("io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler", true, loader);
+            Class<?> asyncScheduler = Class.forName("io.papermc.paper.threadedregions.scheduler.AsyncScheduler", true, loader);
+            Class<?> scheduledTask = Class.forName("io.papermc.paper.threadedregions.scheduler.ScheduledTask", true, loader);
+
+            Server server = Bukkit.getServer();
+            Object region = lookup.findVirtual(Server.class, "getRegionScheduler", MethodType.methodType(regionScheduler))
+                    .invoke(server);
+            Object global = lookup.findVirtual(Server.class, "getGlobalRegionScheduler", MethodType.methodType(globalScheduler))
+                    .invoke(server);
+            Object async = lookup.findVirtual(Server.class, "getAsyncScheduler", MethodType.methodType(asyncScheduler))
+                    .invoke(server);
+
+            this.isOwnedByCurrentRegion = lookup.findVirtual(Server.class, "isOwnedByCurrentRegion",
+                    MethodType.methodType(boolean.class, Location.class)).bindTo(server);
+            this.regionExecute = lookup.findVirtual(regionScheduler, "execute",
+                    MethodType.methodType(void.class, Plugin.class, Location.class, Runnable.class)).bindTo(region);
+            this.regionRunDelayed = lookup.findVirtual(regionScheduler, "runDelayed",
+                    MethodType.methodType(scheduledTask, Plugin.class, Location.class, Consumer.class, long.class)).bindTo(region);
+            this.globalExecute = lookup.findVirtual(globalScheduler, "execute",
+                    MethodType.methodType(void.class, Plugin.class, Runnable.class)).bindTo(global);
+            this.globalRunDelayed = lookup.findVirtual(globalScheduler, "runDelayed",
+                    MethodType.methodType(scheduledTask, Plugin.class, Consumer.class, long.class)).bindTo(global);
+            this.globalRunAtFixedRate = lookup.findVirtual(globalScheduler, "runAtFixedRate",
+                    MethodType.methodType(scheduledTask, Plugin.class, Consumer.class, long.class, long.class)).bindTo(global);
+            this.asyncRunNow = lookup.findVirtual(asyncScheduler, "runNow",
+                    MethodType.methodType(scheduledTask, Plugin.class, Consumer.class)).bindTo(async);
+            // Returns a CancelledState enum that is of no use here
+            this.cancel = lookup.unreflect(scheduledTask.getMethod("cancel"));
+        } catch (Throwable e) {
+            throw new IllegalStateException("Region schedulers are not available", e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "region threads";
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Location location) {
+        try {
+            return (boolean) isOwnedByCurrentRegion.invoke(location);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void runAt(Location location, Runnable task) {
+        if (isOwnedByCurrentThread(location)) {
+            task.run();
+            return;
+        }
+        try {
+            regionExecute.invoke(plugin, location, task);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public Task runAtLater(Location location, Runnable task, long delayTicks) {
+        try {
+            return handle(regionRunDelayed.invoke(plugin, location, consumer(task), Math.max(1L, delayTicks)));
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        try {
+            globalExecute.invoke(plugin, task);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        try {
+            return handle(globalRunDelayed.invoke(plugin, consumer(task), Math.max(1L, delayTicks)));
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        try {
+            return handle(globalRunAtFixedRate.invoke(plugin, consumer(task), Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        try {
+            asyncRunNow.invoke(plugin, consumer(task));
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static Consumer<Object> consumer(Runnable task) {
+        return scheduled -> task.run();
+    }
+
+    private Task handle(Object scheduledTask) {
+        return () -> {
+            try {
+                cancel.invoke(scheduledTask);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+}
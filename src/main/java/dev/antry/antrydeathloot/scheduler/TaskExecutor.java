@@ -0,0 +1,76 @@
+package dev.antry.antrydeathloot.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Where plugin work runs.
+ * <p>
+ * On a regular server everything runs on the main thread. On a region-threaded server
+ * (Folia) world work must run on the thread that owns the region of the location it
+ * touches, and plugin-wide work runs on the global region. Code that touches blocks or
+ * entities goes through {@link #runAt(Location, Runnable)}; everything else through the
+ * global methods.
+ */
+public interface TaskExecutor {
+
+    /**
+     * Handle for cancelling a scheduled task
+     */
+    interface Task {
+        void cancel();
+    }
+
+    /**
+     * Pick the executor for the running server
+     * @param plugin the owning plugin
+     */
+    static TaskExecutor create(Plugin plugin) {
+        return RegionTaskExecutor.isSupported() ? new RegionTaskExecutor(plugin) : new BukkitTaskExecutor(plugin);
+    }
+
+    /**
+     * @return short name used in logs
+     */
+    String getName();
+
+    /**
+     * @return true if the current thread may touch blocks and entities at the location
+     */
+    boolean isOwnedByCurrentThread(Location location);
+
+    /**
+     * Run world work at a location: right away if the current thread owns it, otherwise as
+     * soon as possible on the thread that does
+     */
+    void runAt(Location location, Runnable task);
+
+    /**
+     * Run world work at a location after a delay
+     * @param delayTicks delay in server ticks, at least 1
+     */
+    Task runAtLater(Location location, Runnable task, long delayTicks);
+
+    /**
+     * Run plugin-wide work that does not touch the world
+     */
+    void runGlobal(Runnable task);
+
+    /**
+     * Run plugin-wide work after a delay
+     * @param delayTicks delay in server ticks, at least 1
+     */
+    Task runGlobalLater(Runnable task, long delayTicks);
+
+    /**
+     * Run plugin-wide work repeatedly
+     * @param delayTicks delay before the first run, at least 1
+     * @param periodTicks ticks between runs
+     */
+    Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Run work off every server thread, e.g. file IO
+     */
+    void runAsync(Runnable task);
+}
@@ -0,0 +1,166 @@
+package dev.antry.antrydeathloot.scheduler;
+
+import dev.antry.antrydeathloot.managers.LogManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bounded FIFO of deferred work, drained a limited amount per server tick.
+ * <p>
+ * {@link #drain()} handles entries until either the per-tick count or the per-tick time
+ * budget is used up, but always at least one so the queue cannot stall. Tracks queue depth
+ * and how long entries wait between {@link #offer(Object)} and being handled. Not
+ * thread-safe: hold the lock passed to {@link #drain(Object)} when touching the queue from
+ * another thread. The depth and wait statistics may be read from any thread.
+ * <p>
+ * The time budget only covers the handler itself. A handler that hands each entry to
+ * another thread, as chest creation does on Folia, is only limited by the per-tick count.
+ *
+ * @param <T> entry type
+ */
+public final class TickBudgetQueue<T> {
+    private final ArrayDeque<Entry<T>> entries = new ArrayDeque<>();
+    private final Consumer<T> handler;
+    private final int capacity;
+    private final int maxPerTick;
+    private final long maxNanosPerTick;
+
+    // Written under the queue's lock; volatile so gauges can read them from any thread
+    private volatile int depth;
+    private volatile long processed;
+    private volatile double averageWaitMillis;
+    private volatile long maxWaitMillis;
+    private volatile int maxDepth;
+
+    /**
+     * @param capacity most entries held at once
+     * @param maxPerTick most entries handled per {@link #drain()}
+     * @param maxMicrosPerTick time budget per {@link #drain()}, in microseconds
+     * @param handler handles one entry
+     */
+    public TickBudgetQueue(int capacity, int maxPerTick, long maxMicrosPerTick, Consumer<T> handler) {
+        this.capacity = capacity;
+        this.maxPerTick = maxPerTick;
+        this.maxNanosPerTick = maxMicrosPerTick * 1000L;
+        this.handler = handler;
+    }
+
+    /**
+     * Queue an entry for a later tick
+     * @return false if the queue is full and the entry was not queued
+     */
+    public boolean offer(T value) {
+        if (entries.size() >= capacity) {
+            return false;
+        }
+        entries.addLast(new Entry<>(value, System.nanoTime()));
+        depth = entries.size();
+        maxDepth = Math.max(maxDepth, depth);
+        return true;
+    }
+
+    /**
+     * Handle queued entries within this tick's budget
+     */
+    public void drain() {
+        drain(this);
+    }
+
+    /**
+     * Handle queued entries within this tick's budget, taking the lock for each entry
+     * separately so other threads waiting on it get in between entries
+     * @param lock the lock guarding the queue
+     */
+    public void drain(Object lock) {
+        long start = System.nanoTime();
+        int handled = 0;
+        while (true) {
+            synchronized (lock) {
+                Entry<T> entry = entries.pollFirst();
+                if (entry == null) {
+                    return;
+                }
+                depth = entries.size();
+                recordWait(start - entry.queuedAt);
+                try {
+                    handler.accept(entry.value);
+                } catch (Exception e) {
+                    LogManager.warning("Error handling queued work", e);
+                }
+            }
+
+            if (++handled >= maxPerTick || System.nanoTime() - start >= maxNanosPerTick) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove every queued entry without handling it
+     * @return the removed entries, oldest first
+     */
+    public List<T> removeAll() {
+        List<T> values = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            values.add(entry.value);
+        }
+        entries.clear();
+        depth = 0;
+        return values;
+    }
+
+    /**
+     * @return the number of entries waiting
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the largest depth seen since creation
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the number of entries handled since creation
+     */
+    public long getProcessedCount() {
+        return processed;
+    }
+
+    /**
+     * @return moving average of the time entries waited before being handled, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    /**
+     * @return the longest time an entry waited before being handled, in milliseconds
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    private void recordWait(long waitNanos) {
+        double waitMillis = waitNanos / 1_000_000.0;
+        averageWaitMillis = processed == 0 ? waitMillis : averageWaitMillis * 0.9 + waitMillis * 0.1;
+        maxWaitMillis = Math.max(maxWaitMillis, (long) waitMillis);
+        processed++;
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long queuedAt;
+
+        private Entry(T value, long queuedAt) {
+            this.value = value;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package dev.antry.antrydeathloot.scheduler;
+
+import dev.antry.antrydeathloot.managers.LogManager;
+
+/**
+ * Hashed timing wheel keyed by absolute deadline tick.
+ * <p>
+ * A single repeating task calls {@link #tick()} once per server tick; every death
+ * chest timer lives in one of the wheel buckets instead of the server scheduler.
+ * Scheduling, rescheduling and cancelling are all O(1). Not thread-safe: hold the lock
+ * passed to {@link #tick(Object)} when touching the wheel from another thread.
+ */
+public final class TimingWheel {
+
+    /**
+     * Callback fired when a timeout reaches its deadline
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * @param timeout the timeout that fired, which may be rescheduled from inside the callback
+         */
+        void run(Timeout timeout);
+    }
+
+    private final Timeout[] buckets;
+    private final int mask;
+    private long currentTick;
+    // Written under the owner's lock; volatile so gauges can read it from any thread
+    private volatile int pending;
+
+    /**
+     * @param size number of buckets, rounded up to a power of two
+     */
+    public TimingWheel(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+        this.buckets = new Timeout[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Create and schedule a timeout
+     * @param delayTicks ticks from now until the task fires (minimum 1)
+     * @param task the task to run
+     * @return the scheduled timeout
+     */
+    public Timeout schedule(long delayTicks, Task task) {
+        Timeout timeout = new Timeout(this, task);
+        timeout.reschedule(delayTicks);
+        return timeout;
+    }
+
+    /**
+     * Advance the wheel by one tick and fire every timeout whose deadline has been reached
+     */
+    public void tick() {
+        tick(this);
+    }
+
+    /**
+     * Advance the wheel by one tick and fire every timeout whose deadline has been reached.
+     * The lock is taken for each timeout separately rather than for the whole bucket, so
+     * other threads waiting on it get in between timeouts.
+     * @param lock the lock guarding the wheel
+     */
+    public void tick(Object lock) {
+        long now;
+        int index;
+        Timeout next;
+        synchronized (lock) {
+            now = ++currentTick;
+            index = (int) (now & mask);
+            next = buckets[index];
+        }
+
+        while (true) {
+            synchronized (lock) {
+                // The bucket may have changed since the last timeout; restart from the head if our
+                // successor was cancelled or moved
+                Timeout node = next != null && next.bucket == index ? next : buckets[index];
+                while (node != null && node.deadline > now) {
+                    node = node.next;
+                }
+                if (node == null) {
+                    return;
+                }
+
+                next = node.next;
+                unlink(node);
+                try {
+                    node.task.run(node);
+                } catch (Exception e) {
+                    LogManager.warning("Error running timer task", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop every pending timeout without running it
+     */
+    public void clear() {
+        for (int i = 0; i < buckets.length; i++) {
+            Timeout node = buckets[i];
+            while (node != null) {
+                Timeout next = node.next;
+                node.prev = null;
+                node.next = null;
+                node.bucket = -1;
+                node = next;
+            }
+            buckets[i] = null;
+        }
+        pending = 0;
+    }
+
+    /**
+     * @return the number of timeouts waiting to fire
+     */
+    public int getPendingCount() {
+        return pending;
+    }
+
+    private void link(Timeout timeout) {
+        int index = (int) (timeout.deadline & mask);
+        Timeout head = buckets[index];
+        timeout.bucket = index;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[index] = timeout;
+        pending++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        pending--;
+    }
+
+    /**
+     * Handle for a single entry in the wheel
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final Task task;
+        private long deadline;
+        private int bucket = -1;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Task task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        /**
+         * Move this timeout to a new deadline relative to the wheel's current tick
+         * @param delayTicks ticks from now until the task fires (minimum 1)
+         */
+        public void reschedule(long delayTicks) {
+            if (bucket >= 0) {
+                wheel.unlink(this);
+            }
+            deadline = wheel.currentTick + Math.max(1L, delayTicks);
+            wheel.link(this);
+        }
+
+        /**
+         * Remove this timeout from the wheel without running it
+         * @return true if the timeout was pending
+         */
+        public boolean cancel() {
+            if (bucket < 0) {
+                return false;
+            }
+            wheel.unlink(this);
+            return true;
+        }
+
+        /**
+         * @return the task this timeout runs
+         */
+        public Task getTask() {
+            return task;
+        }
+
+        /**
+         * @return ticks left until this timeout fires, or 0 if it is not pending
+         */
+        public long getRemainingTicks() {
+            return bucket >= 0 ? Math.max(0L, deadline - wheel.currentTick) : 0L;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package dev.antry.antrydeathloot.text;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configured message parsed once into literal segments and placeholder slots.
+ * <p>
+ * Color codes are translated at compile time, so values substituted at render time are
+ * never colorized. Rendering is a single pass into a pre-sized {@link StringBuilder}; a
+ * template without placeholders renders to the same string every time. Immutable.
+ */
+public final class MessageTemplate {
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    private final String[] literals;
+    private final Placeholder[] slots;
+    private final int literalLength;
+    private final String constant;
+
+    private MessageTemplate(String[] literals, Placeholder[] slots, int literalLength) {
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+        this.constant = slots.length == 0 ? literals[0] : null;
+    }
+
+    /**
+     * @param raw the message as configured, with &amp; color codes; null is treated as empty
+     */
+    public static MessageTemplate compile(String raw) {
+        String source = raw == null ? "" : ChatColor.translateAlternateColorCodes('&', raw);
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        int i = 0;
+        while (i < source.length()) {
+            int open = source.indexOf('%', i);
+            int close = open < 0 ? -1 : source.indexOf('%', open + 1);
+            if (close < 0) {
+                literal.append(source, i, source.length());
+                break;
+            }
+
+            Placeholder placeholder = Placeholder.lookup(source, open + 1, close);
+            if (placeholder == null) {
+                // Not a placeholder; keep the first % and look again from the second
+                literal.append(source, i, close);
+                i = close;
+                continue;
+            }
+
+            literal.append(source, i, open);
+            literals.add(literal.toString());
+            literalLength += literal.length();
+            literal.setLength(0);
+            slots.add(placeholder);
+            i = close + 1;
+        }
+        literals.add(literal.toString());
+        literalLength += literal.length();
+
+        return new MessageTemplate(literals.toArray(new String[0]), slots.toArray(new Placeholder[0]), literalLength);
+    }
+
+    /**
+     * @return the rendered message with every placeholder left as its token
+     */
+    public String render() {
+        return constant != null ? constant : render(new TemplateValues());
+    }
+
+    public String render(TemplateValues values) {
+        if (constant != null) {
+            return constant;
+        }
+
+        StringBuilder out = new StringBuilder(literalLength + slots.length * ESTIMATED_VALUE_LENGTH);
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            values.appendTo(out, slots[i]);
+            out.append(literals[i + 1]);
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return true if the template contains the placeholder
+     */
+    public boolean uses(Placeholder placeholder) {
+        for (Placeholder slot : slots) {
+            if (slot == placeholder) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the template renders to an empty string
+     */
+    public boolean isEmpty() {
+        return slots.length == 0 && literals[0].isEmpty();
+    }
+}
@@ -0,0 +1,58 @@
+package dev.antry.antrydeathloot.text;
+
+/**
+ * Placeholders recognised in configured messages, written as {@code %name%}
+ */
+public enum Placeholder {
+    PLAYER("player", false),
+    TIME("time", true),
+    SECONDS("seconds", true),
+    X("x", true),
+    Y("y", true),
+    Z("z", true),
+    WORLD("world", false),
+    ITEMS("items", true),
+    COUNT("count", true);
+
+    private static final Placeholder[] VALUES = values();
+
+    private final String name;
+    private final String token;
+    private final boolean numeric;
+
+    Placeholder(String name, boolean numeric) {
+        this.name = name;
+        this.token = "%" + name + "%";
+        this.numeric = numeric;
+    }
+
+    /**
+     * @return the placeholder as written in the config, e.g. {@code %player%}
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return true if the value is a number rather than text
+     */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * @param source text containing the placeholder name
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the matching placeholder, or null
+     */
+    static Placeholder lookup(String source, int start, int end) {
+        int length = end - start;
+        for (Placeholder placeholder : VALUES) {
+            if (placeholder.name.length() == length && source.regionMatches(start, placeholder.name, 0, length)) {
+                return placeholder;
+            }
+        }
+        return null;
+    }
+}
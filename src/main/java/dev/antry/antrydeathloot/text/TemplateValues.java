@@ -0,0 +1,57 @@
+package dev.antry.antrydeathloot.text;
+
+import org.bukkit.Location;
+
+/**
+ * Values for one {@link MessageTemplate#render(TemplateValues)} call.
+ * <p>
+ * Numbers are stored unboxed and appended straight into the output. Placeholders without
+ * a value render as their literal token. Not thread-safe.
+ */
+public final class TemplateValues {
+    private final String[] text = new String[Placeholder.values().length];
+    private final long[] numbers = new long[Placeholder.values().length];
+    private int present;
+
+    public TemplateValues set(Placeholder placeholder, String value) {
+        if (placeholder.isNumeric()) {
+            throw new IllegalArgumentException(placeholder.getToken() + " takes a number");
+        }
+        text[placeholder.ordinal()] = value;
+        present |= 1 << placeholder.ordinal();
+        return this;
+    }
+
+    public TemplateValues set(Placeholder placeholder, long value) {
+        if (!placeholder.isNumeric()) {
+            throw new IllegalArgumentException(placeholder.getToken() + " takes text");
+        }
+        numbers[placeholder.ordinal()] = value;
+        present |= 1 << placeholder.ordinal();
+        return this;
+    }
+
+    /**
+     * Set {@code %x%}, {@code %y%}, {@code %z%} and {@code %world%} from a block location
+     */
+    public TemplateValues location(Location location) {
+        set(Placeholder.X, location.getBlockX());
+        set(Placeholder.Y, location.getBlockY());
+        set(Placeholder.Z, location.getBlockZ());
+        if (location.getWorld() != null) {
+            set(Placeholder.WORLD, location.getWorld().getName());
+        }
+        return this;
+    }
+
+    void appendTo(StringBuilder out, Placeholder placeholder) {
+        int index = placeholder.ordinal();
+        if ((present & (1 << index)) == 0) {
+            out.append(placeholder.getToken());
+        } else if (placeholder.isNumeric()) {
+            out.append(numbers[index]);
+        } else {
+            out.append(text[index]);
+        }
+    }
+}
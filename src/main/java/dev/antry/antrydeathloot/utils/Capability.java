@@ -0,0 +1,26 @@
+package dev.antry.antrydeathloot.utils;
+
+/**
+ * Server features that differ between supported Minecraft versions
+ */
+public enum Capability {
+    /**
+     * ArmorStand entities, used for holograms (1.8+)
+     */
+    ARMOR_STANDS,
+
+    /**
+     * Namespaced sounds such as {@code BLOCK_CHEST_OPEN} (1.9+)
+     */
+    NEW_SOUNDS,
+
+    /**
+     * Flattened materials (1.13+)
+     */
+    NEW_MATERIALS,
+
+    /**
+     * {@code BlockData}-based block APIs (1.13+)
+     */
+    BLOCK_DATA
+}
@@ -0,0 +1,393 @@
+package dev.antry.antrydeathloot.utils;
+
+import dev.antry.antrydeathloot.managers.LogManager;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.FallingBlock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Version-specific behaviour, resolved once from the server version.
+ * <p>
+ * Capabilities, sounds, the falling block spawner and the world accessors are all looked up in
+ * {@link #resolve(String, String, Logger)}; afterwards every call is a field read or a
+ * {@link MethodHandle} invocation. Immutable.
+ */
+public final class VersionAdapter {
+    private static final Pattern MINOR_VERSION = Pattern.compile("^1\\.(\\d+)");
+
+    private final String bukkitVersion;
+    private final String serverVersion;
+    private final int minorVersion;
+    private final Set<Capability> capabilities;
+    private final Sound chestOpenSound;
+    private final Sound chestCloseSound;
+    private final Sound blockBreakSound;
+    // (World, Location, Material) -> FallingBlock, or null if neither API is available
+    private final MethodHandle fallingBlockSpawner;
+    // (ChunkSnapshot, int, int, int) -> Material, or null if the snapshot API is unknown
+    private final MethodHandle snapshotTypeReader;
+    // (World) -> int, or null before 1.17 where every world starts at 0
+    private final MethodHandle minHeightReader;
+    // (Block) -> String and (Block, String, boolean) -> void through BlockData, or null before 1.13
+    private final MethodHandle blockStateReader;
+    private final MethodHandle blockStateWriter;
+
+    private VersionAdapter(String bukkitVersion, String serverVersion, int minorVersion, Set<Capability> capabilities,
+                           Sound chestOpenSound, Sound chestCloseSound, Sound blockBreakSound,
+                           MethodHandle fallingBlockSpawner, MethodHandle snapshotTypeReader,
+                           MethodHandle minHeightReader, MethodHandle blockStateReader,
+                           MethodHandle blockStateWriter) {
+        this.bukkitVersion = bukkitVersion;
+        this.serverVersion = serverVersion;
+        this.minorVersion = minorVersion;
+        this.capabilities = Collections.unmodifiableSet(capabilities);
+        this.chestOpenSound = chestOpenSound;
+        this.chestCloseSound = chestCloseSound;
+        this.blockBreakSound = blockBreakSound;
+        this.fallingBlockSpawner = fallingBlockSpawner;
+        this.snapshotTypeReader = snapshotTypeReader;
+        this.minHeightReader = minHeightReader;
+        this.blockStateReader = blockStateReader;
+        this.blockStateWriter = blockStateWriter;
+    }
+
+    /**
+     * @param bukkitVersion e.g. {@code 1.8.8-R0.1-SNAPSHOT}
+     * @param serverVersion the server implementation version, for logging
+     * @param logger receives a warning if no falling block or chunk snapshot API could be bound
+     */
+    public static VersionAdapter resolve(String bukkitVersion, String serverVersion, Logger logger) {
+        int minor = parseMinorVersion(bukkitVersion);
+        EnumSet<Capability> capabilities = EnumSet.noneOf(Capability.class);
+
+        if (minor >= 8) {
+            capabilities.add(Capability.ARMOR_STANDS);
+        }
+        if (minor >= 9 && hasConstant(Sound.class, "BLOCK_CHEST_OPEN")) {
+            capabilities.add(Capability.NEW_SOUNDS);
+        }
+        if (minor >= 13 && hasConstant(Material.class, "LEGACY_STONE")) {
+            capabilities.add(Capability.NEW_MATERIALS);
+        }
+
+        MethodHandle spawner = bindBlockDataSpawner();
+        if (spawner != null) {
+            capabilities.add(Capability.BLOCK_DATA);
+        } else {
+            spawner = bindLegacySpawner();
+        }
+        if (spawner == null) {
+            logger.warning("No falling block API found, falling chests will be placed directly");
+        }
+
+        MethodHandle snapshotReader = bindSnapshotTypeReader();
+        if (snapshotReader == null) {
+            snapshotReader = bindLegacySnapshotTypeReader();
+        }
+        if (snapshotReader == null) {
+            logger.warning("No chunk snapshot API found, death chests will not look for a safe spot");
+        }
+
+        return new VersionAdapter(bukkitVersion, serverVersion, minor, capabilities,
+                sound("BLOCK_CHEST_OPEN", "CHEST_OPEN", "CLICK"),
+                sound("BLOCK_CHEST_CLOSE", "CHEST_CLOSE", "CLICK"),
+                sound("BLOCK_WOOD_BREAK", "DIG_WOOD", "CLICK"),
+                spawner, snapshotReader, bindMinHeightReader(),
+                bindBlockStateReader(), bindBlockStateWriter());
+    }
+
+    public boolean supports(Capability capability) {
+        return capabilities.contains(capability);
+    }
+
+    /**
+     * @return every supported capability; unmodifiable
+     */
+    public Set<Capability> getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * @return true before 1.13
+     */
+    public boolean isLegacy() {
+        return !capabilities.contains(Capability.NEW_MATERIALS);
+    }
+
+    public String getBukkitVersion() {
+        return bukkitVersion;
+    }
+
+    public String getServerVersion() {
+        return serverVersion;
+    }
+
+    /**
+     * @return the minor Minecraft version, e.g. 8 for 1.8.8, or 0 if it could not be parsed
+     */
+    public int getMinorVersion() {
+        return minorVersion;
+    }
+
+    /**
+     * @return the chest open sound, or null if the server has none
+     */
+    public Sound getChestOpenSound() {
+        return chestOpenSound;
+    }
+
+    /**
+     * @return the chest close sound, or null if the server has none
+     */
+    public Sound getChestCloseSound() {
+        return chestCloseSound;
+    }
+
+    /**
+     * @return the wood break sound, or null if the server has none
+     */
+    public Sound getBlockBreakSound() {
+        return blockBreakSound;
+    }
+
+    /**
+     * Spawn a falling block through the newest API the server has
+     * @return the falling block, or null if it could not be spawned
+     */
+    public FallingBlock spawnFallingBlock(Location location, Material material) {
+        World world = location.getWorld();
+        if (fallingBlockSpawner == null || world == null) {
+            return null;
+        }
+        try {
+            return (FallingBlock) fallingBlockSpawner.invokeExact(world, location, material);
+        } catch (Throwable e) {
+            LogManager.warning("Failed to spawn falling block", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return true if block types can be read from chunk snapshots
+     */
+    public boolean canReadSnapshots() {
+        return snapshotTypeReader != null;
+    }
+
+    /**
+     * Read a block type from a chunk snapshot; safe on any thread
+     * @param x block x within the chunk, 0-15
+     * @param z block z within the chunk, 0-15
+     * @return the block type, or null if it could not be read
+     */
+    public Material getBlockType(ChunkSnapshot snapshot, int x, int y, int z) {
+        if (snapshotTypeReader == null) {
+            return null;
+        }
+        try {
+            return (Material) snapshotTypeReader.invokeExact(snapshot, x, y, z);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the lowest block Y of the world; 0 before 1.17
+     */
+    public int getMinHeight(World world) {
+        if (minHeightReader == null) {
+            return 0;
+        }
+        try {
+            return (int) minHeightReader.invokeExact(world);
+        } catch (Throwable e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Describe a block's full state, e.g. {@code minecraft:oak_slab[type=bottom,waterlogged=false]}
+     * on 1.13+ or {@code STEP:0} before
+     * @return the state, or null if it could not be read
+     */
+    public String getBlockState(Block block) {
+        if (blockStateReader == null) {
+            return block.getType().name() + ":" + block.getData();
+        }
+        try {
+            return (String) blockStateReader.invokeExact(block);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Set a block to a state from {@link #getBlockState(Block)}, without physics
+     * @return false if the state is not valid on this server, e.g. saved by another version
+     */
+    public boolean setBlockState(Block block, String state) {
+        if (blockStateWriter != null) {
+            try {
+                blockStateWriter.invokeExact(block, state, false);
+                return true;
+            } catch (Throwable e) {
+                return false;
+            }
+        }
+
+        int separator = state.lastIndexOf(':');
+        Material material = separator > 0 ? Material.getMaterial(state.substring(0, separator)) : null;
+        if (material == null) {
+            return false;
+        }
+        try {
+            block.setType(material, false);
+            block.setData(Byte.parseByte(state.substring(separator + 1)), false);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static int parseMinorVersion(String bukkitVersion) {
+        Matcher matcher = MINOR_VERSION.matcher(bukkitVersion != null ? bukkitVersion : "");
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static <E extends Enum<E>> boolean hasConstant(Class<E> type, String name) {
+        try {
+            Enum.valueOf(type, name);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Sound sound(String... names) {
+        for (String name : names) {
+            try {
+                return Sound.valueOf(name);
+            } catch (IllegalArgumentException ignored) {
+                // Try the older name
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 1.13+: {@code world.spawnFallingBlock(location, material.createBlockData())}
+     */
+    private static MethodHandle bindBlockDataSpawner() {
+        try {
+            Class<?> blockData = Class.forName("org.bukkit.block.data.BlockData");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle createBlockData = lookup.findVirtual(Material.class, "createBlockData",
+                    MethodType.methodType(blockData));
+            MethodHandle spawn = lookup.findVirtual(World.class, "spawnFallingBlock",
+                    MethodType.methodType(FallingBlock.class, Location.class, blockData));
+            return MethodHandles.filterArguments(spawn, 2, createBlockData);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 1.13+: {@code snapshot.getBlockType(x, y, z)}
+     */
+    private static MethodHandle bindSnapshotTypeReader() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(ChunkSnapshot.class, "getBlockType",
+                    MethodType.methodType(Material.class, int.class, int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Before 1.13: {@code Material.getMaterial(snapshot.getBlockTypeId(x, y, z))}
+     */
+    private static MethodHandle bindLegacySnapshotTypeReader() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle typeId = lookup.findVirtual(ChunkSnapshot.class, "getBlockTypeId",
+                    MethodType.methodType(int.class, int.class, int.class, int.class));
+            MethodHandle byId = lookup.findStatic(Material.class, "getMaterial",
+                    MethodType.methodType(Material.class, int.class));
+            return MethodHandles.filterReturnValue(typeId, byId);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 1.13+: {@code block.getBlockData().getAsString()}
+     */
+    private static MethodHandle bindBlockStateReader() {
+        try {
+            Class<?> blockData = Class.forName("org.bukkit.block.data.BlockData");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle getBlockData = lookup.findVirtual(Block.class, "getBlockData", MethodType.methodType(blockData));
+            MethodHandle getAsString = lookup.findVirtual(blockData, "getAsString", MethodType.methodType(String.class));
+            return MethodHandles.filterReturnValue(getBlockData, getAsString);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 1.13+: {@code block.setBlockData(Bukkit.createBlockData(state), applyPhysics)}
+     */
+    private static MethodHandle bindBlockStateWriter() {
+        try {
+            Class<?> blockData = Class.forName("org.bukkit.block.data.BlockData");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle createBlockData = lookup.findStatic(Bukkit.class, "createBlockData",
+                    MethodType.methodType(blockData, String.class));
+            MethodHandle setBlockData = lookup.findVirtual(Block.class, "setBlockData",
+                    MethodType.methodType(void.class, blockData, boolean.class));
+            return MethodHandles.filterArguments(setBlockData, 1, createBlockData);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 1.17+: {@code world.getMinHeight()}
+     */
+    private static MethodHandle bindMinHeightReader() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(World.class, "getMinHeight",
+                    MethodType.methodType(int.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Before 1.13: {@code world.spawnFallingBlock(location, material, (byte) 0)}
+     */
+    private static MethodHandle bindLegacySpawner() {
+        try {
+            MethodHandle spawn = MethodHandles.publicLookup().findVirtual(World.class, "spawnFallingBlock",
+                    MethodType.methodType(FallingBlock.class, Location.class, Material.class, byte.class));
+            return MethodHandles.insertArguments(spawn, 3, (byte) 0);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
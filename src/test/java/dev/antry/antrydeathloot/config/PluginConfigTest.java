@@ -0,0 +1,49 @@
+package dev.antry.antrydeathloot.config;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PluginConfigTest {
+
+    @Test
+    public void defaultsAreValid() throws Exception {
+        try (Reader reader = new InputStreamReader(getClass().getClassLoader().getResourceAsStream("config.yml"),
+                StandardCharsets.UTF_8)) {
+            assertTrue(PluginConfig.fromFileConfiguration(YamlConfiguration.loadConfiguration(reader), logger()).isValid());
+        }
+        assertTrue(config("").isValid());
+    }
+
+    @Test
+    public void enumSettingsIgnoreCase() {
+        assertTrue(config("placement:\n  fallback: DROP\nannouncements:\n  scope: Radius\n").isValid());
+        assertTrue(config("placement:\n  fallback: exact\nannouncements:\n  scope: owner\n").isValid());
+    }
+
+    @Test
+    public void unknownPlacementFallbackIsInvalid() {
+        assertFalse(config("placement:\n  fallback: highset\n").isValid());
+    }
+
+    @Test
+    public void unknownAnnouncementScopeIsInvalid() {
+        assertFalse(config("announcements:\n  scope: everyone\n").isValid());
+    }
+
+    private static PluginConfig config(String yaml) {
+        return PluginConfig.fromFileConfiguration(YamlConfiguration.loadConfiguration(new StringReader(yaml)), logger());
+    }
+
+    private static Logger logger() {
+        return Logger.getLogger("test");
+    }
+}
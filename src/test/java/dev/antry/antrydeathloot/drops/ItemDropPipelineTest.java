@@ -0,0 +1,128 @@
+package dev.antry.antrydeathloot.drops;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.managers.DeathChestManager;
+import dev.antry.antrydeathloot.metrics.Gauge;
+import dev.antry.antrydeathloot.simulation.FakeServer;
+import dev.antry.antrydeathloot.simulation.FakeWorld;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.inventory.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ItemDropPipelineTest {
+    private static final int GROUND_Y = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeServer server;
+    private FakeWorld world;
+    private AntryDeathLoot plugin;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeServer();
+        world = server.createWorld("world", GROUND_Y);
+        File dataFolder = folder.newFolder("AntryDeathLoot");
+        writeConfig(dataFolder);
+        plugin = server.enablePlugin(dataFolder);
+        assertTrue("plugin failed to enable", plugin.isEnabled() && plugin.getDeathChestManager() != null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (plugin.isEnabled()) {
+            server.disablePlugin();
+        }
+        server.releasePlugin();
+    }
+
+    @Test
+    public void parkedDropsSpawnWhenTheirChunkLoadsAgain() {
+        DeathChestManager manager = plugin.getDeathChestManager();
+        Player player = server.addPlayer("Victim", new Location(world.getWorld(), 8.5, GROUND_Y, 8.5));
+        List<ItemStack> drops = new ArrayList<>(Arrays.asList(new ItemStack(Material.DIAMOND, 3),
+                new ItemStack(Material.IRON_INGOT, 5), new ItemStack(Material.GOLD_INGOT, 7),
+                new ItemStack(Material.COBBLESTONE, 64)));
+        server.callEvent(new PlayerDeathEvent(player, drops, 0, "Victim died"));
+        for (int i = 0; i < 5 && manager.getActiveChestCount() == 0; i++) {
+            server.getScheduler().tick();
+        }
+        assertEquals(1, manager.getActiveChestCount());
+
+        // One item spawns right away, the rest wait for later ticks
+        Location chest = world.getChestLocations().get(0);
+        manager.breakChest(chest);
+        assertEquals(0, manager.getActiveChestCount());
+        assertEquals(1, countItems());
+        assertEquals(3.0, queuedDrops(), 0.0);
+
+        // The chunk unloads before the budget reaches the rest, and nothing else is left to watch it
+        int chunkX = chest.getBlockX() >> 4;
+        int chunkZ = chest.getBlockZ() >> 4;
+        assertTrue(world.unloadChunk(chunkX, chunkZ));
+        for (int i = 0; i < 5; i++) {
+            server.getScheduler().tick();
+        }
+        assertEquals(3.0, queuedDrops(), 0.0);
+
+        world.loadChunk(chunkX, chunkZ);
+        for (int i = 0; i < 5; i++) {
+            server.getScheduler().tick();
+        }
+        assertEquals(0.0, queuedDrops(), 0.0);
+        assertEquals(4, countItems());
+        assertEquals(0, world.getForcedChunkLoads());
+    }
+
+    private int countItems() {
+        int items = 0;
+        for (Entity entity : world.getWorld().getEntities()) {
+            if (entity instanceof Item) {
+                items++;
+            }
+        }
+        return items;
+    }
+
+    private double queuedDrops() {
+        return plugin.getMetrics().getMetrics().stream()
+                .filter(metric -> metric.getName().equals("deathloot_item_drops_queued"))
+                .mapToDouble(metric -> ((Gauge) metric).get())
+                .sum();
+    }
+
+    private static void writeConfig(File dataFolder) throws Exception {
+        YamlConfiguration config;
+        try (Reader defaults = new InputStreamReader(
+                AntryDeathLoot.class.getClassLoader().getResourceAsStream("config.yml"), StandardCharsets.UTF_8)) {
+            config = YamlConfiguration.loadConfiguration(defaults);
+        }
+        config.set("item-drops.merge-stacks", false);
+        config.set("item-drops.max-per-tick", 1);
+        config.set("falling-chest.enabled", false);
+        config.set("announce-death-chest", false);
+        config.save(new File(dataFolder, "config.yml"));
+    }
+}
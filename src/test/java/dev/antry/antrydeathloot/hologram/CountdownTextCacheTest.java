@@ -0,0 +1,53 @@
+package dev.antry.antrydeathloot.hologram;
+
+import dev.antry.antrydeathloot.config.PluginConfig;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CountdownTextCacheTest {
+
+    @Test
+    public void rendersEverySecondOfALongBreakTime() {
+        PluginConfig config = config("chest-break-time: 86400\nhologram:\n  second-line: \"&c%seconds%s\"\n");
+        CountdownTextCache cache = new CountdownTextCache();
+
+        for (int seconds : new int[]{0, 1, CountdownTextCache.PRERENDERED_SECONDS,
+                CountdownTextCache.PRERENDERED_SECONDS + 1, 3600, 86400, 100000}) {
+            assertEquals("§c" + seconds + "s", cache.get(config, seconds));
+        }
+        assertEquals("§c0s", cache.get(config, -5));
+    }
+
+    @Test
+    public void reusesLinesAboveThePrerenderedRange() {
+        PluginConfig config = config("chest-break-time: 86400\n");
+        CountdownTextCache cache = new CountdownTextCache();
+
+        assertSame(cache.get(config, 5000), cache.get(config, 5000));
+        assertSame(cache.get(config, 10), cache.get(config, 10));
+    }
+
+    @Test
+    public void rebuildsForANewConfig() {
+        CountdownTextCache cache = new CountdownTextCache();
+        assertEquals("§a5", cache.get(config("hologram:\n  second-line: \"&a%seconds%\"\n"), 5));
+        assertEquals("§b5", cache.get(config("hologram:\n  second-line: \"&b%seconds%\"\n"), 5));
+        assertEquals("§b5000", cache.get(config("chest-break-time: 86400\nhologram:\n  second-line: \"&b%seconds%\"\n"), 5000));
+
+        PluginConfig config = config("hologram:\n  second-line: \"&d%seconds%\"\n");
+        cache.get(config, 5000);
+        cache.invalidate();
+        assertEquals("§d5000", cache.get(config, 5000));
+    }
+
+    private static PluginConfig config(String yaml) {
+        return PluginConfig.fromFileConfiguration(YamlConfiguration.loadConfiguration(new StringReader(yaml)),
+                Logger.getLogger("test"));
+    }
+}
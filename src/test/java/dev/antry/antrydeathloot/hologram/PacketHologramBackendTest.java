@@ -0,0 +1,208 @@
+package dev.antry.antrydeathloot.hologram;
+
+import dev.antry.antrydeathloot.hologram.RecordingPacketSink.Kind;
+import dev.antry.antrydeathloot.hologram.RecordingPacketSink.SentPacket;
+import dev.antry.antrydeathloot.simulation.FakeServer;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PacketHologramBackendTest {
+    private static final double VIEW_DISTANCE = 32;
+
+    private FakeServer server;
+    private World world;
+    private RecordingPacketSink sink;
+    private PacketHologramBackend backend;
+
+    @Before
+    public void setUp() {
+        server = new FakeServer();
+        world = server.createWorld("world", 64).getWorld();
+        sink = new RecordingPacketSink();
+        backend = new PacketHologramBackend(sink, VIEW_DISTANCE);
+    }
+
+    @Test
+    public void spawnsOnlyForPlayersInRange() {
+        Player near = server.addPlayer("Near", at(10, 10));
+        Player far = server.addPlayer("Far", at(100, 0));
+        Player elsewhere = server.addPlayer("Elsewhere", new Location(server.createWorld("nether", 64).getWorld(), 0, 65, 0));
+
+        Hologram hologram = create("owner", "countdown");
+
+        List<SentPacket> spawns = packets(near, Kind.SPAWN);
+        assertEquals(2, spawns.size());
+        assertEquals("owner", spawns.get(0).getText());
+        assertEquals("countdown", spawns.get(1).getText());
+        assertTrue(packets(far, null).isEmpty());
+        assertTrue(packets(elsewhere, null).isEmpty());
+        assertTrue(hologram.hasViewers());
+    }
+
+    @Test
+    public void spawnsWhenPlayerComesIntoRange() {
+        Player player = server.addPlayer("Walker", at(100, 0));
+        create("owner", "countdown");
+        assertTrue(sink.getPackets().isEmpty());
+
+        player.teleport(at(20, 0));
+        backend.tick();
+        backend.tick();
+
+        assertEquals(2, packets(player, Kind.SPAWN).size());
+    }
+
+    @Test
+    public void spawnsForPlayersInOtherChunksWithinRange() {
+        Player west = server.addPlayer("West", at(-VIEW_DISTANCE + 1, 0));
+        Player south = server.addPlayer("South", at(0, VIEW_DISTANCE - 1));
+
+        create("owner", "countdown");
+
+        assertEquals(2, packets(west, Kind.SPAWN).size());
+        assertEquals(2, packets(south, Kind.SPAWN).size());
+    }
+
+    @Test
+    public void runsFirstViewerTaskOnlyWhenViewersAppear() {
+        Player player = server.addPlayer("Walker", at(100, 0));
+        Hologram hologram = create("owner", "countdown");
+        int[] runs = new int[1];
+        hologram.setFirstViewerTask(() -> runs[0]++);
+        backend.tick();
+        assertFalse(hologram.hasViewers());
+        assertEquals(0, runs[0]);
+
+        player.teleport(at(20, 0));
+        backend.tick();
+        backend.tick();
+        assertTrue(hologram.hasViewers());
+        assertEquals(1, runs[0]);
+
+        server.addPlayer("Second", at(5, 5));
+        backend.tick();
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    public void textChangeSendsMetadataUpdate() {
+        Player player = server.addPlayer("Viewer", at(0, 0));
+        Hologram hologram = create("owner", "60s");
+        SentPacket countdownSpawn = packets(player, Kind.SPAWN).get(1);
+        sink.clear();
+
+        hologram.setLine(1, "59s");
+        hologram.setLine(1, "59s");
+
+        List<SentPacket> updates = packets(player, Kind.UPDATE_NAME);
+        assertEquals(1, updates.size());
+        assertEquals("59s", updates.get(0).getText());
+        assertArrayEquals(countdownSpawn.getEntityIds(), updates.get(0).getEntityIds());
+        assertEquals(1, sink.getPackets().size());
+    }
+
+    @Test
+    public void destroysWhenViewerLeavesRange() {
+        Player player = server.addPlayer("Runner", at(0, 0));
+        create("owner", "countdown");
+        int[] entityIds = spawnedIds(player);
+        sink.clear();
+
+        player.teleport(at(VIEW_DISTANCE + 1, 0));
+        backend.tick();
+        backend.tick();
+
+        List<SentPacket> destroys = packets(player, Kind.DESTROY);
+        assertEquals(1, destroys.size());
+        assertArrayEquals(entityIds, destroys.get(0).getEntityIds());
+        assertEquals(1, sink.getPackets().size());
+    }
+
+    @Test
+    public void destroysWhenRemoved() {
+        Player first = server.addPlayer("First", at(0, 0));
+        Player second = server.addPlayer("Second", at(5, 5));
+        Hologram hologram = create("owner", "countdown");
+        sink.clear();
+
+        hologram.remove();
+
+        assertEquals(1, packets(first, Kind.DESTROY).size());
+        assertEquals(1, packets(second, Kind.DESTROY).size());
+        assertEquals(2, sink.getPackets().size());
+        assertFalse(hologram.isValid());
+        assertEquals(0, backend.getHologramCount());
+    }
+
+    @Test
+    public void sendsNothingOnceDestroyed() {
+        Player player = server.addPlayer("Viewer", at(0, 0));
+        Hologram hologram = create("owner", "countdown");
+        hologram.remove();
+        sink.clear();
+
+        hologram.setLine(1, "changed");
+        hologram.remove();
+        server.addPlayer("Latecomer", at(1, 1));
+        player.teleport(at(100, 0));
+        backend.tick();
+        backend.shutdown();
+
+        assertTrue(sink.getPackets().isEmpty());
+    }
+
+    @Test
+    public void shutdownDestroysEveryHologram() {
+        Player player = server.addPlayer("Viewer", at(0, 0));
+        create("first");
+        create("second");
+        sink.clear();
+
+        backend.shutdown();
+
+        assertEquals(2, packets(player, Kind.DESTROY).size());
+        assertEquals(0, backend.getHologramCount());
+    }
+
+    private Hologram create(String... lines) {
+        return backend.create(at(0, 0).add(0, 2, 0), Arrays.asList(lines), 0.3);
+    }
+
+    private Location at(double x, double z) {
+        return new Location(world, x + 0.5, 65, z + 0.5);
+    }
+
+    private int[] spawnedIds(Player viewer) {
+        List<SentPacket> spawns = packets(viewer, Kind.SPAWN);
+        int[] ids = new int[spawns.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = spawns.get(i).getEntityIds()[0];
+        }
+        return ids;
+    }
+
+    /**
+     * @param kind packet kind, or null for every packet sent to the viewer
+     */
+    private List<SentPacket> packets(Player viewer, Kind kind) {
+        List<SentPacket> result = new ArrayList<>();
+        for (SentPacket packet : sink.getPackets()) {
+            if (packet.getViewer().equals(viewer.getUniqueId()) && (kind == null || packet.getKind() == kind)) {
+                result.add(packet);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package dev.antry.antrydeathloot.hologram;
+
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stand-in packet sink that records every packet instead of sending it.
+ * <p>
+ * Lets the packet backend be exercised without ProtocolLib or a connected client.
+ */
+public class RecordingPacketSink implements HologramPacketSink {
+
+    public enum Kind {
+        SPAWN,
+        UPDATE_NAME,
+        DESTROY
+    }
+
+    /**
+     * A single recorded packet
+     */
+    @Getter
+    public static final class SentPacket {
+        private final Kind kind;
+        private final UUID viewer;
+        private final int[] entityIds;
+        private final String text;
+
+        private SentPacket(Kind kind, UUID viewer, int[] entityIds, String text) {
+            this.kind = kind;
+            this.viewer = viewer;
+            this.entityIds = entityIds;
+            this.text = text;
+        }
+    }
+
+    private final List<SentPacket> packets = new ArrayList<>();
+
+    @Override
+    public void spawn(Player viewer, int entityId, UUID entityUuid, Location location, String text) {
+        packets.add(new SentPacket(Kind.SPAWN, viewer.getUniqueId(), new int[]{entityId}, text));
+    }
+
+    @Override
+    public void updateName(Player viewer, int entityId, String text) {
+        packets.add(new SentPacket(Kind.UPDATE_NAME, viewer.getUniqueId(), new int[]{entityId}, text));
+    }
+
+    @Override
+    public void destroy(Player viewer, int[] entityIds) {
+        packets.add(new SentPacket(Kind.DESTROY, viewer.getUniqueId(), entityIds.clone(), null));
+    }
+
+    /**
+     * @return every packet recorded so far, oldest first
+     */
+    public List<SentPacket> getPackets() {
+        return Collections.unmodifiableList(packets);
+    }
+
+    /**
+     * @return number of recorded packets of the given kind
+     */
+    public int count(Kind kind) {
+        int count = 0;
+        for (SentPacket packet : packets) {
+            if (packet.kind == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void clear() {
+        packets.clear();
+    }
+}
@@ -0,0 +1,336 @@
+package dev.antry.antrydeathloot.managers;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.data.BlockKey;
+import dev.antry.antrydeathloot.data.DeathChestData;
+import dev.antry.antrydeathloot.metrics.Counter;
+import dev.antry.antrydeathloot.persistence.ChestJournal;
+import dev.antry.antrydeathloot.simulation.FakeServer;
+import dev.antry.antrydeathloot.simulation.FakeWorld;
+import dev.antry.antrydeathloot.simulation.RegionThreadExecutor;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.inventory.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Deaths, breaks, merges and chunk unloads fired from several region threads at once,
+ * as on Folia, followed by checks that the chest index, chunk occupancy, the world and
+ * the journal still agree.
+ */
+public class DeathChestManagerConcurrencyTest {
+    private static final int GROUND_Y = 64;
+    // Regions of 4x4 chunks; the test uses a 2x2 square of them
+    private static final int REGION_SHIFT = 2;
+    private static final int REGION_BLOCKS = 16 << REGION_SHIFT;
+    private static final int REGIONS_PER_SIDE = 2;
+    private static final int PLAYERS_PER_REGION = 4;
+    private static final int LOAD_TICKS = 300;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeServer server;
+    private FakeWorld world;
+    private RegionThreadExecutor executor;
+    private AntryDeathLoot plugin;
+    private File dataFolder;
+
+    private final AtomicInteger deaths = new AtomicInteger();
+    private final AtomicInteger breaks = new AtomicInteger();
+    private final AtomicInteger uncancelledBreaks = new AtomicInteger();
+    private final AtomicInteger unloads = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeServer();
+        world = server.createWorld("world", GROUND_Y);
+        executor = new RegionThreadExecutor(REGION_SHIFT);
+        dataFolder = folder.newFolder("AntryDeathLoot");
+        writeConfig();
+        plugin = server.enablePlugin(dataFolder, executor);
+        assertTrue("plugin failed to enable", plugin.isEnabled() && plugin.getDeathChestManager() != null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try {
+            // Disabling takes the manager lock; don't wait on region threads that never let go of it
+            executor.awaitIdle();
+            if (plugin != null && plugin.isEnabled()) {
+                server.disablePlugin();
+            }
+        } finally {
+            server.releasePlugin();
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 120000)
+    public void regionsStayConsistentUnderConcurrentWork() throws Exception {
+        List<Region> regions = new ArrayList<>();
+        for (int regionX = 0; regionX < REGIONS_PER_SIDE; regionX++) {
+            for (int regionZ = 0; regionZ < REGIONS_PER_SIDE; regionZ++) {
+                regions.add(new Region(regionX, regionZ, regions.size()));
+            }
+        }
+
+        for (int tick = 0; tick < LOAD_TICKS; tick++) {
+            long now = tick;
+            // Every region works on its own thread at the same time
+            for (Region region : regions) {
+                executor.runAt(region.center(), () -> region.work(now));
+            }
+            executor.awaitIdle();
+            executor.tick();
+        }
+
+        for (Region region : regions) {
+            executor.runAtAndWait(region.center(), region::reloadAll);
+        }
+        DeathChestManager manager = plugin.getDeathChestManager();
+        int settleTicks = 0;
+        do {
+            executor.tick();
+            executor.awaitIdle();
+        } while ((manager.getQueuedChestCount() > 0 || ++settleTicks < 5) && settleTicks < 200);
+
+        assertEquals("task failures: " + executor.getFailures(), 0, executor.getFailures().size());
+        assertEquals(REGIONS_PER_SIDE * REGIONS_PER_SIDE, executor.getRegionCount());
+        assertTrue("too few deaths to exercise anything: " + deaths, deaths.get() > 100);
+        assertTrue("no chest was broken by a player", breaks.get() > 0);
+        assertTrue("no chunk was unloaded", unloads.get() > 0);
+        assertTrue("no death was merged", counter("deathloot_chests_merged_total") > 0);
+        assertEquals("breaks of untracked chest blocks", 0, uncancelledBreaks.get());
+
+        Map<String, DeathChestData> tracked = new HashMap<>();
+        synchronized (manager) {
+            manager.getDeathChests().forEach((chestWorld, key, data) -> tracked.put(chestWorld.getUID() + "/" + key, data));
+            assertEquals(tracked.size(), manager.getActiveChestCount());
+
+            for (DeathChestData chest : tracked.values()) {
+                Location location = BlockKey.toLocation(world.getWorld(), chest.getBlockKey());
+                assertEquals("tracked chest without a chest block at " + location,
+                        Material.CHEST, location.getBlock().getType());
+            }
+            for (Location location : world.getChestLocations()) {
+                assertTrue("chest block not tracked at " + location,
+                        tracked.containsKey(world.getWorld().getUID() + "/" + BlockKey.of(location)));
+            }
+
+            int size = REGION_BLOCKS * REGIONS_PER_SIDE;
+            for (int chunkX = 0; chunkX < size >> 4; chunkX++) {
+                for (int chunkZ = 0; chunkZ < size >> 4; chunkZ++) {
+                    Block corner = world.getWorld().getBlockAt(chunkX << 4, GROUND_Y, chunkZ << 4);
+                    assertEquals("occupancy of chunk " + chunkX + "," + chunkZ,
+                            hasChest(tracked, chunkX, chunkZ), manager.isChunkOccupied(corner));
+                }
+            }
+        }
+
+        assertJournalMatches(tracked);
+    }
+
+    /**
+     * The journal is written on its own thread; give it a moment to catch up
+     */
+    private void assertJournalMatches(Map<String, DeathChestData> tracked) throws Exception {
+        Map<String, DeathChestData> journaled = new HashMap<>();
+        long deadline = System.currentTimeMillis() + 10000;
+        do {
+            journaled.clear();
+            ChestJournal journal = new ChestJournal(dataFolder, 1000, true);
+            for (DeathChestData chest : journal.load()) {
+                journaled.put(chest.getWorldId() + "/" + chest.getBlockKey(), chest);
+            }
+            journal.close();
+            if (sameChests(tracked, journaled)) {
+                return;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+
+        Set<String> missing = new HashSet<>(tracked.keySet());
+        missing.removeAll(journaled.keySet());
+        Set<String> extra = new HashSet<>(journaled.keySet());
+        extra.removeAll(tracked.keySet());
+        assertEquals("tracked chests missing from the journal", Collections.emptySet(), missing);
+        assertEquals("journaled chests no longer tracked", Collections.emptySet(), extra);
+        for (Map.Entry<String, DeathChestData> entry : tracked.entrySet()) {
+            DeathChestData expected = entry.getValue();
+            DeathChestData actual = journaled.get(entry.getKey());
+            assertEquals(expected.getOwnerUuid(), actual.getOwnerUuid());
+            assertEquals(expected.getItems(), actual.getItems());
+            assertEquals(expected.getOverflow(), actual.getOverflow());
+        }
+    }
+
+    private static boolean sameChests(Map<String, DeathChestData> tracked, Map<String, DeathChestData> journaled) {
+        if (!tracked.keySet().equals(journaled.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, DeathChestData> entry : tracked.entrySet()) {
+            DeathChestData expected = entry.getValue();
+            DeathChestData actual = journaled.get(entry.getKey());
+            if (!expected.getOwnerUuid().equals(actual.getOwnerUuid())
+                    || !expected.getItems().equals(actual.getItems())
+                    || !expected.getOverflow().equals(actual.getOverflow())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasChest(Map<String, DeathChestData> tracked, int chunkX, int chunkZ) {
+        for (DeathChestData chest : tracked.values()) {
+            if (BlockKey.getX(chest.getBlockKey()) >> 4 == chunkX && BlockKey.getZ(chest.getBlockKey()) >> 4 == chunkZ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long counter(String name) {
+        return plugin.getMetrics().getMetrics().stream()
+                .filter(metric -> metric.getName().equals(name))
+                .mapToLong(metric -> ((Counter) metric).get())
+                .sum();
+    }
+
+    private void writeConfig() throws Exception {
+        YamlConfiguration config;
+        try (Reader defaults = new InputStreamReader(
+                AntryDeathLoot.class.getClassLoader().getResourceAsStream("config.yml"), StandardCharsets.UTF_8)) {
+            config = YamlConfiguration.loadConfiguration(defaults);
+        }
+        config.set("chest-break-time", 4);
+        config.set("merge-radius", 2);
+        config.set("falling-chest.enabled", false);
+        config.set("announce-death-chest", false);
+        config.set("persistence.enabled", true);
+        config.save(new File(dataFolder, "config.yml"));
+    }
+
+    /**
+     * One region's share of the work. Only ever touched on that region's thread.
+     */
+    private final class Region {
+        private final int originX;
+        private final int originZ;
+        private final Random random;
+        private final List<Player> players = new ArrayList<>();
+        // Unloaded chunk (x, z) -> tick at which it loads again
+        private final Map<List<Integer>, Long> reloadAt = new HashMap<>();
+
+        private Region(int regionX, int regionZ, int index) {
+            this.originX = regionX * REGION_BLOCKS;
+            this.originZ = regionZ * REGION_BLOCKS;
+            this.random = new Random(42 + index);
+            for (int i = 0; i < PLAYERS_PER_REGION; i++) {
+                players.add(server.addPlayer("Region" + index + "Player" + i, center()));
+            }
+        }
+
+        private Location center() {
+            return new Location(world.getWorld(), originX + REGION_BLOCKS / 2, GROUND_Y, originZ + REGION_BLOCKS / 2);
+        }
+
+        private void work(long now) {
+            Iterator<Map.Entry<List<Integer>, Long>> reloads = reloadAt.entrySet().iterator();
+            while (reloads.hasNext()) {
+                Map.Entry<List<Integer>, Long> reload = reloads.next();
+                if (reload.getValue() <= now) {
+                    world.loadChunk(reload.getKey().get(0), reload.getKey().get(1));
+                    reloads.remove();
+                }
+            }
+
+            // Deaths on a coarse grid, so some land on or next to an earlier chest and merge
+            for (int i = random.nextInt(3); i > 0; i--) {
+                die(originX + 4 + 8 * random.nextInt(REGION_BLOCKS / 8), originZ + 4 + 8 * random.nextInt(REGION_BLOCKS / 8));
+            }
+            if (random.nextInt(4) == 0) {
+                breakChest();
+            }
+            if (random.nextInt(20) == 0) {
+                int chunkX = (originX >> 4) + random.nextInt(1 << REGION_SHIFT);
+                int chunkZ = (originZ >> 4) + random.nextInt(1 << REGION_SHIFT);
+                if (world.unloadChunk(chunkX, chunkZ)) {
+                    unloads.incrementAndGet();
+                    reloadAt.put(Arrays.asList(chunkX, chunkZ), now + 20 + random.nextInt(40));
+                }
+            }
+        }
+
+        private void die(int x, int z) {
+            if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+                return;
+            }
+            Player player = players.get(random.nextInt(players.size()));
+            player.teleport(new Location(world.getWorld(), x + 0.5, GROUND_Y, z + 0.5));
+            List<ItemStack> drops = new ArrayList<>();
+            for (int i = 1 + random.nextInt(8); i > 0; i--) {
+                drops.add(new ItemStack(i % 2 == 0 ? Material.COBBLESTONE : Material.IRON_INGOT, 1 + random.nextInt(64)));
+            }
+            server.callEvent(new PlayerDeathEvent(player, drops, 0, player.getName() + " died"));
+            deaths.incrementAndGet();
+        }
+
+        private void breakChest() {
+            List<Location> chests = new ArrayList<>();
+            for (Location location : world.getChestLocations()) {
+                if (location.getBlockX() >= originX && location.getBlockX() < originX + REGION_BLOCKS
+                        && location.getBlockZ() >= originZ && location.getBlockZ() < originZ + REGION_BLOCKS
+                        && world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+                    chests.add(location);
+                }
+            }
+            if (chests.isEmpty()) {
+                return;
+            }
+
+            Block block = chests.get(random.nextInt(chests.size())).getBlock();
+            BlockBreakEvent event = new BlockBreakEvent(block, players.get(0));
+            server.callEvent(event);
+            breaks.incrementAndGet();
+            if (!event.isCancelled()) {
+                uncancelledBreaks.incrementAndGet();
+            }
+        }
+
+        private void reloadAll() {
+            for (List<Integer> chunk : reloadAt.keySet()) {
+                world.loadChunk(chunk.get(0), chunk.get(1));
+            }
+            reloadAt.clear();
+        }
+    }
+}
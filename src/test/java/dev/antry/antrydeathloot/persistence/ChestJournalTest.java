@@ -0,0 +1,239 @@
+package dev.antry.antrydeathloot.persistence;
+
+import dev.antry.antrydeathloot.data.DeathChestData;
+import dev.antry.antrydeathloot.simulation.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChestJournalTest {
+    private static final UUID WORLD = UUID.fromString("5b0c8a44-0d4f-4b49-9d5c-2a0c2c7f3e10");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void installServer() {
+        new FakeServer();
+    }
+
+    @Test
+    public void snapshotRoundTripsUncompressed() throws IOException {
+        assertSnapshotRoundTrip(false);
+    }
+
+    @Test
+    public void snapshotRoundTripsCompressed() throws IOException {
+        assertSnapshotRoundTrip(true);
+    }
+
+    @Test
+    public void compressedSnapshotIsSmaller() throws IOException {
+        List<DeathChestData> chests = sampleChests(25);
+        File plain = folder.newFolder("plain");
+        File compressed = folder.newFolder("compressed");
+
+        writeSnapshot(plain, false, chests);
+        writeSnapshot(compressed, true, chests);
+
+        assertTrue(new File(compressed, "chests.snapshot").length() < new File(plain, "chests.snapshot").length());
+    }
+
+    @Test
+    public void journalReplaysOnTopOfSnapshot() throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(3);
+        List<ItemStack> taken = Collections.singletonList(new ItemStack(Material.DIRT, 2));
+
+        ChestJournal journal = new ChestJournal(dataFolder, 1000, false);
+        journal.open();
+        journal.writeSnapshot(chests.subList(0, 2));
+        journal.recordCreate(chests.get(2));
+        journal.recordBreak(WORLD, chests.get(0).getBlockKey());
+        journal.recordContents(WORLD, chests.get(1).getBlockKey(), taken);
+        journal.close();
+
+        List<DeathChestData> loaded = new ChestJournal(dataFolder, 1000, false).load();
+
+        assertEquals(Arrays.asList(chests.get(1).toBuilder().items(taken).build(), chests.get(2)), loaded);
+    }
+
+    @Test
+    public void recordsBeforeOpenAreWrittenOnOpen() throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(2);
+
+        ChestJournal journal = new ChestJournal(dataFolder, 1000, false);
+        journal.recordCreate(chests.get(0));
+        assertEquals(Collections.emptyList(), journal.load());
+        journal.open();
+        journal.recordCreate(chests.get(1));
+        journal.close();
+
+        assertEquals(chests, new ChestJournal(dataFolder, 1000, false).load());
+    }
+
+    @Test
+    public void replayTakesElapsedTimeOffTimers() throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(2);
+        AtomicLong millis = new AtomicLong();
+
+        ChestJournal journal = new ChestJournal(dataFolder, 1000, false, millis::get);
+        journal.open();
+        for (DeathChestData chest : chests) {
+            journal.recordCreate(chest);
+            journal.recordTimer(WORLD, chest.getBlockKey(), chest.getRemainingSeconds());
+        }
+        millis.set(40_000);
+        // A merge restarts the second chest's timer
+        journal.recordTimer(WORLD, chests.get(1).getBlockKey(), 300);
+        millis.set(100_500);
+        journal.close();
+
+        List<DeathChestData> loaded = new ChestJournal(dataFolder, 1000, false).load();
+
+        assertFalse(new File(dataFolder, "chests.snapshot").exists());
+        assertEquals(2, loaded.size());
+        assertEquals(200, loaded.get(0).getRemainingSeconds());
+        assertEquals(240, loaded.get(1).getRemainingSeconds());
+    }
+
+    @Test
+    public void snapshotTimersCountFromWhenItWasTaken() throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(2);
+        AtomicLong millis = new AtomicLong();
+
+        ChestJournal journal = new ChestJournal(dataFolder, 1000, false, millis::get);
+        journal.open();
+        millis.set(10_000);
+        journal.writeSnapshot(chests);
+        millis.set(70_000);
+        journal.close();
+
+        List<DeathChestData> loaded = new ChestJournal(dataFolder, 1000, false).load();
+
+        assertEquals(240, loaded.get(0).getRemainingSeconds());
+        assertEquals(239, loaded.get(1).getRemainingSeconds());
+    }
+
+    @Test
+    public void tornJournalTailIsDropped() throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(2);
+        writeJournal(dataFolder, chests);
+
+        File journalFile = new File(dataFolder, "chests.journal");
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            // The clock reading written on close is 10 bytes; tear into the break before it
+            file.setLength(file.length() - 17);
+        }
+
+        // The break was the last chest record, so the chest it removed comes back
+        assertEquals(chests, new ChestJournal(dataFolder, 1000, false).load());
+    }
+
+    @Test
+    public void corruptJournalTailIsDropped() throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(2);
+        writeJournal(dataFolder, chests);
+
+        File journalFile = new File(dataFolder, "chests.journal");
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            long position = file.length() - 12;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0xFF);
+        }
+
+        assertEquals(chests, new ChestJournal(dataFolder, 1000, false).load());
+    }
+
+    @Test
+    public void garbageAfterJournalIsDropped() throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(2);
+        writeJournal(dataFolder, chests);
+
+        try (RandomAccessFile file = new RandomAccessFile(new File(dataFolder, "chests.journal"), "rw")) {
+            file.seek(file.length());
+            file.write(new byte[]{0, 0, 0, 40, 1, 2, 3});
+        }
+
+        assertEquals(chests.subList(1, 2), new ChestJournal(dataFolder, 1000, false).load());
+    }
+
+    private void assertSnapshotRoundTrip(boolean compress) throws IOException {
+        File dataFolder = folder.getRoot();
+        List<DeathChestData> chests = sampleChests(10);
+
+        writeSnapshot(dataFolder, compress, chests);
+
+        assertEquals(chests, new ChestJournal(dataFolder, 1000, compress).load());
+        // The block flag decides, not the setting, so either reader accepts either file
+        assertEquals(chests, new ChestJournal(dataFolder, 1000, !compress).load());
+    }
+
+    private static void writeSnapshot(File dataFolder, boolean compress, List<DeathChestData> chests) {
+        ChestJournal journal = new ChestJournal(dataFolder, 1000, compress);
+        journal.open();
+        journal.writeSnapshot(chests);
+        journal.close();
+    }
+
+    /**
+     * Journal that creates every chest and then breaks the first one
+     */
+    private static void writeJournal(File dataFolder, List<DeathChestData> chests) {
+        ChestJournal journal = new ChestJournal(dataFolder, 1000, false);
+        journal.open();
+        for (DeathChestData chest : chests) {
+            journal.recordCreate(chest);
+        }
+        journal.recordBreak(WORLD, chests.get(0).getBlockKey());
+        journal.close();
+    }
+
+    private static List<DeathChestData> sampleChests(int count) {
+        List<DeathChestData> chests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DeathChestData.DeathChestDataBuilder chest = DeathChestData.builder()
+                    .ownerUuid(new UUID(0, i))
+                    .ownerName("Player" + i)
+                    .worldId(WORLD)
+                    .blockKey(i * 31L)
+                    .items(ItemStackCodecTest.sampleInventory(i))
+                    .createdAt(1_700_000_000_000L + i)
+                    .breakTimeSeconds(300)
+                    .remainingSeconds(300 - i);
+            if (i % 3 == 1) {
+                chest.overflow(Arrays.asList(new ItemStack(Material.GOLD_INGOT, i), new ItemStack(Material.BONE)));
+            }
+            if (i % 2 == 0) {
+                chest.replacedBlock("minecraft:tallgrass[type=grass]");
+            }
+            chests.add(chest.build());
+        }
+        return chests;
+    }
+}
@@ -0,0 +1,147 @@
+package dev.antry.antrydeathloot.persistence;
+
+import dev.antry.antrydeathloot.simulation.FakeItemMeta;
+import dev.antry.antrydeathloot.simulation.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemStackCodecTest {
+
+    @BeforeClass
+    public static void installServer() {
+        new FakeServer();
+    }
+
+    @Test
+    public void plainStacksRoundTripWithoutEmptySlots() throws IOException {
+        List<ItemStack> items = Arrays.asList(
+                new ItemStack(Material.STONE, 64),
+                null,
+                new ItemStack(Material.DIAMOND_SWORD, 1, (short) 120),
+                new ItemStack(Material.WOOL, 3, (short) 14),
+                new ItemStack(Material.AIR));
+
+        List<ItemStack> decoded = roundTrip(new ItemStackCodec(false), items);
+
+        assertEquals(Arrays.asList(items.get(0), items.get(2), items.get(3)), decoded);
+    }
+
+    @Test
+    public void namedLoredAndEnchantedStacksRoundTrip() throws IOException {
+        ItemStack sword = new ItemStack(Material.DIAMOND_SWORD);
+        ItemMeta meta = sword.getItemMeta();
+        meta.setDisplayName("§6Excalibur");
+        meta.setLore(Arrays.asList("§7Pulled from a stone", "", "§7Owner: Steve"));
+        meta.addEnchant(Enchantment.DAMAGE_ALL, 5, false);
+        meta.addEnchant(Enchantment.DURABILITY, 10, true);
+        sword.setItemMeta(meta);
+
+        ItemStack named = new ItemStack(Material.STONE, 12);
+        ItemMeta namedMeta = named.getItemMeta();
+        namedMeta.setDisplayName("Only a name");
+        named.setItemMeta(namedMeta);
+
+        List<ItemStack> items = Arrays.asList(sword, named, new ItemStack(Material.DIRT, 5));
+        List<ItemStack> decoded = roundTrip(new ItemStackCodec(false), items);
+
+        assertEquals(items, decoded);
+        assertEquals(10, decoded.get(0).getItemMeta().getEnchantLevel(Enchantment.DURABILITY));
+        assertFalse(decoded.get(1).getItemMeta().hasLore());
+    }
+
+    @Test
+    public void metaWithOtherKeysTakesSerializedFallback() throws IOException {
+        ItemStack skull = new ItemStack(Material.SKULL_ITEM, 1, (short) 3);
+        FakeItemMeta skullMeta = (FakeItemMeta) skull.getItemMeta();
+        skullMeta.setProperty("skull-owner", "Notch");
+        skullMeta.setDisplayName("Notch's head");
+        skull.setItemMeta(skullMeta);
+
+        ItemStack flagged = new ItemStack(Material.DIAMOND_CHESTPLATE);
+        ItemMeta flaggedMeta = flagged.getItemMeta();
+        flaggedMeta.addEnchant(Enchantment.DURABILITY, 3, false);
+        flaggedMeta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
+        flagged.setItemMeta(flaggedMeta);
+
+        List<ItemStack> items = Arrays.asList(skull, flagged, new ItemStack(Material.COBBLESTONE, 32));
+        List<ItemStack> decoded = roundTrip(new ItemStackCodec(false), items);
+
+        assertEquals(items, decoded);
+        assertEquals("SKULL", ((FakeItemMeta) decoded.get(0).getItemMeta()).getMetaType());
+        assertTrue(decoded.get(1).getItemMeta().hasItemFlag(ItemFlag.HIDE_ENCHANTS));
+    }
+
+    @Test
+    public void compressedBlocksRoundTripAndShrink() throws IOException {
+        List<List<ItemStack>> lists = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lists.add(sampleInventory(i));
+        }
+
+        ByteBuffer plain = new ItemStackCodec(false).encodeAll(lists);
+        ByteBuffer compressed = new ItemStackCodec(true).encodeAll(lists);
+
+        assertTrue(compressed.remaining() < plain.remaining());
+        assertEquals(lists, new ItemStackCodec(false).decodeAll(compressed));
+        assertEquals(lists, new ItemStackCodec(true).decodeAll(plain));
+    }
+
+    @Test
+    public void smallBlocksStayUncompressed() throws IOException {
+        List<ItemStack> items = Collections.singletonList(new ItemStack(Material.STONE));
+
+        ByteBuffer plain = new ItemStackCodec(false).encode(items);
+        ByteBuffer compressed = new ItemStackCodec(true).encode(items);
+
+        assertEquals(plain, compressed);
+    }
+
+    @Test
+    public void emptyListRoundTrips() throws IOException {
+        assertEquals(Collections.emptyList(), roundTrip(new ItemStackCodec(true), Collections.emptyList()));
+    }
+
+    /**
+     * A player inventory's worth of ordinary items, with a few named and enchanted ones
+     */
+    static List<ItemStack> sampleInventory(int seed) {
+        Material[] materials = {Material.STONE, Material.DIRT, Material.COBBLESTONE, Material.LOG,
+                Material.IRON_INGOT, Material.BREAD, Material.TORCH, Material.ARROW};
+        List<ItemStack> items = new ArrayList<>();
+        for (int slot = 0; slot < 36; slot++) {
+            ItemStack item = new ItemStack(materials[(slot + seed) % materials.length], 1 + (slot * 7 + seed) % 64);
+            if (slot % 9 == 0) {
+                ItemMeta meta = item.getItemMeta();
+                meta.setDisplayName("Item " + slot);
+                meta.setLore(Collections.singletonList("Dropped by player " + seed));
+                meta.addEnchant(Enchantment.DURABILITY, 1 + slot % 3, false);
+                item.setItemMeta(meta);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static List<ItemStack> roundTrip(ItemStackCodec codec, List<ItemStack> items) throws IOException {
+        ByteBuffer encoded = codec.encode(items);
+        List<ItemStack> decoded = codec.decode(encoded);
+        assertFalse("trailing bytes after decode", encoded.hasRemaining());
+        return decoded;
+    }
+}
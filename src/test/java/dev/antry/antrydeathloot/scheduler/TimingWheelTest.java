@@ -0,0 +1,115 @@
+package dev.antry.antrydeathloot.scheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void firesAtDeadline() {
+        TimingWheel wheel = new TimingWheel(8);
+        List<Integer> fired = new ArrayList<>();
+        wheel.schedule(3, timeout -> fired.add(3));
+        wheel.schedule(1, timeout -> fired.add(1));
+
+        wheel.tick();
+        assertEquals(Arrays.asList(1), fired);
+        wheel.tick();
+        wheel.tick();
+        assertEquals(Arrays.asList(1, 3), fired);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void deadlinesBeyondOneRotationWait() {
+        TimingWheel wheel = new TimingWheel(4);
+        int[] fired = new int[1];
+        TimingWheel.Timeout timeout = wheel.schedule(10, t -> fired[0]++);
+
+        for (int i = 0; i < 9; i++) {
+            wheel.tick();
+        }
+        assertEquals(0, fired[0]);
+        assertEquals(1, timeout.getRemainingTicks());
+
+        wheel.tick();
+        assertEquals(1, fired[0]);
+        assertEquals(0, timeout.getRemainingTicks());
+    }
+
+    @Test
+    public void cancelledTimeoutNeverFires() {
+        TimingWheel wheel = new TimingWheel(8);
+        int[] fired = new int[1];
+        TimingWheel.Timeout timeout = wheel.schedule(2, t -> fired[0]++);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        wheel.tick();
+        wheel.tick();
+
+        assertEquals(0, fired[0]);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void taskCanRescheduleItself() {
+        TimingWheel wheel = new TimingWheel(8);
+        int[] fired = new int[1];
+        wheel.schedule(2, timeout -> {
+            if (++fired[0] < 3) {
+                timeout.reschedule(2);
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            wheel.tick();
+        }
+
+        assertEquals(3, fired[0]);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void taskCanCancelItsBucketNeighbour() {
+        TimingWheel wheel = new TimingWheel(8);
+        List<String> fired = new ArrayList<>();
+        // Same deadline and bucket; the later one is linked at the head and fires first
+        TimingWheel.Timeout other = wheel.schedule(1, timeout -> fired.add("other"));
+        wheel.schedule(1, timeout -> {
+            fired.add("first");
+            other.cancel();
+        });
+
+        wheel.tick();
+
+        assertEquals(Arrays.asList("first"), fired);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void clearDropsEverything() {
+        TimingWheel wheel = new TimingWheel(8);
+        TimingWheel.Timeout timeout = wheel.schedule(1, t -> {
+            throw new AssertionError("cleared timeout fired");
+        });
+        wheel.schedule(5, t -> {
+            throw new AssertionError("cleared timeout fired");
+        });
+
+        wheel.clear();
+        for (int i = 0; i < 8; i++) {
+            wheel.tick();
+        }
+
+        assertEquals(0, wheel.getPendingCount());
+        assertFalse(timeout.cancel());
+    }
+}
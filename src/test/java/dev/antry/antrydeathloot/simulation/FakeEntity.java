@@ -0,0 +1,169 @@
+package dev.antry.antrydeathloot.simulation;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.entity.Item;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.Vector;
+
+import java.util.UUID;
+
+/**
+ * State behind a fake ArmorStand, dropped item or falling block.
+ * <p>
+ * When its chunk unloads the entity object becomes invalid for good; if the chunk loads
+ * again, a new object with the same state takes its place, like on a real server.
+ */
+final class FakeEntity {
+
+    enum Kind {
+        ARMOR_STAND(ArmorStand.class, EntityType.ARMOR_STAND),
+        ITEM(Item.class, EntityType.DROPPED_ITEM),
+        FALLING_BLOCK(FallingBlock.class, EntityType.FALLING_BLOCK);
+
+        private final Class<? extends Entity> type;
+        private final EntityType entityType;
+
+        Kind(Class<? extends Entity> type, EntityType entityType) {
+            this.type = type;
+            this.entityType = entityType;
+        }
+    }
+
+    final int id;
+    final Kind kind;
+    final FakeWorld world;
+    final UUID uuid;
+    final Entity entity;
+    Location location;
+    Vector velocity = new Vector();
+    boolean removed;
+    boolean unloaded;
+    long spawnedAt;
+
+    // ArmorStand
+    String customName;
+    boolean customNameVisible;
+    boolean visible = true;
+    boolean marker;
+
+    // Item and falling block
+    ItemStack itemStack;
+    Material material;
+
+    FakeEntity(int id, Kind kind, FakeWorld world, Location location, UUID uuid) {
+        this.id = id;
+        this.kind = kind;
+        this.world = world;
+        this.location = location.clone();
+        this.uuid = uuid;
+        this.entity = Proxies.create(kind.type, (method, args) -> handle(method.getName(), args));
+    }
+
+    /**
+     * @return a new entity object carrying this one's state, for a chunk that loaded again
+     */
+    FakeEntity reload(int newId) {
+        FakeEntity copy = new FakeEntity(newId, kind, world, location, uuid);
+        copy.spawnedAt = spawnedAt;
+        copy.velocity = velocity.clone();
+        copy.customName = customName;
+        copy.customNameVisible = customNameVisible;
+        copy.visible = visible;
+        copy.marker = marker;
+        copy.itemStack = itemStack;
+        copy.material = material;
+        return copy;
+    }
+
+    boolean isValid() {
+        return !removed && !unloaded;
+    }
+
+    int getChunkX() {
+        return location.getBlockX() >> 4;
+    }
+
+    int getChunkZ() {
+        return location.getBlockZ() >> 4;
+    }
+
+    private Object handle(String method, Object[] args) {
+        switch (method) {
+            case "getEntityId":
+                return id;
+            case "getUniqueId":
+                return uuid;
+            case "getType":
+                return kind.entityType;
+            case "getWorld":
+                return world.getWorld();
+            case "getLocation":
+                return args.length == 0 ? location.clone() : copyInto((Location) args[0]);
+            case "teleport":
+                if (args[0] instanceof Location) {
+                    location = ((Location) args[0]).clone();
+                    return true;
+                }
+                return false;
+            case "isValid":
+                return isValid();
+            case "isDead":
+                return removed;
+            case "remove":
+                if (!removed) {
+                    removed = true;
+                    world.removeEntity(this);
+                }
+                return null;
+            case "getCustomName":
+                return customName;
+            case "setCustomName":
+                customName = (String) args[0];
+                return null;
+            case "isCustomNameVisible":
+                return customNameVisible;
+            case "setCustomNameVisible":
+                customNameVisible = (Boolean) args[0];
+                return null;
+            case "isVisible":
+                return visible;
+            case "setVisible":
+                visible = (Boolean) args[0];
+                return null;
+            case "isMarker":
+                return marker;
+            case "setMarker":
+                marker = (Boolean) args[0];
+                return null;
+            case "getVelocity":
+                return velocity.clone();
+            case "setVelocity":
+                velocity = ((Vector) args[0]).clone();
+                return null;
+            case "getItemStack":
+                return itemStack;
+            case "setItemStack":
+                itemStack = (ItemStack) args[0];
+                return null;
+            case "getMaterial":
+                return material;
+            default:
+                return null;
+        }
+    }
+
+    private Location copyInto(Location target) {
+        if (target != null) {
+            target.setWorld(location.getWorld());
+            target.setX(location.getX());
+            target.setY(location.getY());
+            target.setZ(location.getZ());
+        }
+        return target;
+    }
+}
@@ -0,0 +1,129 @@
+package dev.antry.antrydeathloot.simulation;
+
+import org.bukkit.Material;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Fixed-size container with the server's {@code addItem} semantics: merge into similar
+ * stacks first, then fill empty slots, and hand back whatever did not fit.
+ */
+final class FakeInventory {
+    private final ItemStack[] contents;
+    private final InventoryHolder holder;
+    private final Inventory inventory;
+
+    FakeInventory(int size, InventoryHolder holder) {
+        this.contents = new ItemStack[size];
+        this.holder = holder;
+        this.inventory = Proxies.create(Inventory.class, (method, args) -> handle(method.getName(), args));
+    }
+
+    Inventory getInventory() {
+        return inventory;
+    }
+
+    private Object handle(String method, Object[] args) {
+        switch (method) {
+            case "getSize":
+                return contents.length;
+            case "getMaxStackSize":
+                return 64;
+            case "getName":
+            case "getTitle":
+                return "Chest";
+            case "getType":
+                return InventoryType.CHEST;
+            case "getHolder":
+                return holder;
+            case "getViewers":
+                return Collections.emptyList();
+            case "getContents":
+                return copy(contents);
+            case "setContents":
+                ItemStack[] items = (ItemStack[]) args[0];
+                Arrays.fill(contents, null);
+                System.arraycopy(items, 0, contents, 0, Math.min(items.length, contents.length));
+                return null;
+            case "getItem":
+                return contents[(Integer) args[0]];
+            case "setItem":
+                contents[(Integer) args[0]] = (ItemStack) args[1];
+                return null;
+            case "firstEmpty":
+                return firstEmpty();
+            case "addItem":
+                return addItem((ItemStack[]) args[0]);
+            case "clear":
+                if (args.length == 0) {
+                    Arrays.fill(contents, null);
+                } else {
+                    contents[(Integer) args[0]] = null;
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private HashMap<Integer, ItemStack> addItem(ItemStack[] items) {
+        HashMap<Integer, ItemStack> leftover = new HashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            ItemStack item = items[i];
+            if (item == null || item.getType() == Material.AIR) {
+                continue;
+            }
+
+            int remaining = item.getAmount();
+            int maxStack = Math.max(1, Math.min(64, item.getMaxStackSize()));
+            for (int slot = 0; slot < contents.length && remaining > 0; slot++) {
+                ItemStack existing = contents[slot];
+                if (existing != null && existing.isSimilar(item) && existing.getAmount() < maxStack) {
+                    int moved = Math.min(remaining, maxStack - existing.getAmount());
+                    existing.setAmount(existing.getAmount() + moved);
+                    remaining -= moved;
+                }
+            }
+            while (remaining > 0) {
+                int slot = firstEmpty();
+                if (slot < 0) {
+                    break;
+                }
+                ItemStack placed = item.clone();
+                placed.setAmount(Math.min(remaining, maxStack));
+                contents[slot] = placed;
+                remaining -= placed.getAmount();
+            }
+
+            if (remaining > 0) {
+                ItemStack rest = item.clone();
+                rest.setAmount(remaining);
+                leftover.put(i, rest);
+            }
+        }
+        return leftover;
+    }
+
+    private int firstEmpty() {
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (contents[slot] == null) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static ItemStack[] copy(ItemStack[] items) {
+        ItemStack[] copy = new ItemStack[items.length];
+        for (int i = 0; i < items.length; i++) {
+            copy[i] = items[i] != null ? items[i].clone() : null;
+        }
+        return copy;
+    }
+}
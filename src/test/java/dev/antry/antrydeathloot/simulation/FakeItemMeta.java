@@ -0,0 +1,252 @@
+package dev.antry.antrydeathloot.simulation;
+
+import org.bukkit.configuration.serialization.SerializableAs;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Item meta serialized the way the server does it: a {@code meta-type}, the display
+ * name, lore and enchantments, plus any type-specific properties.
+ * <p>
+ * Items that have their own meta type on a server (skulls, books, ...) get that type
+ * here too, and type-specific data such as a skull owner can be set as a property.
+ */
+@SerializableAs("ItemMeta")
+public final class FakeItemMeta implements ItemMeta {
+    public static final String UNSPECIFIC = "UNSPECIFIC";
+
+    private final String metaType;
+    private String displayName;
+    private List<String> lore;
+    private final Map<Enchantment, Integer> enchants = new LinkedHashMap<>();
+    private final EnumSet<ItemFlag> flags = EnumSet.noneOf(ItemFlag.class);
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+
+    public FakeItemMeta(String metaType) {
+        this.metaType = metaType;
+    }
+
+    public String getMetaType() {
+        return metaType;
+    }
+
+    /**
+     * Set type-specific data, serialized under its own key
+     */
+    public void setProperty(String key, Object value) {
+        properties.put(key, value);
+    }
+
+    boolean isEmpty() {
+        return displayName == null && lore == null && enchants.isEmpty() && flags.isEmpty() && properties.isEmpty();
+    }
+
+    @Override
+    public boolean hasDisplayName() {
+        return displayName != null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public void setDisplayName(String name) {
+        this.displayName = name;
+    }
+
+    @Override
+    public boolean hasLore() {
+        return lore != null;
+    }
+
+    @Override
+    public List<String> getLore() {
+        return lore != null ? new ArrayList<>(lore) : null;
+    }
+
+    @Override
+    public void setLore(List<String> lore) {
+        this.lore = lore != null ? new ArrayList<>(lore) : null;
+    }
+
+    @Override
+    public boolean hasEnchants() {
+        return !enchants.isEmpty();
+    }
+
+    @Override
+    public boolean hasEnchant(Enchantment ench) {
+        return enchants.containsKey(ench);
+    }
+
+    @Override
+    public int getEnchantLevel(Enchantment ench) {
+        Integer level = enchants.get(ench);
+        return level != null ? level : 0;
+    }
+
+    @Override
+    public Map<Enchantment, Integer> getEnchants() {
+        return new LinkedHashMap<>(enchants);
+    }
+
+    @Override
+    public boolean addEnchant(Enchantment ench, int level, boolean ignoreLevelRestriction) {
+        Integer previous = enchants.put(ench, level);
+        return previous == null || previous != level;
+    }
+
+    @Override
+    public boolean removeEnchant(Enchantment ench) {
+        return enchants.remove(ench) != null;
+    }
+
+    @Override
+    public boolean hasConflictingEnchant(Enchantment ench) {
+        return false;
+    }
+
+    @Override
+    public void addItemFlags(ItemFlag... itemFlags) {
+        for (ItemFlag flag : itemFlags) {
+            flags.add(flag);
+        }
+    }
+
+    @Override
+    public void removeItemFlags(ItemFlag... itemFlags) {
+        for (ItemFlag flag : itemFlags) {
+            flags.remove(flag);
+        }
+    }
+
+    @Override
+    public Set<ItemFlag> getItemFlags() {
+        return EnumSet.copyOf(flags);
+    }
+
+    @Override
+    public boolean hasItemFlag(ItemFlag flag) {
+        return flags.contains(flag);
+    }
+
+    @Override
+    public Spigot spigot() {
+        return new Spigot();
+    }
+
+    @Override
+    public FakeItemMeta clone() {
+        FakeItemMeta copy = new FakeItemMeta(metaType);
+        copy.displayName = displayName;
+        copy.setLore(lore);
+        copy.enchants.putAll(enchants);
+        copy.flags.addAll(flags);
+        copy.properties.putAll(properties);
+        return copy;
+    }
+
+    @Override
+    public Map<String, Object> serialize() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("meta-type", metaType);
+        if (displayName != null) {
+            result.put("display-name", displayName);
+        }
+        if (lore != null) {
+            result.put("lore", new ArrayList<>(lore));
+        }
+        if (!enchants.isEmpty()) {
+            Map<String, Integer> byName = new LinkedHashMap<>();
+            for (Map.Entry<Enchantment, Integer> enchant : enchants.entrySet()) {
+                byName.put(enchant.getKey().getName(), enchant.getValue());
+            }
+            result.put("enchants", byName);
+        }
+        if (!flags.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (ItemFlag flag : flags) {
+                names.add(flag.name());
+            }
+            result.put("ItemFlags", names);
+        }
+        result.putAll(properties);
+        return result;
+    }
+
+    public static FakeItemMeta deserialize(Map<String, Object> map) {
+        FakeItemMeta meta = new FakeItemMeta(String.valueOf(map.get("meta-type")));
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+                case "==":
+                case "meta-type":
+                    break;
+                case "display-name":
+                    meta.displayName = (String) value;
+                    break;
+                case "lore":
+                    List<String> lore = new ArrayList<>();
+                    for (Object line : (List<?>) value) {
+                        lore.add(String.valueOf(line));
+                    }
+                    meta.lore = lore;
+                    break;
+                case "enchants":
+                    for (Map.Entry<?, ?> enchant : ((Map<?, ?>) value).entrySet()) {
+                        Enchantment enchantment = Enchantment.getByName(String.valueOf(enchant.getKey()));
+                        if (enchantment != null) {
+                            meta.enchants.put(enchantment, ((Number) enchant.getValue()).intValue());
+                        }
+                    }
+                    break;
+                case "ItemFlags":
+                    for (Object flag : (List<?>) value) {
+                        meta.flags.add(ItemFlag.valueOf(String.valueOf(flag)));
+                    }
+                    break;
+                default:
+                    meta.properties.put(entry.getKey(), value);
+            }
+        }
+        return meta;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FakeItemMeta)) {
+            return false;
+        }
+        FakeItemMeta other = (FakeItemMeta) obj;
+        return metaType.equals(other.metaType)
+                && Objects.equals(displayName, other.displayName)
+                && Objects.equals(lore, other.lore)
+                && enchants.equals(other.enchants)
+                && flags.equals(other.flags)
+                && properties.equals(other.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(metaType, displayName, lore, enchants, flags, properties);
+    }
+
+    @Override
+    public String toString() {
+        return metaType + "_META:" + serialize();
+    }
+}
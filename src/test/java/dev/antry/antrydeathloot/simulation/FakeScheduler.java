@@ -0,0 +1,197 @@
+package dev.antry.antrydeathloot.simulation;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tick-driven {@link BukkitScheduler}. Tasks run on the simulation thread when
+ * {@link #tick()} is called, asynchronous ones included, so runs are deterministic.
+ * Like the server, a task scheduled with no delay runs on the next tick.
+ */
+public final class FakeScheduler {
+    private final Map<Integer, Task> tasks = new TreeMap<>();
+    private final BukkitScheduler scheduler;
+    private long currentTick;
+    private int nextId = 1;
+
+    public FakeScheduler() {
+        this.scheduler = Proxies.create(BukkitScheduler.class, (method, args) -> {
+            switch (method.getName()) {
+                case "runTask":
+                case "runTaskAsynchronously":
+                    return schedule((Plugin) args[0], (Runnable) args[1], 0, -1).handle;
+                case "runTaskLater":
+                case "runTaskLaterAsynchronously":
+                    return schedule((Plugin) args[0], (Runnable) args[1], (Long) args[2], -1).handle;
+                case "runTaskTimer":
+                case "runTaskTimerAsynchronously":
+                    return schedule((Plugin) args[0], (Runnable) args[1], (Long) args[2], (Long) args[3]).handle;
+                case "scheduleSyncDelayedTask":
+                case "scheduleAsyncDelayedTask":
+                    return schedule((Plugin) args[0], (Runnable) args[1], args.length > 2 ? (Long) args[2] : 0, -1).id;
+                case "scheduleSyncRepeatingTask":
+                case "scheduleAsyncRepeatingTask":
+                    return schedule((Plugin) args[0], (Runnable) args[1], (Long) args[2], (Long) args[3]).id;
+                case "callSyncMethod":
+                    return callNow((Callable<?>) args[1]);
+                case "cancelTask":
+                    cancel((Integer) args[0]);
+                    return null;
+                case "cancelTasks":
+                    cancelAll((Plugin) args[0]);
+                    return null;
+                case "cancelAllTasks":
+                    tasks.clear();
+                    return null;
+                case "isQueued":
+                    return tasks.containsKey((Integer) args[0]);
+                case "getPendingTasks":
+                    return getPendingTasks(null);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    public BukkitScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Advance one tick and run every task that is due
+     */
+    public void tick() {
+        currentTick++;
+        List<Task> due = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            if (task.nextRun <= currentTick) {
+                due.add(task);
+            }
+        }
+
+        for (Task task : due) {
+            if (task.cancelled) {
+                continue;
+            }
+            if (task.period > 0) {
+                task.nextRun = currentTick + task.period;
+            } else {
+                tasks.remove(task.id);
+            }
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                System.err.println("Task " + task.id + " threw " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @param owner the plugin, or null for every plugin
+     * @return pending tasks, including repeating ones
+     */
+    public List<BukkitTask> getPendingTasks(Plugin owner) {
+        List<BukkitTask> pending = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            if (owner == null || task.owner == owner) {
+                pending.add(task.handle);
+            }
+        }
+        return Collections.unmodifiableList(pending);
+    }
+
+    /**
+     * @return the number of repeating tasks owned by the plugin
+     */
+    public int getRepeatingTaskCount(Plugin owner) {
+        int count = 0;
+        for (Task task : tasks.values()) {
+            if (task.owner == owner && task.period > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void cancelAll(Plugin owner) {
+        tasks.values().removeIf(task -> {
+            if (task.owner == owner) {
+                task.cancelled = true;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Task schedule(Plugin owner, Runnable runnable, long delay, long period) {
+        Task task = new Task(nextId++, owner, runnable, currentTick + Math.max(1L, delay), period);
+        tasks.put(task.id, task);
+        return task;
+    }
+
+    private void cancel(int id) {
+        Task task = tasks.remove(id);
+        if (task != null) {
+            task.cancelled = true;
+        }
+    }
+
+    private static <T> CompletableFuture<T> callNow(Callable<T> callable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(callable.call());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private final class Task {
+        private final int id;
+        private final Plugin owner;
+        private final Runnable runnable;
+        private final long period;
+        private final BukkitTask handle;
+        private long nextRun;
+        private boolean cancelled;
+
+        private Task(int id, Plugin owner, Runnable runnable, long nextRun, long period) {
+            this.id = id;
+            this.owner = owner;
+            this.runnable = runnable;
+            this.nextRun = nextRun;
+            this.period = period;
+            this.handle = Proxies.create(BukkitTask.class, (method, args) -> {
+                switch (method.getName()) {
+                    case "getTaskId":
+                        return this.id;
+                    case "getOwner":
+                        return this.owner;
+                    case "isSync":
+                        return true;
+                    case "isCancelled":
+                        return cancelled;
+                    case "cancel":
+                        cancel(this.id);
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+        }
+    }
+}
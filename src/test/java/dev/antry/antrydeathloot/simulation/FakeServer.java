@@ -0,0 +1,440 @@
+package dev.antry.antrydeathloot.simulation;
+
+import dev.antry.antrydeathloot.AntryDeathLoot;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.Warning;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.enchantments.EnchantmentTarget;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginLoader;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.SimplePluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory Bukkit server for running the plugin headless.
+ * <p>
+ * Events go through Bukkit's own {@link SimplePluginManager}, so listener registration,
+ * priorities, cancellation and {@link HandlerList#unregisterAll} behave as on a real
+ * server. Worlds, players, the scheduler and item meta are fakes. The plugin is created
+ * through its test constructor since it is not loaded by a plugin class loader.
+ * <p>
+ * When the plugin runs on a region-threaded executor, events fire on the calling thread
+ * without the plugin manager's lock, as on Folia; Bukkit's lock would otherwise serialize
+ * every region and deadlock against the plugin's own locks.
+ * <p>
+ * Bukkit accepts one server per JVM, so the first fake installs a server that forwards
+ * to the most recently created one, and registers the enchantments and item meta once.
+ */
+public final class FakeServer {
+    private static volatile FakeServer current;
+    private static Server installed;
+
+    private final Logger logger = Logger.getLogger("FakeServer");
+    private final Server server;
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private final SimplePluginManager pluginManager;
+    private final ItemFactory itemFactory;
+    private final Map<String, FakeWorld> worlds = new LinkedHashMap<>();
+    private final Map<UUID, Player> players = new LinkedHashMap<>();
+    private final Map<UUID, Location> playerLocations = new ConcurrentHashMap<>();
+    private final Map<String, PluginCommand> commands = new HashMap<>();
+    private final List<String> consoleMessages = new ArrayList<>();
+    private AntryDeathLoot plugin;
+    private volatile boolean regionThreaded;
+    private int nextEntityId = 1;
+    private final AtomicLong broadcasts = new AtomicLong();
+    private final AtomicLong playerMessages = new AtomicLong();
+
+    public FakeServer() {
+        this.server = Proxies.create(Server.class, (method, args) -> handle(method.getName(), args));
+        this.itemFactory = Proxies.create(ItemFactory.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getItemMeta":
+                    return newItemMeta((Material) args[0]);
+                case "equals":
+                    return isEmpty((ItemMeta) args[0]) ? isEmpty((ItemMeta) args[1])
+                            : !isEmpty((ItemMeta) args[1]) && Objects.equals(args[0], args[1]);
+                case "isApplicable":
+                    return true;
+                case "asMetaFor":
+                    return args[0];
+                default:
+                    return null;
+            }
+        });
+        this.pluginManager = new SimplePluginManager(server, new SimpleCommandMap(server));
+        install(this);
+    }
+
+    private static synchronized void install(FakeServer server) {
+        current = server;
+        if (installed == null) {
+            registerEnchantments();
+            ConfigurationSerialization.registerClass(FakeItemMeta.class);
+            installed = Proxies.create(Server.class, (method, args) -> current.handle(method.getName(), args));
+            Bukkit.setServer(installed);
+        }
+    }
+
+    /**
+     * Register every enchantment constant under its field name, as the server does
+     */
+    private static void registerEnchantments() {
+        for (Field field : Enchantment.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == Enchantment.class) {
+                try {
+                    int id = ((Enchantment) field.get(null)).getId();
+                    if (Enchantment.getById(id) == null) {
+                        Enchantment.registerEnchantment(new FakeEnchantment(id, field.getName()));
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return meta of the type the server uses for the material; null for air
+     */
+    private static ItemMeta newItemMeta(Material material) {
+        switch (material.name()) {
+            case "AIR":
+                return null;
+            case "SKULL_ITEM":
+                return new FakeItemMeta("SKULL");
+            case "WRITTEN_BOOK":
+                return new FakeItemMeta("BOOK_SIGNED");
+            case "POTION":
+                return new FakeItemMeta("POTION");
+            case "ENCHANTED_BOOK":
+                return new FakeItemMeta("ENCHANTED");
+            default:
+                return new FakeItemMeta(FakeItemMeta.UNSPECIFIC);
+        }
+    }
+
+    private static boolean isEmpty(ItemMeta meta) {
+        return meta == null || ((FakeItemMeta) meta).isEmpty();
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public FakeScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public long getCurrentTick() {
+        return scheduler.getCurrentTick();
+    }
+
+    public FakeWorld createWorld(String name, int groundY) {
+        FakeWorld world = new FakeWorld(this, name, groundY);
+        worlds.put(name, world);
+        return world;
+    }
+
+    public Player addPlayer(String name, Location location) {
+        UUID id = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        int entityId = nextEntityId();
+        playerLocations.put(id, location.clone());
+        Player player = Proxies.create(Player.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                case "getDisplayName":
+                    return name;
+                case "getUniqueId":
+                    return id;
+                case "getEntityId":
+                    return entityId;
+                case "getType":
+                    return EntityType.PLAYER;
+                case "getLocation":
+                    return playerLocations.get(id).clone();
+                case "getWorld":
+                    return playerLocations.get(id).getWorld();
+                case "teleport":
+                    playerLocations.put(id, ((Location) args[0]).clone());
+                    return true;
+                case "isOnline":
+                case "isValid":
+                case "hasPermission":
+                    return true;
+                case "sendMessage":
+                    playerMessages.incrementAndGet();
+                    return null;
+                default:
+                    return null;
+            }
+        });
+        players.put(id, player);
+        return player;
+    }
+
+    /**
+     * Create the plugin with the given data folder and enable it
+     */
+    public AntryDeathLoot enablePlugin(File dataFolder) throws Exception {
+        return enablePlugin(dataFolder, null);
+    }
+
+    /**
+     * Create the plugin with the given data folder and executor and enable it
+     * @param executor runs the plugin's tasks, or null for this server's scheduler
+     */
+    public AntryDeathLoot enablePlugin(File dataFolder, TaskExecutor executor) throws Exception {
+        PluginDescriptionFile description;
+        try (InputStream in = AntryDeathLoot.class.getClassLoader().getResourceAsStream("plugin.yml")) {
+            description = new PluginDescriptionFile(in);
+        }
+
+        Constructor<AntryDeathLoot> constructor = AntryDeathLoot.class.getDeclaredConstructor(
+                PluginLoader.class, Server.class, PluginDescriptionFile.class, File.class, File.class, TaskExecutor.class);
+        constructor.setAccessible(true);
+        regionThreaded = executor != null;
+        plugin = constructor.newInstance(new JavaPluginLoader(server), server, description, dataFolder,
+                new File(dataFolder, description.getName() + ".jar"), executor);
+        setEnabled(true);
+        return plugin;
+    }
+
+    public void disablePlugin() throws Exception {
+        setEnabled(false);
+    }
+
+    /**
+     * Release what the server does after disabling a plugin: its tasks and listeners
+     */
+    public void releasePlugin() {
+        scheduler.cancelAll(plugin);
+        HandlerList.unregisterAll((Plugin) plugin);
+    }
+
+    public void callEvent(Event event) {
+        if (!regionThreaded) {
+            pluginManager.callEvent(event);
+            return;
+        }
+
+        for (RegisteredListener listener : event.getHandlers().getRegisteredListeners()) {
+            if (!listener.getPlugin().isEnabled()) {
+                continue;
+            }
+            try {
+                listener.callEvent(event);
+            } catch (Throwable e) {
+                logger.log(Level.SEVERE, "Could not pass event " + event.getEventName()
+                        + " to " + listener.getPlugin().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Run a command as the console
+     * @return the messages it sent back
+     */
+    public List<String> dispatchConsole(String label, String... args) {
+        consoleMessages.clear();
+        PluginCommand command = commands.get(label);
+        if (command != null) {
+            command.execute(consoleSender(), label, args);
+        }
+        return new ArrayList<>(consoleMessages);
+    }
+
+    public long getBroadcastCount() {
+        return broadcasts.get();
+    }
+
+    public long getPlayerMessageCount() {
+        return playerMessages.get();
+    }
+
+    synchronized int nextEntityId() {
+        return nextEntityId++;
+    }
+
+    List<Player> getPlayersIn(World world) {
+        List<Player> found = new ArrayList<>();
+        for (Map.Entry<UUID, Player> entry : players.entrySet()) {
+            if (playerLocations.get(entry.getKey()).getWorld() == world) {
+                found.add(entry.getValue());
+            }
+        }
+        return found;
+    }
+
+    private void setEnabled(boolean enabled) throws Exception {
+        Method setEnabled = JavaPlugin.class.getDeclaredMethod("setEnabled", boolean.class);
+        setEnabled.setAccessible(true);
+        setEnabled.invoke(plugin, enabled);
+    }
+
+    private PluginCommand command(String name) throws Exception {
+        PluginCommand command = commands.get(name);
+        if (command == null && plugin != null && plugin.getDescription().getCommands().containsKey(name)) {
+            Constructor<PluginCommand> constructor = PluginCommand.class.getDeclaredConstructor(String.class, Plugin.class);
+            constructor.setAccessible(true);
+            command = constructor.newInstance(name, plugin);
+            commands.put(name, command);
+        }
+        return command;
+    }
+
+    private CommandSender consoleSender() {
+        return Proxies.create(CommandSender.class, (method, args) -> {
+            switch (method.getName()) {
+                case "sendMessage":
+                    if (args[0] instanceof String[]) {
+                        for (String message : (String[]) args[0]) {
+                            consoleMessages.add(message);
+                        }
+                    } else {
+                        consoleMessages.add((String) args[0]);
+                    }
+                    return null;
+                case "getName":
+                    return "CONSOLE";
+                case "hasPermission":
+                case "isOp":
+                    return true;
+                case "getServer":
+                    return server;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private Object handle(String method, Object[] args) throws Exception {
+        switch (method) {
+            case "getLogger":
+                return logger;
+            case "getName":
+                return "FakeServer";
+            case "getVersion":
+                return "git-FakeServer (MC: 1.8.8)";
+            case "getBukkitVersion":
+                return "1.8.8-R0.1-SNAPSHOT";
+            case "getScheduler":
+                return scheduler.getScheduler();
+            case "getPluginManager":
+                return pluginManager;
+            case "getItemFactory":
+                return itemFactory;
+            case "getPluginCommand":
+                return command((String) args[0]);
+            case "isPrimaryThread":
+                return true;
+            case "getWarningState":
+                return Warning.WarningState.DEFAULT;
+            case "getUpdateFolder":
+                return "update";
+            case "getMaxPlayers":
+                return 1000;
+            case "getConsoleSender":
+                return consoleSender();
+            case "getWorlds":
+                List<World> all = new ArrayList<>();
+                for (FakeWorld world : worlds.values()) {
+                    all.add(world.getWorld());
+                }
+                return all;
+            case "getWorld":
+                for (FakeWorld world : worlds.values()) {
+                    if (args[0].equals(world.getWorld().getUID()) || args[0].equals(world.getWorld().getName())) {
+                        return world.getWorld();
+                    }
+                }
+                return null;
+            case "getOnlinePlayers":
+                return new ArrayList<>(players.values());
+            case "getPlayer":
+                return args[0] instanceof UUID ? players.get(args[0]) : null;
+            case "broadcastMessage":
+                broadcasts.incrementAndGet();
+                playerMessages.addAndGet(players.size());
+                return players.size();
+            default:
+                return null;
+        }
+    }
+
+    private static final class FakeEnchantment extends Enchantment {
+        private final String name;
+
+        private FakeEnchantment(int id, String name) {
+            super(id);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getMaxLevel() {
+            return 5;
+        }
+
+        @Override
+        public int getStartLevel() {
+            return 1;
+        }
+
+        @Override
+        public EnchantmentTarget getItemTarget() {
+            return EnchantmentTarget.ALL;
+        }
+
+        @Override
+        public boolean conflictsWith(Enchantment other) {
+            return false;
+        }
+
+        @Override
+        public boolean canEnchantItem(ItemStack item) {
+            return true;
+        }
+    }
+}
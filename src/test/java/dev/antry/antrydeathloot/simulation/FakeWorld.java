@@ -0,0 +1,547 @@
+package dev.antry.antrydeathloot.simulation;
+
+import dev.antry.antrydeathloot.data.BlockKey;
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Chest;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Flat in-memory world: stone below {@code groundY}, air above, with chest inventories,
+ * chunk loading and the three entity kinds the plugin spawns.
+ * <p>
+ * Every chunk starts loaded. Touching a block in an unloaded chunk loads it again and is
+ * counted, since the plugin should never cause that. Falling blocks land after a
+ * physically plausible delay and fire {@link EntityChangeBlockEvent}; dropped items
+ * despawn after five minutes.
+ * <p>
+ * World state is guarded by the world's lock so region threads can share it, but events
+ * are always fired outside it: listeners take the plugin's own locks, which region
+ * threads already hold while they touch the world.
+ */
+public final class FakeWorld {
+    private static final int CHEST_SIZE = 27;
+    private static final long ITEM_DESPAWN_TICKS = 6000L;
+    private static final double GRAVITY = 0.04;
+
+    private final FakeServer server;
+    private final String name;
+    private final UUID uid;
+    private final int groundY;
+    private final World world;
+
+    private final Map<Long, Material> blocks = new HashMap<>();
+    private final Map<Long, Inventory> inventories = new HashMap<>();
+    private final Set<Long> unloadedChunks = new HashSet<>();
+    private final Map<Integer, FakeEntity> entities = new LinkedHashMap<>();
+    private final Map<Long, List<FakeEntity>> storedEntities = new HashMap<>();
+    private final Map<Integer, Long> landingTicks = new HashMap<>();
+    private int forcedChunkLoads;
+
+    FakeWorld(FakeServer server, String name, int groundY) {
+        this.server = server;
+        this.name = name;
+        this.uid = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+        this.groundY = groundY;
+        this.world = Proxies.create(World.class, (method, args) -> handle(method.getName(), args));
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getGroundY() {
+        return groundY;
+    }
+
+    /**
+     * @return the number of times the plugin touched a block in an unloaded chunk
+     */
+    public synchronized int getForcedChunkLoads() {
+        return forcedChunkLoads;
+    }
+
+    /**
+     * @return live entities of the given kind, across loaded chunks
+     */
+    public synchronized int countEntities(FakeEntity.Kind kind) {
+        int count = 0;
+        for (FakeEntity entity : entities.values()) {
+            if (entity.kind == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return entities of the given kind saved with unloaded chunks
+     */
+    public synchronized int countStoredEntities(FakeEntity.Kind kind) {
+        int count = 0;
+        for (List<FakeEntity> stored : storedEntities.values()) {
+            for (FakeEntity entity : stored) {
+                if (entity.kind == kind) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return positions of every chest block, loaded or not
+     */
+    public synchronized List<Location> getChestLocations() {
+        List<Location> chests = new ArrayList<>();
+        for (Map.Entry<Long, Material> entry : blocks.entrySet()) {
+            if (entry.getValue() == Material.CHEST) {
+                chests.add(BlockKey.toLocation(world, entry.getKey()));
+            }
+        }
+        return chests;
+    }
+
+    public synchronized boolean isChunkLoaded(int chunkX, int chunkZ) {
+        return !unloadedChunks.contains(ChunkOccupancy.chunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Unload a chunk unless a listener cancels it
+     * @return true if the chunk was unloaded
+     */
+    public boolean unloadChunk(int chunkX, int chunkZ) {
+        if (!isChunkLoaded(chunkX, chunkZ)) {
+            return false;
+        }
+
+        ChunkUnloadEvent event = new ChunkUnloadEvent(chunk(chunkX, chunkZ));
+        server.callEvent(event);
+        if (event.isCancelled()) {
+            return false;
+        }
+
+        storeEntities(chunkX, chunkZ);
+        return true;
+    }
+
+    private synchronized void storeEntities(int chunkX, int chunkZ) {
+        long key = ChunkOccupancy.chunkKey(chunkX, chunkZ);
+        unloadedChunks.add(key);
+        List<FakeEntity> stored = new ArrayList<>();
+        Iterator<FakeEntity> iterator = entities.values().iterator();
+        while (iterator.hasNext()) {
+            FakeEntity entity = iterator.next();
+            if (entity.getChunkX() == chunkX && entity.getChunkZ() == chunkZ) {
+                entity.unloaded = true;
+                stored.add(entity);
+                iterator.remove();
+            }
+        }
+        if (!stored.isEmpty()) {
+            storedEntities.put(key, stored);
+        }
+    }
+
+    public void loadChunk(int chunkX, int chunkZ) {
+        if (restoreEntities(ChunkOccupancy.chunkKey(chunkX, chunkZ))) {
+            server.callEvent(new ChunkLoadEvent(chunk(chunkX, chunkZ), false));
+        }
+    }
+
+    /**
+     * @return false if the chunk was already loaded
+     */
+    private synchronized boolean restoreEntities(long key) {
+        if (!unloadedChunks.remove(key)) {
+            return false;
+        }
+
+        List<FakeEntity> stored = storedEntities.remove(key);
+        if (stored != null) {
+            for (FakeEntity entity : stored) {
+                FakeEntity reloaded = entity.reload(server.nextEntityId());
+                entities.put(reloaded.id, reloaded);
+                Long landing = landingTicks.remove(entity.id);
+                if (landing != null) {
+                    landingTicks.put(reloaded.id, landing);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Land falling blocks and despawn old items
+     */
+    void tick(long currentTick) {
+        List<FakeEntity> landing = new ArrayList<>();
+        List<FakeEntity> despawning = new ArrayList<>();
+        synchronized (this) {
+            for (FakeEntity entity : entities.values()) {
+                if (entity.kind == FakeEntity.Kind.FALLING_BLOCK && landingTicks.getOrDefault(entity.id, Long.MAX_VALUE) <= currentTick) {
+                    landing.add(entity);
+                } else if (entity.kind == FakeEntity.Kind.ITEM && currentTick - entity.spawnedAt >= ITEM_DESPAWN_TICKS) {
+                    despawning.add(entity);
+                }
+            }
+        }
+
+        for (FakeEntity entity : landing) {
+            if (entity.removed) {
+                continue;
+            }
+            Location location = entity.location;
+            Block block = blockAt(location.getBlockX(), groundY, location.getBlockZ());
+            EntityChangeBlockEvent event = new EntityChangeBlockEvent(entity.entity, block, entity.material, (byte) 0);
+            server.callEvent(event);
+            if (!entity.removed) {
+                if (!event.isCancelled()) {
+                    setType(location.getBlockX(), groundY, location.getBlockZ(), entity.material);
+                }
+                entity.entity.remove();
+            }
+        }
+        for (FakeEntity entity : despawning) {
+            entity.entity.remove();
+        }
+    }
+
+    synchronized void removeEntity(FakeEntity entity) {
+        entities.remove(entity.id);
+        landingTicks.remove(entity.id);
+    }
+
+    synchronized Material getType(int x, int y, int z) {
+        Material type = blocks.get(BlockKey.pack(x, y, z));
+        if (type != null) {
+            return type;
+        }
+        return y < groundY ? Material.STONE : Material.AIR;
+    }
+
+    synchronized void setType(int x, int y, int z, Material type) {
+        long key = BlockKey.pack(x, y, z);
+        Material defaultType = y < groundY ? Material.STONE : Material.AIR;
+        if (type == defaultType) {
+            blocks.remove(key);
+        } else {
+            blocks.put(key, type);
+        }
+        if (type != Material.CHEST) {
+            inventories.remove(key);
+        }
+    }
+
+    /**
+     * Break a block like a player would: drop a chest's contents and remove it
+     */
+    void breakNaturally(int x, int y, int z) {
+        Inventory inventory;
+        synchronized (this) {
+            inventory = inventories.get(BlockKey.pack(x, y, z));
+        }
+        if (inventory != null) {
+            Location location = new Location(world, x + 0.5, y + 0.5, z + 0.5);
+            for (ItemStack item : inventory.getContents()) {
+                if (item != null && item.getType() != Material.AIR) {
+                    spawnItem(location, item);
+                }
+            }
+        }
+        setType(x, y, z, Material.AIR);
+    }
+
+    Block blockAt(int x, int y, int z) {
+        ensureLoaded(x >> 4, z >> 4);
+        Location location = new Location(world, x, y, z);
+        return Proxies.create(Block.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getWorld":
+                    return world;
+                case "getX":
+                    return x;
+                case "getY":
+                    return y;
+                case "getZ":
+                    return z;
+                case "getLocation":
+                    return location.clone();
+                case "getChunk":
+                    return chunk(x >> 4, z >> 4);
+                case "getType":
+                    return getType(x, y, z);
+                case "getTypeId":
+                    return getType(x, y, z).getId();
+                case "setType":
+                    setType(x, y, z, (Material) args[0]);
+                    return args.length > 1 ? Boolean.TRUE : null;
+                case "isEmpty":
+                    return getType(x, y, z) == Material.AIR;
+                case "getState":
+                    return state(x, y, z);
+                case "breakNaturally":
+                    breakNaturally(x, y, z);
+                    return true;
+                case "getRelative":
+                    if (args[0] instanceof BlockFace) {
+                        BlockFace face = (BlockFace) args[0];
+                        int distance = args.length > 1 ? (Integer) args[1] : 1;
+                        return blockAt(x + face.getModX() * distance, y + face.getModY() * distance, z + face.getModZ() * distance);
+                    }
+                    return blockAt(x + (Integer) args[0], y + (Integer) args[1], z + (Integer) args[2]);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private BlockState state(int x, int y, int z) {
+        Material type = getType(x, y, z);
+        if (type != Material.CHEST) {
+            return Proxies.create(BlockState.class, (method, args) -> stateMethod(method.getName(), x, y, z, type));
+        }
+
+        long key = BlockKey.pack(x, y, z);
+        Chest[] chest = new Chest[1];
+        chest[0] = Proxies.create(Chest.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getInventory":
+                case "getBlockInventory":
+                    synchronized (this) {
+                        return inventories.computeIfAbsent(key, k -> new FakeInventory(CHEST_SIZE, chest[0]).getInventory());
+                    }
+                default:
+                    return stateMethod(method.getName(), x, y, z, type);
+            }
+        });
+        return chest[0];
+    }
+
+    private Object stateMethod(String method, int x, int y, int z, Material type) {
+        switch (method) {
+            case "getType":
+                return type;
+            case "getBlock":
+                return blockAt(x, y, z);
+            case "getWorld":
+                return world;
+            case "getLocation":
+                return new Location(world, x, y, z);
+            case "getX":
+                return x;
+            case "getY":
+                return y;
+            case "getZ":
+                return z;
+            case "update":
+                return true;
+            default:
+                return null;
+        }
+    }
+
+    private Chunk chunk(int chunkX, int chunkZ) {
+        return Proxies.create(Chunk.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getX":
+                    return chunkX;
+                case "getZ":
+                    return chunkZ;
+                case "getWorld":
+                    return world;
+                case "isLoaded":
+                    return isChunkLoaded(chunkX, chunkZ);
+                case "getEntities":
+                    return entitiesIn(chunkX, chunkZ);
+                case "getBlock":
+                    return blockAt((chunkX << 4) + (Integer) args[0], (Integer) args[1], (chunkZ << 4) + (Integer) args[2]);
+                case "getChunkSnapshot":
+                    return snapshot(chunkX, chunkZ);
+                case "load":
+                    loadChunk(chunkX, chunkZ);
+                    return true;
+                case "unload":
+                    return unloadChunk(chunkX, chunkZ);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private ChunkSnapshot snapshot(int chunkX, int chunkZ) {
+        ensureLoaded(chunkX, chunkZ);
+        // Copy the chunk's changed blocks; everything else follows the flat layout
+        Map<Long, Material> copy = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Long, Material> entry : blocks.entrySet()) {
+                long key = entry.getKey();
+                if (BlockKey.getX(key) >> 4 == chunkX && BlockKey.getZ(key) >> 4 == chunkZ) {
+                    copy.put(key, entry.getValue());
+                }
+            }
+        }
+        return Proxies.create(ChunkSnapshot.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getX":
+                    return chunkX;
+                case "getZ":
+                    return chunkZ;
+                case "getWorldName":
+                    return name;
+                case "getBlockType":
+                case "getBlockTypeId":
+                    int x = (chunkX << 4) + (Integer) args[0];
+                    int y = (Integer) args[1];
+                    int z = (chunkZ << 4) + (Integer) args[2];
+                    Material type = copy.get(BlockKey.pack(x, y, z));
+                    if (type == null) {
+                        type = y < groundY ? Material.STONE : Material.AIR;
+                    }
+                    return method.getName().equals("getBlockType") ? type : (Object) type.getId();
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private Entity[] entitiesIn(int chunkX, int chunkZ) {
+        ensureLoaded(chunkX, chunkZ);
+        List<Entity> found = new ArrayList<>();
+        synchronized (this) {
+            for (FakeEntity entity : entities.values()) {
+                if (entity.getChunkX() == chunkX && entity.getChunkZ() == chunkZ) {
+                    found.add(entity.entity);
+                }
+            }
+        }
+        return found.toArray(new Entity[0]);
+    }
+
+    private void ensureLoaded(int chunkX, int chunkZ) {
+        if (!isChunkLoaded(chunkX, chunkZ)) {
+            synchronized (this) {
+                forcedChunkLoads++;
+            }
+            loadChunk(chunkX, chunkZ);
+        }
+    }
+
+    private FakeEntity spawnEntity(FakeEntity.Kind kind, Location location) {
+        ensureLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        FakeEntity entity = new FakeEntity(server.nextEntityId(), kind, this, location, UUID.randomUUID());
+        entity.spawnedAt = server.getCurrentTick();
+        synchronized (this) {
+            entities.put(entity.id, entity);
+        }
+        return entity;
+    }
+
+    private Entity spawnItem(Location location, ItemStack item) {
+        FakeEntity entity = spawnEntity(FakeEntity.Kind.ITEM, location);
+        entity.itemStack = item.clone();
+        return entity.entity;
+    }
+
+    private Entity spawnFallingBlock(Location location, Material material) {
+        FakeEntity entity = spawnEntity(FakeEntity.Kind.FALLING_BLOCK, location);
+        entity.material = material;
+        double height = Math.max(0, location.getY() - groundY);
+        synchronized (this) {
+            landingTicks.put(entity.id, server.getCurrentTick() + 1 + (long) Math.ceil(Math.sqrt(2 * height / GRAVITY)));
+        }
+        return entity.entity;
+    }
+
+    private Object handle(String method, Object[] args) {
+        switch (method) {
+            case "getUID":
+                return uid;
+            case "getName":
+                return name;
+            case "getBlockAt":
+                if (args[0] instanceof Location) {
+                    Location location = (Location) args[0];
+                    return blockAt(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+                }
+                return blockAt((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+            case "getChunkAt":
+                if (args[0] instanceof Location) {
+                    Location location = (Location) args[0];
+                    return chunk(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+                }
+                if (args[0] instanceof Block) {
+                    Block block = (Block) args[0];
+                    return chunk(block.getX() >> 4, block.getZ() >> 4);
+                }
+                return chunk((Integer) args[0], (Integer) args[1]);
+            case "isChunkLoaded":
+                if (args[0] instanceof Chunk) {
+                    Chunk chunk = (Chunk) args[0];
+                    return isChunkLoaded(chunk.getX(), chunk.getZ());
+                }
+                return isChunkLoaded((Integer) args[0], (Integer) args[1]);
+            case "getHighestBlockYAt":
+                return groundY;
+            case "getHighestBlockAt":
+                return blockAt((Integer) args[0], groundY, (Integer) args[1]);
+            case "getMaxHeight":
+                return 256;
+            case "getEnvironment":
+                return World.Environment.NORMAL;
+            case "getSpawnLocation":
+                return new Location(world, 0, groundY, 0);
+            case "getPlayers":
+                return server.getPlayersIn(world);
+            case "getEntities":
+                List<Entity> all = new ArrayList<>();
+                synchronized (this) {
+                    for (FakeEntity entity : entities.values()) {
+                        all.add(entity.entity);
+                    }
+                }
+                return all;
+            case "getLivingEntities":
+                return Collections.emptyList();
+            case "spawn":
+                if (args[1] != ArmorStand.class) {
+                    throw new UnsupportedOperationException("Cannot spawn " + args[1] + " in a fake world");
+                }
+                return spawnEntity(FakeEntity.Kind.ARMOR_STAND, (Location) args[0]).entity;
+            case "spawnFallingBlock":
+                Material material = args[1] instanceof Material ? (Material) args[1] : Material.getMaterial((Integer) args[1]);
+                return spawnFallingBlock((Location) args[0], material);
+            case "dropItem":
+            case "dropItemNaturally":
+                return spawnItem((Location) args[0], (ItemStack) args[1]);
+            default:
+                // Effects and sounds have no observable state
+                return null;
+        }
+    }
+}
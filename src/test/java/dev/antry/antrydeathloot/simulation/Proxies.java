@@ -0,0 +1,89 @@
+package dev.antry.antrydeathloot.simulation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implements Bukkit interfaces with dynamic proxies, so fakes only handle the methods the
+ * plugin actually calls. Unhandled methods return zero, false, an empty collection or null.
+ */
+public final class Proxies {
+
+    /**
+     * Answers proxied calls; return null to fall back to the default for the return type
+     */
+    @FunctionalInterface
+    public interface Handler {
+        Object handle(Method method, Object[] args) throws Exception;
+    }
+
+    private Proxies() {
+    }
+
+    /**
+     * @param type the main interface, used for {@code toString}
+     * @param extra further interfaces the proxy implements
+     */
+    public static <T> T create(Class<T> type, Handler handler, Class<?>... extra) {
+        Class<?>[] interfaces = new Class<?>[extra.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extra, 0, interfaces, 1, extra.length);
+
+        Object proxy = Proxy.newProxyInstance(Proxies.class.getClassLoader(), interfaces, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return self == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(self);
+                    default:
+                        return "Fake" + type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(self));
+                }
+            }
+            Object value = handler.handle(method, args != null ? args : new Object[0]);
+            return value != null ? value : defaultValue(method.getReturnType());
+        });
+        return type.cast(proxy);
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        if (type == List.class || type == java.util.Collection.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        return null;
+    }
+}
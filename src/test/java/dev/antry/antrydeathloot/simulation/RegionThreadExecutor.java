@@ -0,0 +1,259 @@
+package dev.antry.antrydeathloot.simulation;
+
+import dev.antry.antrydeathloot.data.ChunkOccupancy;
+import dev.antry.antrydeathloot.scheduler.TaskExecutor;
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link TaskExecutor} with a thread per region and one for the global region, the way
+ * Folia runs a server.
+ * <p>
+ * Regions are fixed squares of {@code 2^regionShift} chunks, each with its own thread
+ * created on first use; Folia's regions also merge and split, which this does not model.
+ * Delayed and repeating tasks are due in server ticks, and {@link #tick()} advances
+ * every region by one tick concurrently. Failures of any task are collected rather than
+ * lost on a pool thread.
+ */
+public final class RegionThreadExecutor implements TaskExecutor {
+    private static final ThreadLocal<Region> CURRENT = new ThreadLocal<>();
+
+    private final int regionShift;
+    private final Map<Long, Region> regions = new ConcurrentHashMap<>();
+    private final Region global = new Region("global");
+    private final ExecutorService async = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "async");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+    private volatile long currentTick;
+
+    /**
+     * @param regionShift region size as a power of two in chunks
+     */
+    public RegionThreadExecutor(int regionShift) {
+        this.regionShift = regionShift;
+    }
+
+    @Override
+    public String getName() {
+        return "fake region threads";
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Location location) {
+        return CURRENT.get() == regionAt(location);
+    }
+
+    @Override
+    public void runAt(Location location, Runnable task) {
+        Region region = regionAt(location);
+        if (CURRENT.get() == region) {
+            task.run();
+            return;
+        }
+        region.execute(task);
+    }
+
+    @Override
+    public Task runAtLater(Location location, Runnable task, long delayTicks) {
+        return regionAt(location).schedule(task, delayTicks, 0L);
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        global.execute(task);
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        return global.schedule(task, delayTicks, 0L);
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return global.schedule(task, delayTicks, Math.max(1L, periodTicks));
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        inFlight.incrementAndGet();
+        async.execute(() -> run(task));
+    }
+
+    /**
+     * Advance every region by one tick, running their due tasks concurrently, and wait
+     * until each region has finished its tick
+     */
+    public void tick() throws InterruptedException, TimeoutException {
+        currentTick++;
+        List<Region> ticking = new ArrayList<>(regions.values());
+        ticking.add(global);
+        List<Future<?>> ticks = new ArrayList<>(ticking.size());
+        for (Region region : ticking) {
+            ticks.add(region.thread.submit(region::tick));
+        }
+        for (Future<?> tick : ticks) {
+            try {
+                tick.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Run a task on the thread owning a location and wait for it
+     */
+    public void runAtAndWait(Location location, Runnable task) throws InterruptedException, TimeoutException {
+        Region region = regionAt(location);
+        inFlight.incrementAndGet();
+        Future<?> future = region.thread.submit(() -> run(task));
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            failures.add(e.getCause());
+        }
+    }
+
+    /**
+     * Wait until no task is queued or running on any thread; delayed tasks do not count
+     */
+    public void awaitIdle() throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException(inFlight.get() + " tasks still running, possibly deadlocked");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * @return the number of region threads started so far, not counting the global region
+     */
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * @return every exception thrown by a task so far
+     */
+    public List<Throwable> getFailures() {
+        return failures;
+    }
+
+    public void shutdown() {
+        for (Region region : regions.values()) {
+            region.thread.shutdownNow();
+        }
+        global.thread.shutdownNow();
+        async.shutdownNow();
+    }
+
+    private Region regionAt(Location location) {
+        int regionX = location.getBlockX() >> 4 >> regionShift;
+        int regionZ = location.getBlockZ() >> 4 >> regionShift;
+        long key = ChunkOccupancy.chunkKey(regionX, regionZ);
+        return regions.computeIfAbsent(key, k -> new Region("region " + regionX + "," + regionZ));
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            failures.add(e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private final class Region {
+        private final ExecutorService thread;
+        // Added from any thread, run on the region's own
+        private final List<Delayed> delayed = new ArrayList<>();
+
+        private Region(String name) {
+            this.thread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread created = new Thread(() -> {
+                    CURRENT.set(this);
+                    runnable.run();
+                }, name);
+                created.setDaemon(true);
+                return created;
+            });
+        }
+
+        private void execute(Runnable task) {
+            inFlight.incrementAndGet();
+            thread.execute(() -> run(task));
+        }
+
+        private Task schedule(Runnable task, long delayTicks, long periodTicks) {
+            Delayed scheduled = new Delayed(task, currentTick + Math.max(1L, delayTicks), periodTicks);
+            synchronized (delayed) {
+                delayed.add(scheduled);
+            }
+            return scheduled;
+        }
+
+        private void tick() {
+            List<Delayed> due = new ArrayList<>();
+            synchronized (delayed) {
+                Iterator<Delayed> iterator = delayed.iterator();
+                while (iterator.hasNext()) {
+                    Delayed scheduled = iterator.next();
+                    if (scheduled.cancelled) {
+                        iterator.remove();
+                    } else if (scheduled.dueTick <= currentTick) {
+                        due.add(scheduled);
+                        if (scheduled.periodTicks > 0) {
+                            scheduled.dueTick += scheduled.periodTicks;
+                        } else {
+                            iterator.remove();
+                        }
+                    }
+                }
+            }
+            for (Delayed scheduled : due) {
+                if (!scheduled.cancelled) {
+                    inFlight.incrementAndGet();
+                    run(scheduled.task);
+                }
+            }
+        }
+    }
+
+    private static final class Delayed implements Task {
+        private final Runnable task;
+        private final long periodTicks;
+        private long dueTick;
+        private volatile boolean cancelled;
+
+        private Delayed(Runnable task, long dueTick, long periodTicks) {
+            this.task = task;
+            this.dueTick = dueTick;
+            this.periodTicks = periodTicks;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}